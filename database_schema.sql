@@ -33,6 +33,8 @@ CREATE TABLE ProductInfo (
     stock DECIMAL(10, 2) NOT NULL,
     threshold DECIMAL(10, 2) NOT NULL DEFAULT 5.00, 
     imagelocation MEDIUMBLOB, 
+    image_hash CHAR(64),
+    image_seeded BOOLEAN NOT NULL DEFAULT FALSE,
     unit VARCHAR(10) DEFAULT 'kg'
 );
 
@@ -73,12 +75,21 @@ CREATE TABLE OrderInfo (
     -- Track used coupon
     used_coupon_id INT DEFAULT NULL,
     
-    -- Invoice stored as CLOB (LONGTEXT)
+    -- Legacy Base64 invoice text (orders placed before invoice_pdf existed)
     invoice LONGTEXT, 
+
+    -- Rendered PDF invoice, stored as binary by the background invoice worker
+    invoice_pdf MEDIUMBLOB,
     
     FOREIGN KEY (customer_id) REFERENCES UserInfo(id),
     FOREIGN KEY (carrier_id) REFERENCES UserInfo(id),
-    FOREIGN KEY (used_coupon_id) REFERENCES Coupons(id)
+    FOREIGN KEY (used_coupon_id) REFERENCES Coupons(id),
+
+    -- Keyset pagination on (ordertime, id); InnoDB appends the primary key to every index
+    INDEX idx_orderinfo_time (ordertime, id),
+    INDEX idx_orderinfo_status_time (status, ordertime),
+    INDEX idx_orderinfo_customer_time (customer_id, ordertime),
+    INDEX idx_orderinfo_carrier_time (carrier_id, ordertime)
 );
 
 -- 5. Create OrderItems Table 
@@ -100,7 +111,8 @@ CREATE TABLE Conversations (
     status ENUM('OPEN', 'CLOSED') DEFAULT 'OPEN',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     closed_at TIMESTAMP NULL,
-    FOREIGN KEY (customer_id) REFERENCES UserInfo(id)
+    FOREIGN KEY (customer_id) REFERENCES UserInfo(id),
+    INDEX idx_conversations_customer_status_time (customer_id, status, created_at)
 );
 
 -- 6b. Create Messages Table
@@ -114,7 +126,8 @@ CREATE TABLE Messages (
     conversation_id INT,
     FOREIGN KEY (sender_id) REFERENCES UserInfo(id),
     FOREIGN KEY (receiver_id) REFERENCES UserInfo(id),
-    FOREIGN KEY (conversation_id) REFERENCES Conversations(id)
+    FOREIGN KEY (conversation_id) REFERENCES Conversations(id),
+    INDEX idx_messages_conversation_time (conversation_id, sent_at)
 );
 
 
@@ -148,6 +161,27 @@ CREATE TABLE ProductRatings (
     UNIQUE KEY unique_order_product_rating (order_id, product_id)
 );
 
+-- 10. Create Carts Table (saved shopping carts, written in the background)
+CREATE TABLE Carts (
+    customer_id INT NOT NULL,
+    product_id INT NOT NULL,
+    quantity DECIMAL(10, 2) NOT NULL,
+    line_no INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (customer_id, product_id),
+    FOREIGN KEY (customer_id) REFERENCES UserInfo(id),
+    FOREIGN KEY (product_id) REFERENCES ProductInfo(id) ON DELETE CASCADE
+);
+
+-- 11. Create DailySalesRollup Table (delivered sales per order day)
+-- Maintained when orders are delivered; filled from the orders by schema update 7.
+CREATE TABLE DailySalesRollup (
+    sales_day DATE NOT NULL PRIMARY KEY,
+    order_count INT NOT NULL DEFAULT 0,
+    quantity DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0
+);
+
 -- ==========================================
 --        DUMMY DATA (Min 25 records)
 -- ==========================================
@@ -0,0 +1,76 @@
+package com.group18.greengrocer.dao;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link ResultSet}s backed by maps, for benchmarking row mapping without a database.
+ * <p>
+ * Supports the column-label getters used by the DAOs ({@code getInt}, {@code getDouble},
+ * {@code getString}, {@code getTimestamp}, {@code getObject}) and {@code wasNull};
+ * multi-row result sets also support {@code next} and {@code close}.
+ * Any other method throws {@link UnsupportedOperationException}.
+ */
+final class FakeResultSet {
+
+    private FakeResultSet() { }
+
+    /**
+     * Creates a result set positioned on the given row.
+     *
+     * @param row Column label to value (null values are reported as SQL NULL).
+     * @return The result set.
+     */
+    static ResultSet of(Map<String, Object> row) {
+        return rows(List.of(row), 0);
+    }
+
+    /**
+     * Creates a result set over several rows, positioned before the first one.
+     *
+     * @param rows The rows, as column label to value.
+     * @return The result set.
+     */
+    static ResultSet of(List<Map<String, Object>> rows) {
+        return rows(rows, -1);
+    }
+
+    private static ResultSet rows(List<Map<String, Object>> rows, int start) {
+        boolean[] lastWasNull = new boolean[1];
+        int[] position = { start };
+        return (ResultSet) Proxy.newProxyInstance(FakeResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                    String name = method.getName();
+                    switch (name) {
+                        case "wasNull":
+                            return lastWasNull[0];
+                        case "next":
+                            return ++position[0] < rows.size();
+                        case "close":
+                            return null;
+                        default:
+                            break;
+                    }
+                    if (args == null || args.length != 1 || !(args[0] instanceof String label)) {
+                        throw new UnsupportedOperationException(name);
+                    }
+                    Object value = rows.get(position[0]).get(label);
+                    lastWasNull[0] = value == null;
+                    switch (name) {
+                        case "getInt":
+                            return value == null ? 0 : ((Number) value).intValue();
+                        case "getDouble":
+                            return value == null ? 0.0 : ((Number) value).doubleValue();
+                        case "getString":
+                            return value == null ? null : value.toString();
+                        case "getTimestamp":
+                        case "getObject":
+                            return value;
+                        default:
+                            throw new UnsupportedOperationException(name);
+                    }
+                });
+    }
+}
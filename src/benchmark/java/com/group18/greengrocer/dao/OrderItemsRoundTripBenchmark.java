@@ -0,0 +1,142 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Loading the items of a list of orders: one batched query per chunk of orders
+ * ({@code loadOrderItems} as used by the DAO) against the former one query per order.
+ * <p>
+ * The connection is a fake that answers every query from memory after waiting
+ * {@code roundTripMicros}, the network and server time of one query. With 0 only the
+ * JDBC and mapping overhead is measured; with a LAN-like 200 us the number of round
+ * trips dominates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderItemsRoundTripBenchmark {
+
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({ "20", "200" })
+    public int orders;
+
+    @Param({ "0", "200" })
+    public int roundTripMicros;
+
+    private MySqlOrderDAO orderDAO;
+    private Connection conn;
+    private Map<Integer, List<Map<String, Object>>> itemsByOrder;
+    private List<Integer> orderIds;
+
+    @Setup
+    public void setUp() {
+        orderDAO = new MySqlOrderDAO();
+        itemsByOrder = new HashMap<>();
+        orderIds = new ArrayList<>();
+        for (int id = 1; id <= orders; id++) {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (int line = 0; line < ITEMS_PER_ORDER; line++) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("order_id", id);
+                row.put("quantity", 1.5 + line);
+                row.put("price_at_purchase", 24.90);
+                row.put("id", 40 + line);
+                row.put("name", "Product " + line);
+                row.put("category", "VEGETABLE");
+                row.put("type", "Vegetable");
+                row.put("price", 24.90);
+                row.put("stock", 130.5);
+                row.put("threshold", 20.0);
+                row.put("unit", "kg");
+                items.add(row);
+            }
+            itemsByOrder.put(id, items);
+            orderIds.add(id);
+        }
+        conn = fakeConnection();
+    }
+
+    @Benchmark
+    public List<Order> batched() {
+        List<Order> result = newOrders();
+        orderDAO.loadOrderItems(result, conn);
+        return result;
+    }
+
+    @Benchmark
+    public List<Order> perOrder() {
+        List<Order> result = newOrders();
+        for (Order order : result) {
+            orderDAO.loadOrderItems(List.of(order), conn);
+        }
+        return result;
+    }
+
+    private List<Order> newOrders() {
+        List<Order> result = new ArrayList<>(orderIds.size());
+        for (int id : orderIds) {
+            Order order = new Order();
+            order.setId(id);
+            result.add(order);
+        }
+        return result;
+    }
+
+    /**
+     * Connection whose prepared statements collect the bound order ids and return
+     * the items of those orders after one simulated round trip.
+     */
+    private Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    if (!method.getName().equals("prepareStatement")) {
+                        return null;
+                    }
+                    List<Integer> bound = new ArrayList<>();
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[] { PreparedStatement.class }, (stmt, m, a) -> {
+                                switch (m.getName()) {
+                                    case "setInt":
+                                        bound.add((Integer) a[1]);
+                                        return null;
+                                    case "executeQuery":
+                                        if (roundTripMicros > 0) {
+                                            LockSupport.parkNanos(roundTripMicros * 1_000L);
+                                        }
+                                        List<Map<String, Object>> rows = new ArrayList<>();
+                                        for (int id : bound) {
+                                            rows.addAll(itemsByOrder.get(id));
+                                        }
+                                        return FakeResultSet.of(rows);
+                                    default:
+                                        return null;
+                                }
+                            });
+                });
+    }
+}
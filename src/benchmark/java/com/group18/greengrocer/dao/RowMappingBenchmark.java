@@ -0,0 +1,81 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping one ProductInfo / OrderInfo row to a model object.
+ * Rows come from {@link FakeResultSet}, so only the mapping code is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private MySqlProductDAO productDAO;
+    private MySqlOrderDAO orderDAO;
+    private ResultSet productRow;
+    private ResultSet orderRow;
+
+    @Setup
+    public void setUp() {
+        // The DAOs only open connections when queried; mapping never does
+        productDAO = new MySqlProductDAO();
+        orderDAO = new MySqlOrderDAO();
+
+        Map<String, Object> product = new HashMap<>();
+        product.put("id", 42);
+        product.put("name", "Tomato");
+        product.put("category", "VEGETABLE");
+        product.put("type", "Vegetable");
+        product.put("price", 24.90);
+        product.put("stock", 130.5);
+        product.put("threshold", 20.0);
+        product.put("unit", "kg");
+        product.put("image_hash", "3f786850e387550fdab836ed7e6dc881de23001b3f786850e387550fdab836ed");
+        productRow = FakeResultSet.of(product);
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Map<String, Object> order = new HashMap<>();
+        order.put("id", 1001);
+        order.put("customer_id", 7);
+        order.put("carrier_id", 3);
+        order.put("ordertime", now);
+        order.put("deliverytime", null);
+        order.put("requested_delivery_date", now);
+        order.put("status", "ON_THE_WAY");
+        order.put("totalcost", 312.45);
+        order.put("used_coupon_id", null);
+        orderRow = FakeResultSet.of(order);
+    }
+
+    @Benchmark
+    public Product mapProduct() throws SQLException {
+        return productDAO.mapProduct(productRow);
+    }
+
+    @Benchmark
+    public Order mapOrder() throws SQLException {
+        return orderDAO.mapOrder(orderRow);
+    }
+}
@@ -0,0 +1,588 @@
+package com.group18.greengrocer.load;
+
+import com.group18.greengrocer.dao.DatabaseAdapter;
+import com.group18.greengrocer.dao.SchemaPatcher;
+import com.group18.greengrocer.service.ReportService;
+import com.group18.greengrocer.util.Constants;
+import com.group18.greengrocer.util.PriceMath;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bulk-loads synthetic data into the existing tables, for scale-testing the schema
+ * and the queries at production size.
+ * <p>
+ * For {@code --orders N} it writes about:
+ * <ul>
+ * <li>N / 20 customers, N / 20000 carriers (at least 5) and {@code --products} products,</li>
+ * <li>N orders with 1-8 lines each (about 3 N OrderItems rows),</li>
+ * <li>carrier ratings for 35% and product ratings for 25% of the delivered orders,</li>
+ * <li>one conversation per 4 customers with 2-12 messages each.</li>
+ * </ul>
+ * So {@code --orders 2000000} gives roughly 10 million rows.
+ * <p>
+ * The data is shaped like a real shop: product popularity follows a Zipf
+ * distribution, order volume grows over the period and is higher at weekends, order
+ * times cluster around lunch and the evening, and recent orders are still in the
+ * open states while older ones are delivered, completed or cancelled.
+ * <p>
+ * Rows are written with explicit ids (after the current maximum) through JDBC
+ * batches; the driver's {@code rewriteBatchedStatements} turns each batch into
+ * multi-row INSERTs. Unique and foreign key checks are switched off for the session,
+ * since the generated rows are consistent by construction. Run it against an idle
+ * scratch database, not a database the application is using.
+ * <p>
+ * Run with:
+ *
+ * <pre>
+ * mvn -Pbenchmark compile exec:java -Dexec.mainClass=com.group18.greengrocer.load.DataGenerator \
+ *     -Dexec.args="--orders 2000000"
+ * </pre>
+ *
+ * The daily sales rollup is rebuilt from the generated orders at the end.
+ * {@code --dry-run true} generates all rows without a database and only reports the
+ * counts.
+ */
+public class DataGenerator {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("orders", "1000000");  // orders to create
+        DEFAULTS.put("products", "500");    // products to create
+        DEFAULTS.put("days", "730");        // orders are spread over this many days up to today
+        DEFAULTS.put("batch", "5000");      // rows per batch (and per transaction)
+        DEFAULTS.put("seed", "18");         // random seed
+        DEFAULTS.put("dry-run", "false");   // true = generate without writing
+    }
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final long DAY_MS = 24 * HOUR_MS;
+
+    /** Relative order volume per hour of day (0-23). */
+    private static final int[] HOUR_WEIGHTS = {
+            1, 1, 1, 1, 1, 2, 4, 6, 8, 9, 10, 12, 14, 13, 10, 9, 10, 12, 14, 14, 11, 7, 4, 2 };
+
+    private static final double ZIPF_EXPONENT = 1.1;
+    private static final double WEEKEND_FACTOR = 1.25;
+    private static final double GROWTH = 2.0;       // the last day has 1 + GROWTH times the volume of the first
+    private static final int MAX_LINES = 8;
+    private static final int CARRIER_RATING_PERCENT = 35;
+    private static final int PRODUCT_RATING_PERCENT = 25;
+    private static final int CANCELLED_PERCENT = 6;
+
+    private static final String[] PRODUCT_NAMES = {
+            "Apple", "Pear", "Plum", "Cherry", "Peach", "Apricot", "Grape", "Fig", "Quince", "Melon",
+            "Tomato", "Cucumber", "Pepper", "Eggplant", "Zucchini", "Carrot", "Potato", "Onion", "Leek", "Spinach" };
+
+    private static final String[] COMMENTS = {
+            "Fast delivery, thanks!", "Arrived a bit late.", "Very friendly carrier.",
+            "Fresh and well packed.", "Okay.", "Some items were bruised." };
+
+    private static final String[] CUSTOMER_LINES = {
+            "Hello, where is my order?", "Can I change my delivery time?", "One item was missing.",
+            "Do you have organic tomatoes?", "Thanks for the quick answer!" };
+
+    private static final String[] OWNER_LINES = {
+            "Your order is on the way.", "Sure, we have updated it.", "Sorry about that, we will refund it.",
+            "Yes, they are back in stock.", "You're welcome!" };
+
+    private final LoadOptions options;
+    private final Random random;
+    private final int batchSize;
+    private final boolean dryRun;
+    private final long now = System.currentTimeMillis();
+
+    private Connection conn;
+    private final List<Inserter> inserters = new ArrayList<>();
+
+    private int ownerId;
+    private int firstCustomerId;
+    private int customerCount;
+    private int firstCarrierId;
+    private int carrierCount;
+
+    // Product catalog in popularity order (index 0 is the most popular)
+    private int[] productIds;
+    private long[] productPriceCents;
+    private boolean[] productByPiece;
+    private double[] popularity;     // cumulative Zipf weights
+    private double[] hourCumulative; // cumulative HOUR_WEIGHTS
+
+    public DataGenerator(LoadOptions options) {
+        this.options = options;
+        this.random = new Random(options.getInt("seed"));
+        this.batchSize = options.getInt("batch");
+        this.dryRun = options.getBoolean("dry-run");
+    }
+
+    /**
+     * Entry point. Options are given as {@code --name value}; see {@link #DEFAULTS}.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        try {
+            new DataGenerator(LoadOptions.parse(args, DEFAULTS)).run();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generates and writes all data.
+     *
+     * @throws SQLException if the database rejects a batch.
+     */
+    public void run() throws SQLException {
+        int orders = options.getInt("orders");
+        long start = System.nanoTime();
+        System.out.println("Generating data " + options + (dryRun ? " (dry run)" : ""));
+
+        if (!dryRun) {
+            SchemaPatcher.updateSchema();
+            DatabaseAdapter.getInstance().closeConnection();
+            conn = DriverManager.getConnection(Constants.DB_URL + "&rewriteBatchedStatements=true",
+                    Constants.DB_USER, Constants.DB_PASS);
+        }
+        try {
+            if (conn != null) {
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SET SESSION unique_checks = 0");
+                    stmt.execute("SET SESSION foreign_key_checks = 0");
+                }
+            }
+
+            generateUsers(Math.max(100, orders / 20), Math.max(5, orders / 20_000));
+            generateProducts(options.getInt("products"));
+            generateOrders(orders, options.getInt("days"));
+            generateConversations(customerCount / 4);
+
+            for (Inserter inserter : inserters) {
+                inserter.close();
+            }
+            if (conn != null) {
+                // The orders bypassed the DAOs, so the sales rollup is backfilled from them
+                System.out.println("Rebuilding sales rollup...");
+                int rollupRows = new ReportService().rebuildSalesRollup(null, null);
+                DatabaseAdapter.getInstance().closeConnection();
+                System.out.printf(Locale.ROOT, "  %-15s %,12d rows%n", "DailySalesRollup", rollupRows);
+
+                try (Statement stmt = conn.createStatement()) {
+                    // Fresh index statistics, so the optimizer sees the new volumes
+                    stmt.execute("ANALYZE TABLE UserInfo, ProductInfo, OrderInfo, OrderItems, CarrierRatings, "
+                            + "ProductRatings, Conversations, Messages, DailySalesRollup");
+                }
+            }
+        } finally {
+            if (conn != null) {
+                conn.close();
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = 0;
+        for (Inserter inserter : inserters) {
+            System.out.printf(Locale.ROOT, "  %-15s %,12d rows%n", inserter.table, inserter.rows);
+            total += inserter.rows;
+        }
+        System.out.printf(Locale.ROOT, "%,d rows in %.1f s (%,.0f rows/s)%n", total, seconds, total / seconds);
+    }
+
+    /* -------------------------
+       USERS & PRODUCTS
+       ------------------------- */
+
+    private void generateUsers(int customers, int carriers) throws SQLException {
+        Inserter users = inserter("UserInfo", "id", "username", "password", "role", "address", "phone_number",
+                "created_at");
+        int nextId = nextId("UserInfo");
+
+        ownerId = queryInt("SELECT id FROM UserInfo WHERE role = 'OWNER' ORDER BY id LIMIT 1");
+        if (ownerId == 0) {
+            ownerId = nextId++;
+            users.add(ownerId, "genowner" + ownerId, "1234", "OWNER", "HQ Address", "5550000000",
+                    new Timestamp(now - options.getInt("days") * DAY_MS));
+        }
+
+        firstCustomerId = nextId;
+        customerCount = customers;
+        for (int i = 0; i < customers; i++) {
+            int id = nextId++;
+            users.add(id, "gencustomer" + id, "1234", "CUSTOMER", "Street " + (1 + random.nextInt(500)),
+                    phone(), randomTime(options.getInt("days")));
+        }
+
+        firstCarrierId = nextId;
+        carrierCount = carriers;
+        for (int i = 0; i < carriers; i++) {
+            int id = nextId++;
+            users.add(id, "gencarrier" + id, "1234", "CARRIER", "Carrier Hub " + (1 + i), phone(),
+                    randomTime(options.getInt("days")));
+        }
+        users.flush();
+    }
+
+    private void generateProducts(int count) throws SQLException {
+        Inserter products = inserter("ProductInfo", "id", "name", "category", "type", "price", "stock", "threshold",
+                "image_seeded", "unit");
+        int nextId = nextId("ProductInfo");
+
+        List<int[]> catalog = new ArrayList<>();          // {id, priceCents, byPiece}
+        if (conn != null) {
+            try (Statement stmt = conn.createStatement();
+                    ResultSet rs = stmt.executeQuery(
+                            "SELECT id, price, unit FROM ProductInfo WHERE name NOT LIKE 'DELETED-%'")) {
+                while (rs.next()) {
+                    catalog.add(new int[] { rs.getInt("id"), (int) PriceMath.toCents(rs.getDouble("price")),
+                            "piece".equalsIgnoreCase(rs.getString("unit")) ? 1 : 0 });
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int id = nextId++;
+            int nameIndex = random.nextInt(PRODUCT_NAMES.length);
+            boolean fruit = nameIndex < 10;
+            boolean byPiece = random.nextInt(5) == 0;
+            long priceCents = 500 + random.nextInt(7_500);
+            products.add(id, PRODUCT_NAMES[nameIndex] + " #" + id, fruit ? "FRUIT" : "VEGETABLE", "Generated",
+                    cents(priceCents), BigDecimal.valueOf(1_000 + random.nextInt(9_000)), BigDecimal.valueOf(20),
+                    Boolean.TRUE, byPiece ? "piece" : "kg");
+            catalog.add(new int[] { id, (int) priceCents, byPiece ? 1 : 0 });
+        }
+        products.flush();
+        if (catalog.isEmpty()) {
+            throw new IllegalStateException("No products to order; use --products to create some.");
+        }
+
+        // Popularity ranks are random, so hot products are spread over the id range
+        Collections.shuffle(catalog, random);
+        int size = catalog.size();
+        productIds = new int[size];
+        productPriceCents = new long[size];
+        productByPiece = new boolean[size];
+        popularity = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            int[] product = catalog.get(rank);
+            productIds[rank] = product[0];
+            productPriceCents[rank] = product[1];
+            productByPiece[rank] = product[2] == 1;
+            sum += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            popularity[rank] = sum;
+        }
+
+        hourCumulative = new double[HOUR_WEIGHTS.length];
+        double hours = 0;
+        for (int h = 0; h < HOUR_WEIGHTS.length; h++) {
+            hours += HOUR_WEIGHTS[h];
+            hourCumulative[h] = hours;
+        }
+    }
+
+    /* -------------------------
+       ORDERS, ITEMS & RATINGS
+       ------------------------- */
+
+    private void generateOrders(int count, int days) throws SQLException {
+        Inserter orders = inserter("OrderInfo", "id", "customer_id", "carrier_id", "ordertime", "deliverytime",
+                "status", "totalcost", "requested_delivery_date");
+        Inserter items = inserter("OrderItems", "id", "order_id", "product_id", "quantity", "price_at_purchase");
+        Inserter carrierRatings = inserter("CarrierRatings", "id", "order_id", "customer_id", "carrier_id", "rating",
+                "comment", "created_at");
+        Inserter productRatings = inserter("ProductRatings", "id", "order_id", "customer_id", "product_id", "rating",
+                "comment", "created_at");
+        int orderId = nextId("OrderInfo");
+        int itemId = nextId("OrderItems");
+        int carrierRatingId = nextId("CarrierRatings");
+        int productRatingId = nextId("ProductRatings");
+
+        // Orders per day: growing over the period, more at weekends
+        LocalDate today = LocalDate.now();
+        double[] dayWeights = new double[days];
+        double weightSum = 0;
+        for (int d = 0; d < days; d++) {
+            DayOfWeek weekday = today.minusDays(days - 1 - d).getDayOfWeek();
+            boolean weekend = weekday == DayOfWeek.SATURDAY || weekday == DayOfWeek.SUNDAY;
+            dayWeights[d] = (1 + GROWTH * d / days) * (weekend ? WEEKEND_FACTOR : 1);
+            weightSum += dayWeights[d];
+        }
+
+        int[] lineRanks = new int[MAX_LINES];
+        double[] quantities = new double[MAX_LINES];
+        long[] unitCents = new long[MAX_LINES];
+        double[] unitPrices = new double[MAX_LINES];
+        int created = 0;
+        double carry = 0;
+        for (int d = 0; d < days; d++) {
+            // Ids follow order time, as with AUTO_INCREMENT in production
+            double exact = count * dayWeights[d] / weightSum + carry;
+            int perDay = d == days - 1 ? count - created : (int) exact;
+            carry = exact - perDay;
+            long dayStart = today.minusDays(days - 1 - d).atStartOfDay(ZoneId.systemDefault()).toInstant()
+                    .toEpochMilli();
+            long[] times = new long[perDay];
+            for (int i = 0; i < perDay; i++) {
+                times[i] = dayStart + pickHour() * HOUR_MS + (long) (random.nextDouble() * HOUR_MS);
+            }
+            Arrays.sort(times);
+
+            for (long orderTime : times) {
+                orderTime = Math.min(orderTime, now - 60_000);
+                int id = orderId++;
+                int customerId = firstCustomerId + skewed(customerCount);
+
+                // Lines: distinct products, most orders are small
+                int lines = Math.min(MAX_LINES, 1 + (int) (-Math.log(1 - random.nextDouble()) * 2.5));
+                int filled = 0;
+                while (filled < lines) {
+                    int rank = pickProduct();
+                    boolean duplicate = false;
+                    for (int i = 0; i < filled; i++) {
+                        duplicate |= lineRanks[i] == rank;
+                    }
+                    if (duplicate) {
+                        if (productIds.length <= filled) {
+                            break;
+                        }
+                        continue;
+                    }
+                    lineRanks[filled] = rank;
+                    quantities[filled] = productByPiece[rank] ? 1 + random.nextInt(6) : 0.5 * (1 + random.nextInt(10));
+                    // About one line in ten was bought at the doubled below-threshold price
+                    unitCents[filled] = productPriceCents[rank] * (random.nextInt(10) == 0 ? 2 : 1);
+                    unitPrices[filled] = PriceMath.toAmount(unitCents[filled]);
+                    filled++;
+                }
+                long totalCents = PriceMath.toCents(PriceMath.total(PriceMath.subtotal(unitPrices, quantities, filled), 0, 0));
+
+                String status = status(now - orderTime);
+                boolean delivered = status.equals("DELIVERED") || status.equals("COMPLETED");
+                Integer carrierId = delivered || status.equals("ON_THE_WAY")
+                        ? firstCarrierId + random.nextInt(carrierCount) : null;
+                Timestamp deliveryTime = delivered
+                        ? new Timestamp(Math.min(now, orderTime + HOUR_MS + (long) (random.nextDouble() * 35 * HOUR_MS)))
+                        : null;
+                Timestamp requested = new Timestamp((orderTime / HOUR_MS + 2 + random.nextInt(46)) * HOUR_MS);
+
+                orders.add(id, customerId, carrierId, new Timestamp(orderTime), deliveryTime, status,
+                        cents(totalCents), requested);
+                for (int i = 0; i < filled; i++) {
+                    items.add(itemId++, id, productIds[lineRanks[i]], BigDecimal.valueOf(quantities[i]),
+                            cents(unitCents[i]));
+                }
+
+                if (delivered && random.nextInt(100) < CARRIER_RATING_PERCENT) {
+                    carrierRatings.add(carrierRatingId++, id, customerId, carrierId, rating(),
+                            random.nextInt(10) < 3 ? COMMENTS[random.nextInt(COMMENTS.length)] : null,
+                            after(deliveryTime.getTime(), 72 * HOUR_MS));
+                }
+                if (delivered && random.nextInt(100) < PRODUCT_RATING_PERCENT) {
+                    int rated = Math.min(filled, 1 + random.nextInt(2));
+                    for (int i = 0; i < rated; i++) {
+                        productRatings.add(productRatingId++, id, customerId, productIds[lineRanks[i]], rating(),
+                                null, after(deliveryTime.getTime(), 72 * HOUR_MS));
+                    }
+                }
+            }
+            created += perDay;
+        }
+    }
+
+    // Recent orders are still moving through the workflow; older ones are finished
+    private String status(long ageMs) {
+        int roll = random.nextInt(100);
+        if (ageMs > 2 * DAY_MS) {
+            if (roll < CANCELLED_PERCENT) {
+                return "CANCELLED";
+            }
+            return roll < 80 ? "COMPLETED" : "DELIVERED";
+        }
+        if (roll < 25) {
+            return "WAITING";
+        }
+        if (roll < 45) {
+            return "RECEIVED";
+        }
+        if (roll < 65) {
+            return "ON_THE_WAY";
+        }
+        return roll < 95 ? "DELIVERED" : "CANCELLED";
+    }
+
+    // Mostly good ratings: 5 (45%), 4 (30%), 3 (13%), 2 (7%), 1 (5%)
+    private int rating() {
+        int roll = random.nextInt(100);
+        return roll < 45 ? 5 : roll < 75 ? 4 : roll < 88 ? 3 : roll < 95 ? 2 : 1;
+    }
+
+    /* -------------------------
+       CONVERSATIONS & MESSAGES
+       ------------------------- */
+
+    private void generateConversations(int count) throws SQLException {
+        Inserter conversations = inserter("Conversations", "id", "customer_id", "status", "created_at", "closed_at");
+        Inserter messages = inserter("Messages", "id", "sender_id", "receiver_id", "content", "sent_at", "is_read",
+                "conversation_id");
+        int conversationId = nextId("Conversations");
+        int messageId = nextId("Messages");
+        int days = options.getInt("days");
+
+        for (int c = 0; c < count; c++) {
+            int id = conversationId++;
+            int customerId = firstCustomerId + skewed(customerCount);
+            long time = randomTime(days).getTime();
+            long createdAt = time;
+
+            int length = 2 + random.nextInt(11);
+            for (int m = 0; m < length; m++) {
+                boolean fromCustomer = m % 2 == 0;
+                String content = fromCustomer
+                        ? CUSTOMER_LINES[random.nextInt(CUSTOMER_LINES.length)]
+                        : OWNER_LINES[random.nextInt(OWNER_LINES.length)];
+                boolean last = m == length - 1;
+                messages.add(messageId++, fromCustomer ? customerId : ownerId, fromCustomer ? ownerId : customerId,
+                        content, new Timestamp(Math.min(now, time)), !last || random.nextBoolean(), id);
+                time += 60_000 + (long) (random.nextDouble() * 4 * HOUR_MS);
+            }
+
+            boolean closed = now - time > 7 * DAY_MS;
+            conversations.add(id, customerId, closed ? "CLOSED" : "OPEN", new Timestamp(createdAt),
+                    closed ? new Timestamp(time + HOUR_MS) : null);
+        }
+    }
+
+    /* -------------------------
+       HELPERS
+       ------------------------- */
+
+    private int pickProduct() {
+        double target = random.nextDouble() * popularity[popularity.length - 1];
+        int index = Arrays.binarySearch(popularity, target);
+        return Math.min(index < 0 ? -index - 1 : index, popularity.length - 1);
+    }
+
+    private int pickHour() {
+        double target = random.nextDouble() * hourCumulative[hourCumulative.length - 1];
+        int index = Arrays.binarySearch(hourCumulative, target);
+        return Math.min(index < 0 ? -index - 1 : index, hourCumulative.length - 1);
+    }
+
+    // A few customers place many orders: index ~ n * u^2
+    private int skewed(int n) {
+        double u = random.nextDouble();
+        return (int) (n * u * u);
+    }
+
+    private Timestamp randomTime(int days) {
+        return new Timestamp(now - (long) (random.nextDouble() * days * DAY_MS));
+    }
+
+    private Timestamp after(long time, long maxDelayMs) {
+        return new Timestamp(Math.min(now, time + (long) (random.nextDouble() * maxDelayMs)));
+    }
+
+    private String phone() {
+        return "5" + (100_000_000 + random.nextInt(900_000_000));
+    }
+
+    private static BigDecimal cents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private int nextId(String table) throws SQLException {
+        return queryInt("SELECT COALESCE(MAX(id), 0) FROM " + table) + 1;
+    }
+
+    private int queryInt(String sql) throws SQLException {
+        if (conn == null) {
+            return 0;
+        }
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private Inserter inserter(String table, String... columns) throws SQLException {
+        Inserter inserter = new Inserter(table, columns);
+        inserters.add(inserter);
+        return inserter;
+    }
+
+    /**
+     * Batched INSERT into one table. Each full batch is executed and committed.
+     * On a dry run rows are only counted.
+     */
+    private final class Inserter implements AutoCloseable {
+        private final String table;
+        private final PreparedStatement stmt;
+        private int pending;
+        private long rows;
+
+        private Inserter(String table, String... columns) throws SQLException {
+            this.table = table;
+            if (conn == null) {
+                this.stmt = null;
+                return;
+            }
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (")
+                    .append(String.join(", ", columns)).append(") VALUES (");
+            for (int i = 0; i < columns.length; i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            this.stmt = conn.prepareStatement(sql.append(')').toString());
+        }
+
+        private void add(Object... values) throws SQLException {
+            rows++;
+            if (stmt == null) {
+                return;
+            }
+            for (int i = 0; i < values.length; i++) {
+                stmt.setObject(i + 1, values[i]);
+            }
+            stmt.addBatch();
+            if (++pending >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (stmt == null || pending == 0) {
+                return;
+            }
+            stmt.executeBatch();
+            conn.commit();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            if (stmt != null) {
+                stmt.close();
+            }
+        }
+    }
+}
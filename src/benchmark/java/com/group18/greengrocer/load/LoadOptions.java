@@ -0,0 +1,56 @@
+package com.group18.greengrocer.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the load tools, given as {@code --name value}.
+ * Only names that have a default are accepted.
+ */
+public class LoadOptions {
+
+    private final Map<String, String> values;
+
+    private LoadOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Parses the arguments. Prints the known options and exits with code 2 on an
+     * unknown or incomplete option.
+     *
+     * @param args     Command line arguments.
+     * @param defaults Option names with their default values.
+     * @return The options.
+     */
+    public static LoadOptions parse(String[] args, Map<String, String> defaults) {
+        Map<String, String> values = new LinkedHashMap<>(defaults);
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i].startsWith("--") ? args[i].substring(2) : null;
+            if (name == null || !defaults.containsKey(name) || i + 1 >= args.length) {
+                System.err.println("Unknown or incomplete option: " + args[i]);
+                System.err.println("Options (with defaults): " + defaults);
+                System.exit(2);
+            }
+            values.put(name, args[++i]);
+        }
+        return new LoadOptions(values);
+    }
+
+    public String get(String name) {
+        return values.get(name);
+    }
+
+    public int getInt(String name) {
+        return Integer.parseInt(values.get(name));
+    }
+
+    public boolean getBoolean(String name) {
+        return Boolean.parseBoolean(values.get(name));
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.group18.greengrocer.load;
+
+import com.group18.greengrocer.util.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters of one operation of the workload (e.g. "checkout").
+ * <p>
+ * Latencies go into a {@link LatencyHistogram}, so the memory use stays fixed no
+ * matter how long the run is. Failures are counted per reason (the exception
+ * message) so the report can show why an operation failed.
+ */
+public class OperationStats {
+
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final Map<String, LongAdder> failureReasons = new ConcurrentHashMap<>();
+
+    public OperationStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param startNanos Value of {@link System#nanoTime()} before the call.
+     */
+    public void success(long startNanos) {
+        record(startNanos);
+        successes.increment();
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @param startNanos Value of {@link System#nanoTime()} before the call.
+     * @param reason     Why it failed (usually the exception message).
+     */
+    public void failure(long startNanos, String reason) {
+        record(startNanos);
+        failures.increment();
+        failureReasons.computeIfAbsent(reason == null ? "(no message)" : reason, k -> new LongAdder()).increment();
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getCalls() {
+        return getSuccesses() + getFailures();
+    }
+
+    /**
+     * Share of calls that failed.
+     *
+     * @return A value between 0 and 1 (0 if there were no calls).
+     */
+    public double getFailureRate() {
+        long calls = getCalls();
+        return calls == 0 ? 0 : (double) getFailures() / calls;
+    }
+
+    public long getMaxMicros() {
+        return latencies.getMaxMicros();
+    }
+
+    /**
+     * Latency at the given percentile.
+     *
+     * @param percentile Percentile between 0 and 100.
+     * @return The latency in microseconds (0 if there were no calls).
+     */
+    public long percentileMicros(double percentile) {
+        return latencies.percentileMicros(percentile);
+    }
+
+    /**
+     * Failure reasons sorted by text, with their counts.
+     *
+     * @return A snapshot of the failure counters.
+     */
+    public Map<String, Long> getFailureReasons() {
+        Map<String, Long> result = new TreeMap<>();
+        failureReasons.forEach((reason, count) -> result.put(reason, count.sum()));
+        return result;
+    }
+
+    private void record(long startNanos) {
+        latencies.record((System.nanoTime() - startNanos) / 1_000);
+    }
+}
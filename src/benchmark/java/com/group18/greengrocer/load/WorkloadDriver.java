@@ -0,0 +1,446 @@
+package com.group18.greengrocer.load;
+
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.DatabaseAdapter;
+import com.group18.greengrocer.dao.ProductDAO;
+import com.group18.greengrocer.dao.SchemaPatcher;
+import com.group18.greengrocer.dao.UserDAO;
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Page;
+import com.group18.greengrocer.model.Product;
+import com.group18.greengrocer.model.Role;
+import com.group18.greengrocer.model.User;
+import com.group18.greengrocer.service.CartStore;
+import com.group18.greengrocer.service.InvoiceService;
+import com.group18.greengrocer.service.OrderService;
+import com.group18.greengrocer.service.ProductService;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Headless load generator for the whole order life cycle.
+ * <p>
+ * Simulated terminals run against {@link OrderService} and {@link ProductService}
+ * exactly like the controllers do:
+ * <ul>
+ * <li>N customers browse the catalog, fill a cart, check out and sometimes cancel
+ * right away.</li>
+ * <li>One owner approves WAITING orders.</li>
+ * <li>M carriers race for the same available orders and deliver the ones they win.</li>
+ * </ul>
+ * At the end it prints throughput and latency percentiles per operation, checkout
+ * failure and carrier contention rates, and checks the stock and carrier bookkeeping:
+ * no product may end below zero stock, every product must end at its start stock
+ * minus what the surviving orders reserved, and no order may be won by two carriers.
+ * The exit code is 1 if one of these checks fails.
+ * <p>
+ * Backends:
+ * <ul>
+ * <li>{@code memory} (default): the in-memory DAOs, seeded with synthetic products.</li>
+ * <li>{@code mysql}: the configured database. Uses its available products and creates
+ * the load users ({@code loadcustomerN}, {@code loadcarrierN}) if missing. Checkouts
+ * really take stock, so use a scratch database. The stock check assumes nobody else
+ * changes stock during the run.</li>
+ * </ul>
+ * Run with:
+ *
+ * <pre>
+ * mvn -Pbenchmark compile exec:java -Dexec.mainClass=com.group18.greengrocer.load.WorkloadDriver \
+ *     -Dexec.args="--customers 50 --carriers 8 --seconds 60"
+ * </pre>
+ */
+public class WorkloadDriver {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("backend", "memory");  // memory | mysql
+        DEFAULTS.put("customers", "20");    // customer terminals
+        DEFAULTS.put("carriers", "4");      // carrier terminals
+        DEFAULTS.put("seconds", "30");      // run time
+        DEFAULTS.put("products", "50");     // memory backend: products to seed
+        DEFAULTS.put("stock", "500");       // memory backend: start stock per product
+        DEFAULTS.put("think-ms", "0");      // pause between two customer orders
+        DEFAULTS.put("cancel-percent", "10"); // share of orders cancelled right after checkout
+        DEFAULTS.put("seed", "18");         // random seed of the first terminal
+    }
+
+    private static final int MAX_LINES = 4;
+    private static final int CARRIER_CHOICES = 5; // carriers pick among the first N available orders
+    private static final long IDLE_SLEEP_MS = 5;
+
+    private final LoadOptions options;
+    private final OperationStats browse = new OperationStats("browse");
+    private final OperationStats addToCart = new OperationStats("addToCart");
+    private final OperationStats checkout = new OperationStats("checkout");
+    private final OperationStats cancel = new OperationStats("cancel");
+    private final OperationStats listWaiting = new OperationStats("owner.listWaiting");
+    private final OperationStats approve = new OperationStats("owner.approve");
+    private final OperationStats listAvailable = new OperationStats("carrier.listAvailable");
+    private final OperationStats assign = new OperationStats("carrier.assign");
+    private final OperationStats complete = new OperationStats("carrier.complete");
+
+    // Net quantity taken from each product by orders that were not cancelled
+    private final Map<Integer, DoubleAdder> reserved = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> winners = new ConcurrentHashMap<>();
+    private final LongAdder doubleAssignments = new LongAdder();
+
+    private volatile boolean running = true;
+
+    private ProductDAO productDAO;
+    private OrderService orderService;
+    private ProductService productService;
+
+    public WorkloadDriver(LoadOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Entry point. Options are given as {@code --name value}; see {@link #DEFAULTS}.
+     *
+     * @param args Command line arguments.
+     */
+    public static void main(String[] args) {
+        boolean passed = new WorkloadDriver(LoadOptions.parse(args, DEFAULTS)).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Sets up the backend, runs the workload for the configured time and prints the report.
+     *
+     * @return true if all consistency checks passed.
+     */
+    public boolean run() {
+        int customers = options.getInt("customers");
+        int carriers = options.getInt("carriers");
+        int seed = options.getInt("seed");
+        boolean memory = "memory".equalsIgnoreCase(options.get("backend"));
+
+        // The backend must be chosen before the first service is created
+        int[] customerIds;
+        int[] carrierIds;
+        if (memory) {
+            DAOFactory.useInMemory();
+            seedProducts(DAOFactory.getInstance().getProductDAO());
+            customerIds = range(1, customers);
+            carrierIds = range(1 + customers, carriers);
+        } else {
+            SchemaPatcher.updateSchema();
+            customerIds = ensureUsers("loadcustomer", Role.CUSTOMER, customers);
+            carrierIds = ensureUsers("loadcarrier", Role.CARRIER, carriers);
+        }
+        productDAO = DAOFactory.getInstance().getProductDAO();
+        orderService = new OrderService();
+        productService = new ProductService();
+
+        Map<Integer, Double> startStock = new HashMap<>();
+        for (Product p : productDAO.findAll()) {
+            startStock.put(p.getId(), p.getStock());
+        }
+        if (startStock.isEmpty()) {
+            System.err.println("No products to order; add products first.");
+            return false;
+        }
+
+        List<Thread> terminals = new ArrayList<>();
+        for (int i = 0; i < customerIds.length; i++) {
+            int customerId = customerIds[i];
+            Random random = new Random(seed + i);
+            terminals.add(new Thread(() -> customerLoop(customerId, random), "customer-" + customerId));
+        }
+        terminals.add(new Thread(this::ownerLoop, "owner"));
+        for (int i = 0; i < carrierIds.length; i++) {
+            int carrierId = carrierIds[i];
+            Random random = new Random(seed + customerIds.length + i);
+            terminals.add(new Thread(() -> carrierLoop(carrierId, random), "carrier-" + carrierId));
+        }
+
+        System.out.printf(Locale.ROOT, "Running %s workload: %d customers, 1 owner, %d carriers for %s s...%n",
+                memory ? "in-memory" : "MySQL", customers, carriers, options.get("seconds"));
+        long start = System.nanoTime();
+        terminals.forEach(Thread::start);
+        sleep(TimeUnit.SECONDS.toMillis(options.getInt("seconds")));
+        running = false;
+        for (Thread t : terminals) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        CartStore.getInstance().shutdown();
+        InvoiceService.getInstance().shutdown();
+
+        boolean passed = report(elapsedSeconds, startStock);
+        if (!memory) {
+            DatabaseAdapter.getInstance().closeConnection();
+        }
+        return passed;
+    }
+
+    /* -------------------------
+       TERMINALS
+       ------------------------- */
+
+    private void customerLoop(int customerId, Random random) {
+        long thinkMs = options.getInt("think-ms");
+        int cancelPercent = options.getInt("cancel-percent");
+
+        while (running) {
+            List<Product> catalog = timed(browse, productService::getAllProducts);
+            if (catalog == null || catalog.isEmpty()) {
+                sleep(IDLE_SLEEP_MS);
+                continue;
+            }
+
+            int lines = 1 + random.nextInt(MAX_LINES);
+            for (int i = 0; i < lines; i++) {
+                // Skewed towards the front of the catalog, so some products are hot
+                Product product = catalog.get(random.nextInt(random.nextInt(catalog.size()) + 1));
+                double amount = "piece".equalsIgnoreCase(product.getUnit())
+                        ? 1 + random.nextInt(3)
+                        : 0.5 * (1 + random.nextInt(6));
+                timed(addToCart, () -> {
+                    orderService.addToCart(customerId, product.getId(), amount);
+                    return Boolean.TRUE;
+                });
+            }
+
+            Order cart = orderService.getCart(customerId);
+            Map<Integer, Double> quantities = new HashMap<>();
+            for (CartItem item : cart.getItems()) {
+                quantities.put(item.getProduct().getId(), item.getQuantity());
+            }
+            if (quantities.isEmpty()) {
+                continue;
+            }
+
+            Integer orderId = timed(checkout, () -> {
+                orderService.checkout(cart);
+                return cart.getId();
+            });
+            if (orderId == null) {
+                // Failed checkouts keep the cart; start over with an empty one
+                for (Integer productId : quantities.keySet()) {
+                    orderService.removeFromCart(customerId, productId);
+                }
+                continue;
+            }
+            quantities.forEach((productId, qty) -> reserved.computeIfAbsent(productId, k -> new DoubleAdder()).add(qty));
+
+            if (random.nextInt(100) < cancelPercent) {
+                Boolean cancelled = timed(cancel, () -> {
+                    orderService.cancelOrder(orderId, customerId);
+                    return Boolean.TRUE;
+                });
+                if (cancelled != null) {
+                    quantities.forEach((productId, qty) -> reserved.get(productId).add(-qty));
+                }
+            }
+            sleep(thinkMs);
+        }
+    }
+
+    private void ownerLoop() {
+        while (running) {
+            Page<Order> waiting = timed(listWaiting,
+                    () -> orderService.getOrdersPageForOwner(EnumSet.of(Order.Status.WAITING), null));
+            if (waiting == null || waiting.getItems().isEmpty()) {
+                sleep(IDLE_SLEEP_MS);
+                continue;
+            }
+            for (Order order : waiting.getItems()) {
+                if (!running) {
+                    return;
+                }
+                timed(approve, () -> {
+                    orderService.approveOrder(order.getId());
+                    return Boolean.TRUE;
+                });
+            }
+        }
+    }
+
+    private void carrierLoop(int carrierId, Random random) {
+        while (running) {
+            List<Order> available = timed(listAvailable, orderService::getPendingOrders);
+            if (available == null || available.isEmpty()) {
+                sleep(IDLE_SLEEP_MS);
+                continue;
+            }
+            // All carriers look at the same oldest orders, so they really compete
+            int orderId = available.get(random.nextInt(Math.min(CARRIER_CHOICES, available.size()))).getId();
+            Boolean won = timed(assign, () -> {
+                orderService.assignOrderToCarrier(orderId, carrierId);
+                return Boolean.TRUE;
+            });
+            if (won == null) {
+                continue;
+            }
+            if (winners.putIfAbsent(orderId, carrierId) != null) {
+                doubleAssignments.increment();
+            }
+            timed(complete, () -> {
+                orderService.completeOrder(orderId, new Date());
+                return Boolean.TRUE;
+            });
+        }
+    }
+
+    /* -------------------------
+       REPORT
+       ------------------------- */
+
+    private boolean report(double elapsedSeconds, Map<Integer, Double> startStock) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-22s %10s %10s %7s %9s %9s %9s %9s%n",
+                "operation", "calls", "ops/s", "fail%", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        List<OperationStats> all = List.of(browse, addToCart, checkout, cancel, listWaiting, approve,
+                listAvailable, assign, complete);
+        for (OperationStats s : all) {
+            System.out.printf(Locale.ROOT, "%-22s %10d %10.1f %6.2f%% %9.3f %9.3f %9.3f %9.3f%n",
+                    s.getName(), s.getCalls(), s.getCalls() / elapsedSeconds, s.getFailureRate() * 100,
+                    s.percentileMicros(50) / 1000.0, s.percentileMicros(95) / 1000.0,
+                    s.percentileMicros(99) / 1000.0, s.getMaxMicros() / 1000.0);
+        }
+
+        System.out.println();
+        for (OperationStats s : all) {
+            s.getFailureReasons().forEach((reason, count) ->
+                    System.out.printf(Locale.ROOT, "  %-22s %8d x %s%n", s.getName(), count, reason));
+        }
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Orders: %d checked out (%.1f/s), %d cancelled, %d delivered%n",
+                checkout.getSuccesses(), checkout.getSuccesses() / elapsedSeconds,
+                cancel.getSuccesses(), complete.getSuccesses());
+        System.out.printf(Locale.ROOT, "Checkout failure rate: %.2f%%%n", checkout.getFailureRate() * 100);
+        System.out.printf(Locale.ROOT, "Carrier contention: %.2f%% of assign attempts lost the race%n",
+                assign.getFailureRate() * 100);
+
+        // Consistency checks
+        Map<Integer, Product> endStock = productDAO.findByIds(startStock.keySet());
+        int negative = 0;
+        int mismatched = 0;
+        for (Map.Entry<Integer, Double> entry : startStock.entrySet()) {
+            Product product = endStock.get(entry.getKey());
+            if (product == null) {
+                continue;
+            }
+            DoubleAdder taken = reserved.get(entry.getKey());
+            double expected = entry.getValue() - (taken == null ? 0 : taken.sum());
+            if (product.getStock() < -1e-6) {
+                negative++;
+                System.out.printf(Locale.ROOT, "  OVERSOLD: %s has stock %.2f%n", product.getName(), product.getStock());
+            }
+            if (Math.abs(product.getStock() - expected) > 1e-6) {
+                mismatched++;
+                System.out.printf(Locale.ROOT, "  STOCK MISMATCH: %s has %.2f, expected %.2f%n",
+                        product.getName(), product.getStock(), expected);
+            }
+        }
+        long doubles = doubleAssignments.sum();
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Oversold products: %d, stock mismatches: %d, orders won twice: %d%n",
+                negative, mismatched, doubles);
+        boolean passed = negative == 0 && mismatched == 0 && doubles == 0;
+        System.out.println(passed ? "CONSISTENCY CHECKS PASSED" : "CONSISTENCY CHECKS FAILED");
+        return passed;
+    }
+
+    /* -------------------------
+       SETUP HELPERS
+       ------------------------- */
+
+    private void seedProducts(ProductDAO products) {
+        int count = options.getInt("products");
+        double stock = options.getInt("stock");
+        for (int i = 0; i < count; i++) {
+            String unit = i % 5 == 4 ? "piece" : "kg";
+            Product product = new Product("Load Product " + i, i % 2 == 0 ? Category.FRUIT : Category.VEGETABLE,
+                    "Generic", 5.0 + (i % 20), stock, 20.0, null, unit);
+            products.insert(product);
+        }
+    }
+
+    private static int[] ensureUsers(String prefix, Role role, int count) {
+        UserDAO userDAO = new UserDAO();
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            String username = prefix + (i + 1);
+            User user = userDAO.findUserByUsername(username);
+            if (user == null) {
+                user = new User(username, "Load1234", role, "Load Street " + (i + 1), "5550000000");
+                if (!userDAO.createUser(user)) {
+                    throw new IllegalStateException("Could not create load user " + username);
+                }
+            }
+            ids[i] = user.getId();
+        }
+        return ids;
+    }
+
+    private static int[] range(int first, int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = first + i;
+        }
+        return ids;
+    }
+
+    /**
+     * Runs one call and records its latency. Exceptions count as failures.
+     *
+     * @return The result, or null if the call threw.
+     */
+    private static <T> T timed(OperationStats stats, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            stats.success(start);
+            return result;
+        } catch (RuntimeException e) {
+            stats.failure(start, reason(e));
+            return null;
+        }
+    }
+
+    // "Insufficient stock for: Tomato" -> "Insufficient stock for", so reasons group well
+    private static String reason(RuntimeException e) {
+        String message = e.getMessage();
+        if (message == null) {
+            return e.getClass().getSimpleName();
+        }
+        int colon = message.indexOf(':');
+        return colon > 0 ? message.substring(0, colon) : message;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
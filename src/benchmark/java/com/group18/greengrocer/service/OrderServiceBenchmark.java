@@ -0,0 +1,92 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.ProductDAO;
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the cart, checkout and carrier paths of {@link OrderService}
+ * on the in-memory DAOs, so the service layer is measured without MySQL.
+ * <p>
+ * Each fork switches {@link DAOFactory} to a fresh in-memory database before the
+ * first service is created. Invoices are still rendered by the background
+ * {@link InvoiceService} workers, as in the application.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final int PRODUCTS = 50;
+    private static final int CUSTOMER_ID = 7;
+    private static final int CARRIER_ID = 3;
+
+    private OrderService orderService;
+    private int[] productIds;
+    private int step;
+
+    @Setup
+    public void setUp() {
+        DAOFactory.useInMemory();
+        ProductDAO products = DAOFactory.getInstance().getProductDAO();
+        productIds = new int[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            // Enough stock that the measurement never runs out
+            Product product = new Product("Product " + i, i % 2 == 0 ? Category.FRUIT : Category.VEGETABLE,
+                    "Generic", 9.90 + i, 1_000_000_000.0, 5.0, null, "kg");
+            products.insert(product);
+            productIds[i] = product.getId();
+        }
+        orderService = new OrderService();
+    }
+
+    @TearDown
+    public void tearDown() {
+        CartStore.getInstance().shutdown();
+        InvoiceService.getInstance().shutdown();
+    }
+
+    /** One cart edit as done from the product grid: change a line, then read the new total. */
+    @Benchmark
+    public double cartEdit() {
+        int productId = productIds[step++ % PRODUCTS];
+        orderService.addToCart(CUSTOMER_ID, productId, 1.0);
+        return orderService.getQuote(CUSTOMER_ID).getTotal();
+    }
+
+    /** Full order life cycle: fill a cart with three lines, check out, approve, carry and deliver. */
+    @Benchmark
+    public int checkoutAndDeliver() {
+        for (int i = 0; i < 3; i++) {
+            orderService.addToCart(CUSTOMER_ID, productIds[(step + i) % PRODUCTS], 1.5);
+        }
+        step++;
+        Order order = orderService.getCart(CUSTOMER_ID);
+        orderService.checkout(order);
+
+        int orderId = order.getId();
+        orderService.approveOrder(orderId);
+        orderService.assignOrderToCarrier(orderId, CARRIER_ID);
+        orderService.completeOrder(orderId, new Date());
+        return orderId;
+    }
+}
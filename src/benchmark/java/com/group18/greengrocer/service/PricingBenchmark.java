@@ -0,0 +1,128 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.CouponDAO;
+import com.group18.greengrocer.dao.InMemoryCouponDAO;
+import com.group18.greengrocer.dao.InMemoryDatabase;
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Coupon;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Product;
+import com.group18.greengrocer.util.PriceMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of pricing a cart: the full checkout price, the running cart quote and the
+ * same cart priced by {@link PriceMath} over primitive arrays (no objects, no map).
+ * All three produce the same total (see PricingGoldenTest).
+ * <p>
+ * The order belongs to a guest customer (id 0) and the coupon comes from an
+ * {@link InMemoryCouponDAO}, so no database is involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({ "5", "50" })
+    public int lines;
+
+    private DiscountService discountService;
+    private Order order;
+    private CartQuote quote;
+    private CartItem changedLine;
+    private int step;
+
+    // The same cart as parallel arrays
+    private double[] prices;
+    private double[] stock;
+    private double[] thresholds;
+    private double[] quantities;
+    private double[] unitPrices;
+    private double couponAmount;
+
+    @Setup
+    public void setUp() {
+        Coupon coupon = new Coupon("SAVE10", 10.0, Date.valueOf(LocalDate.now().plusYears(1)));
+        CouponDAO coupons = new InMemoryCouponDAO(new InMemoryDatabase());
+        coupons.addCoupon(coupon);
+        discountService = new DiscountService(coupons);
+
+        List<CartItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            // Every fourth product is at its threshold, so its price is doubled
+            double stock = i % 4 == 0 ? 5.0 : 100.0;
+            Product product = new Product(i + 1, "Product " + i, i % 2 == 0 ? Category.FRUIT : Category.VEGETABLE,
+                    9.90 + i, stock);
+            product.setThreshold(5.0);
+            items.add(new CartItem(product, 1.5 + i % 3));
+        }
+
+        order = new Order();
+        order.setCustomerId(0);
+        order.setUsedCouponId(coupon.getId());
+        order.setItems(items);
+
+        prices = new double[lines];
+        stock = new double[lines];
+        thresholds = new double[lines];
+        quantities = new double[lines];
+        unitPrices = new double[lines];
+        for (int i = 0; i < lines; i++) {
+            Product product = items.get(i).getProduct();
+            prices[i] = product.getPrice();
+            stock[i] = product.getStock();
+            thresholds[i] = product.getThreshold();
+            quantities[i] = items.get(i).getQuantity();
+        }
+        couponAmount = coupon.getDiscountAmount();
+
+        quote = new CartQuote(items, 0);
+        quote.setCoupon(coupon);
+        changedLine = new CartItem(items.get(lines / 2).getProduct(), 1.0);
+    }
+
+    @Benchmark
+    public double calculateFinalPrice() {
+        return discountService.calculateFinalPrice(order);
+    }
+
+    /** One cart edit as done by OrderService: change a line, then read the new total. */
+    @Benchmark
+    public double quoteUpdateLine() {
+        changedLine.setQuantity(1.0 + (step++ & 7));
+        quote.putLine(changedLine);
+        return quote.getTotal();
+    }
+
+    @Benchmark
+    public double quoteTotal() {
+        return quote.getTotal();
+    }
+
+    /** Checkout price of the same cart in one pass over primitive arrays. */
+    @Benchmark
+    public double kernelArrays() {
+        PriceMath.unitPrices(prices, stock, thresholds, unitPrices, lines);
+        return PriceMath.total(PriceMath.subtotal(unitPrices, quantities, lines), couponAmount, 0.0);
+    }
+}
@@ -0,0 +1,65 @@
+package com.group18.greengrocer.util;
+
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering an invoice PDF ({@link PDFGenerator#generateInvoice}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoiceBenchmark {
+
+    @Param({ "5", "30" })
+    public int lines;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        List<CartItem> items = new ArrayList<>(lines);
+        double subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product(i + 1, "Product " + i, Category.VEGETABLE, 12.50 + i, 100.0);
+            CartItem item = new CartItem(product, 2.0);
+            item.setPriceAtPurchase(product.getPrice());
+            items.add(item);
+            subtotal += item.getTotalPrice();
+        }
+
+        order = new Order();
+        order.setId(1001);
+        order.setCustomerId(7);
+        order.setStatus(Order.Status.WAITING);
+        order.setOrderTime(new Timestamp(System.currentTimeMillis()));
+        order.setItems(items);
+        order.setTotalCost(Math.round(subtotal * (1 + Constants.VAT_RATE) * 100) / 100.0);
+    }
+
+    @Benchmark
+    public byte[] generateInvoice() {
+        return PDFGenerator.generateInvoice(order);
+    }
+}
@@ -0,0 +1,72 @@
+package com.group18.greengrocer.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link ValidatorUtil} checks used on every form submit, for valid and
+ * invalid input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    @Param({ "valid", "invalid" })
+    public String input;
+
+    private String email;
+    private String phone;
+    private String name;
+    private String password;
+    private String number;
+
+    @Setup
+    public void setUp() {
+        boolean valid = "valid".equals(input);
+        email = valid ? "ayse.yilmaz@example.com" : "ayse.yilmaz.example.com";
+        phone = valid ? "+905321234567" : "0532-123-45-67";
+        name = valid ? "Şule Öztürk" : "Sule0zturk!";
+        password = valid ? "Greengrocer2024" : "short";
+        number = valid ? "12.75" : "12,75kg";
+    }
+
+    @Benchmark
+    public boolean email() {
+        return ValidatorUtil.isValidEmail(email);
+    }
+
+    @Benchmark
+    public boolean phone() {
+        return ValidatorUtil.isValidPhoneNumber(phone);
+    }
+
+    @Benchmark
+    public boolean name() {
+        return ValidatorUtil.isValidName(name);
+    }
+
+    @Benchmark
+    public boolean password() {
+        return ValidatorUtil.isStrongPassword(password);
+    }
+
+    @Benchmark
+    public boolean numeric() {
+        return ValidatorUtil.isNumeric(number);
+    }
+}
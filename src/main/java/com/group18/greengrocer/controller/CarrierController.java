@@ -23,6 +23,8 @@ import java.io.IOException;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import com.group18.greengrocer.util.BackgroundLoader;
+import com.group18.greengrocer.util.LazyTablePager;
 import com.group18.greengrocer.util.SessionManager;
 
 /**
@@ -48,6 +50,10 @@ public class CarrierController {
     // Logged in carrier
     private User currentUser;
 
+    private final BackgroundLoader ordersLoader = new BackgroundLoader("carrier.available");
+    private LazyTablePager<Order> currentPager;
+    private LazyTablePager<Order> historyPager;
+
     // ===== HEADER =====
     @FXML
     private Label usernameLabel;
@@ -117,6 +123,15 @@ public class CarrierController {
     public void initData(User user) {
         this.currentUser = user;
         usernameLabel.setText("Carrier: " + user.getUsername());
+
+        int carrierId = user.getId();
+        currentPager = new LazyTablePager<>("carrier.current", currentOrdersTable,
+                token -> orderService.getOrdersPageByCarrier(carrierId, List.of(Order.Status.ON_THE_WAY), token));
+        currentPager.setAfterLoad(this::updateDeliveryControls);
+        historyPager = new LazyTablePager<>("carrier.history", completedOrdersTable,
+                token -> orderService.getOrdersPageByCarrier(carrierId,
+                        List.of(Order.Status.DELIVERED, Order.Status.COMPLETED), token));
+
         refreshAll();
     }
 
@@ -252,28 +267,20 @@ public class CarrierController {
     /**
      * Refreshes data in all tables by fetching the latest information from the
      * services.
-     * Updates the UI state (enable/disable buttons) based on current active orders.
+     * Available orders are loaded in the background; the carrier's current and
+     * completed orders are paged in lazily as their tables are scrolled. Once the
+     * current orders arrive, the UI state (enable/disable buttons) is updated.
      */
     private void refreshAll() {
-        availableOrdersTable.setItems(
-                FXCollections.observableArrayList(orderService.getPendingOrders()));
+        ordersLoader.load(orderService::getPendingOrders,
+                pending -> availableOrdersTable.setItems(FXCollections.observableArrayList(pending)));
 
-        List<Order> active = orderService.getOrdersByCarrier(currentUser.getId())
-                .stream()
-                .filter(o -> o.getStatus() == Order.Status.ON_THE_WAY)
-                .toList();
-
-        currentOrdersTable.setItems(FXCollections.observableArrayList(active));
-
-        completedOrdersTable.setItems(
-                FXCollections.observableArrayList(
-                        orderService.getOrdersByCarrier(currentUser.getId())
-                                .stream()
-                                .filter(o -> o.getStatus() == Order.Status.DELIVERED
-                                        || o.getStatus() == Order.Status.COMPLETED)
-                                .toList()));
+        currentPager.reset();
+        historyPager.reset();
+    }
 
-        boolean hasActive = !active.isEmpty();
+    private void updateDeliveryControls(TableView<Order> table) {
+        boolean hasActive = !table.getItems().isEmpty();
         deliveryDatePicker.setDisable(!hasActive);
         completeDeliveryButton.setDisable(!hasActive);
     }
@@ -394,4 +401,4 @@ public class CarrierController {
         a.setContentText(msg);
         a.showAndWait();
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import com.group18.greengrocer.model.CartItem;
 import com.group18.greengrocer.model.Order;
 import com.group18.greengrocer.model.User;
 import com.group18.greengrocer.model.Role;
+import com.group18.greengrocer.service.CartQuote;
 import com.group18.greengrocer.service.OrderService;
 
 import javafx.beans.property.SimpleObjectProperty;
@@ -92,6 +93,7 @@ public class CartController {
     private User currentUser;
     private Order cartOrder;
     private ObservableList<CartItem> cartItems;
+    private CartQuote quote; // running total; no database work on cart edits
 
     private final OrderService orderService = new OrderService();
     private final DiscountService discountService = new DiscountService(); // NEW
@@ -145,7 +147,7 @@ public class CartController {
      * Initializes the table data and updates price calculations.
      *
      * @param user The logged-in customer.
-     * @param cart The current 'Order' object acting as the shopping cart.
+     * @param cart A copy of the current 'Order' object acting as the shopping cart.
      */
     public void initData(User user, Order cart) {
         this.currentUser = user;
@@ -153,6 +155,7 @@ public class CartController {
 
         cartItems = FXCollections.observableArrayList(cart.getItems());
         cartTable.setItems(cartItems);
+        quote = orderService.getQuote(user.getId());
 
         updateTotalPriceLabel();
 
@@ -182,9 +185,6 @@ public class CartController {
 
         cartItems.remove(selectedItem);
 
-        // Sync items for calculation
-        cartOrder.setItems(new java.util.ArrayList<>(cartItems));
-
         updateTotalPriceLabel();
 
         checkoutButton.setDisable(cartItems.isEmpty());
@@ -203,7 +203,9 @@ public class CartController {
 
         Coupon coupon = discountService.validateCoupon(code.trim());
         if (coupon != null) {
+            // Validated once here; checkout validates it again
             cartOrder.setUsedCouponId(coupon.getId());
+            quote.setCoupon(coupon);
             updateTotalPriceLabel();
             showAlert("Success", "Coupon applied: " + coupon.getCode() + " (-" + coupon.getDiscountAmount() + " TL)");
         } else {
@@ -228,9 +230,15 @@ public class CartController {
     @FXML
     private void handleCheckout() {
 
-        // Sync items just in case
-        cartOrder.setItems(new java.util.ArrayList<>(cartItems));
-        double totalWithVat = discountService.calculateFinalPrice(cartOrder);
+        // Check out a fresh copy of the cart (items may have been removed meanwhile).
+        // Checkout does not rely on the cached quote: prices, coupon and loyalty are re-read
+        Order checkoutOrder = orderService.getCart(currentUser.getId());
+        if (checkoutOrder.getItems().isEmpty()) {
+            showAlert("Warning", "Your cart is empty.");
+            return;
+        }
+        checkoutOrder.setUsedCouponId(cartOrder.getUsedCouponId());
+        double totalWithVat = discountService.calculateFinalPrice(checkoutOrder);
 
         // MINIMUM CART CHECK
         if (totalWithVat < Constants.MIN_CART_VALUE) {
@@ -291,10 +299,10 @@ public class CartController {
         }
 
         try {
-            cartOrder.setRequestedDeliveryDate(
+            checkoutOrder.setRequestedDeliveryDate(
                     Timestamp.valueOf(requestedDateTime));
             // Price is recalculated in service, but we've verified it here.
-            orderService.checkout(cartOrder);
+            orderService.checkout(checkoutOrder);
             showAlert("Success", "Order placed successfully!");
             closeStage();
         } catch (Exception e) {
@@ -318,20 +326,17 @@ public class CartController {
     // PRICE CALCULATIONS
     // =====================
 /**
-     * Recalculates the total price including VAT, coupons, and loyalty discounts.
-     * Updates the UI labels and the Loyalty Progress Bar accordingly.
+     * Shows the total price including VAT, coupons, and loyalty discounts from the
+     * running cart quote. Updates the UI labels and the Loyalty Progress Bar accordingly.
      */
     private void updateTotalPriceLabel() {
-        if (cartOrder == null)
+        if (cartOrder == null || quote == null)
             return;
 
-        // Sync
-        cartOrder.setItems(new java.util.ArrayList<>(cartItems));
-
-        double finalPrice = discountService.calculateFinalPrice(cartOrder);
+        double finalPrice = quote.getTotal();
 
-        // Loyalty Check
-        int completed = discountService.getCompletedOrderCount(currentUser.getId());
+        // Loyalty Check (tier read once per cart session)
+        int completed = quote.getDeliveredOrders();
 
         // Progress bar (max 10 orders for full tier)
         loyaltyProgressBar.setProgress(Math.min(1.0, completed / 10.0));
@@ -357,8 +362,7 @@ public class CartController {
         // Base = FinalPrice / (1 + VAT)
         // VAT_Amount = FinalPrice - Base
         double calculateVatRate = Constants.VAT_RATE;
-        double basePrice = finalPrice / (1.0 + calculateVatRate);
-        double vatAmount = finalPrice - basePrice;
+        double vatAmount = quote.getVatAmount();
 
         totalPriceLabel.setText(
                 String.format("VAT (%.0f%%): %.2f TL | Total: %.2f TL",
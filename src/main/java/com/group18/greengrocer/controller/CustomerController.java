@@ -1,8 +1,11 @@
 package com.group18.greengrocer.controller;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.group18.greengrocer.model.Category;
 import com.group18.greengrocer.model.Message;
@@ -14,8 +17,13 @@ import com.group18.greengrocer.service.OrderService;
 import com.group18.greengrocer.service.ProductService;
 import com.group18.greengrocer.service.UserService;
 import com.group18.greengrocer.util.AlertUtil;
+import com.group18.greengrocer.util.BackgroundLoader;
+import com.group18.greengrocer.util.IncrementalFilter;
+import com.group18.greengrocer.util.VirtualTileGrid;
 import com.group18.greengrocer.util.ValidatorUtil;
 
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -37,14 +45,13 @@ import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextFormatter;
 import javafx.scene.control.ToggleGroup;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
-import javafx.scene.layout.TilePane;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 public class CustomerController {
 
@@ -56,6 +63,28 @@ public class CustomerController {
     private MessageService messageService;
     private UserService userService;
 
+    private final BackgroundLoader productLoader = new BackgroundLoader("customer.products");
+    private final BackgroundLoader cartLoader = new BackgroundLoader("customer.cart");
+
+    // =====================
+    // SEARCH (debounced, filters the loaded products in memory)
+    // =====================
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(150);
+
+    // Filter-to-paint latencies above one 60 Hz frame are reported
+    private static final long FRAME_BUDGET_MS = 16;
+
+    private final BackgroundLoader searchLoader = new BackgroundLoader("customer.search");
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    private IncrementalFilter<Product> productFilter = new IncrementalFilter<>(List.of(), Product::getName);
+    private IncrementalFilter<Product>.Matches shownMatches;
+
+    // Latency measurement: nanoTime of the last keystroke not yet searched (0 = none)
+    private long searchKeyNanos;
+    private long paintKeyNanos;
+    private long paintStartNanos;
+    private boolean paintListenerInstalled;
+
     // Logged-in user
     private User currentUser;
 
@@ -69,10 +98,10 @@ public class CustomerController {
     private Button cartButton;
 
     @FXML
-    private TilePane fruitPane;
+    private StackPane productGridPane;
 
-    @FXML
-    private TilePane vegetablePane;
+    // Virtualized product cards (fruits and vegetables sections)
+    private VirtualTileGrid<Product> productGrid;
 
     @FXML
     private TextField searchField;
@@ -105,11 +134,21 @@ public class CustomerController {
 
         // Default cart label
         cartButton.setText("Cart (0)");
+
+        productGrid = new VirtualTileGrid<>(ProductCard.CARD_WIDTH, 20,
+                () -> new ProductCard(productService, this::handleAddToCart));
+        productGridPane.getChildren().add(productGrid.getView());
+
+        searchDebounce.setOnFinished(e -> applySearch());
     }
 
     @FXML
     private void handleSearch() {
-        loadProducts();
+        // Every keystroke restarts the timer; only the pause after typing runs a search
+        if (searchKeyNanos == 0) {
+            searchKeyNanos = System.nanoTime();
+        }
+        searchDebounce.playFromStart();
     }
 
     // =====================
@@ -121,10 +160,18 @@ public class CustomerController {
         if (currentUser != null) {
             usernameLabel.setText("Customer: " + currentUser.getUsername());
             loadProducts();
+            restoreCart();
             refreshOrderTracking();
         }
     }
 
+    // A saved cart is read from the database on its first access; do that here in the
+    // background so the first "Add to Cart" or "View Cart" does not wait for it.
+    private void restoreCart() {
+        int customerId = currentUser.getId();
+        cartLoader.load(() -> orderService.getCart(customerId), cart -> { });
+    }
+
     private void refreshOrderTracking() {
         if (orderTrackingBox == null)
             return;
@@ -221,252 +268,148 @@ public class CustomerController {
     // PRODUCT LIST
     // =====================
     private void loadProducts() {
-        fruitPane.getChildren().clear();
-        vegetablePane.getChildren().clear();
-
-        List<Product> products = productService.getAllProducts();
-
-        // SORT BY PRODUCT NAME (Case-Insensitive)
-        products.sort(java.util.Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER));
-
-        // SEARCH KEYWORD
-        String keyword = "";
-
-        if (searchField != null && searchField.getText() != null) {
-            keyword = searchField.getText().toLowerCase();
-        }
-
-        for (Product product : products) {
+        // Products come from the in-memory catalog, already sorted by name (case-insensitive).
+        // Rating summaries are warmed on the background thread so that building the
+        // cards on the FX thread does not wait for the database; images are decoded
+        // by ProductImageCache. Searches then only filter this loaded list.
+        productLoader.load(() -> {
+            List<Product> products = productService.getAllProducts();
+            productService.loadProductRatings();
+            return new IncrementalFilter<>(products, Product::getName);
+        }, filter -> {
+            // A search still running on the old list must not overwrite the new one
+            searchLoader.cancel();
+            productFilter = filter;
+            shownMatches = null;
+            applySearch();
+        });
+    }
 
-            // FILTER BY NAME
-            if (!product.getName().toLowerCase().contains(keyword)) {
-                continue;
-            }
+    private void applySearch() {
+        searchDebounce.stop();
+        String query = (searchField != null && searchField.getText() != null) ? searchField.getText() : "";
 
-            VBox card = createProductCard(product);
+        IncrementalFilter<Product> filter = productFilter;
+        IncrementalFilter<Product>.Matches previous = shownMatches;
+        long keyNanos = searchKeyNanos;
+        long startNanos = System.nanoTime();
+        searchKeyNanos = 0;
 
-            if (product.getCategory() == Category.FRUIT) {
-                fruitPane.getChildren().add(card);
-            } else if (product.getCategory() == Category.VEGETABLE) {
-                vegetablePane.getChildren().add(card);
+        // Starting a new search cancels the one still filtering
+        searchLoader.load(cancelled -> filter.filter(query, previous, cancelled), matches -> {
+            if (filter != productFilter) {
+                return;
             }
-        }
+            shownMatches = matches;
+            showProducts(matches.getItems());
+            measurePaint(keyNanos, startNanos);
+        });
     }
 
-    private VBox createProductCard(Product product) {
-
-        VBox box = new VBox(6);
-
-        // =====================
-        // SAFE IMAGE LOAD
-        // =====================
-
-        // =====================
-        // SAFE IMAGE LOAD (BLOB Priority)
-        // =====================
-        Image image = null;
-
-        // 1. Try DB BLOB
-        if (product.getImage() != null && product.getImage().length > 0) {
-            try {
-                image = new Image(new java.io.ByteArrayInputStream(product.getImage()));
-            } catch (Exception e) {
-                // Ignore corrupt BLOB, fallback
-            }
+    /**
+     * Records the search latency once the next frame with the new results was laid out:
+     * keystroke-to-paint (includes the debounce delay) and filter-to-paint (the part
+     * that has to fit into the frame budget).
+     */
+    private void measurePaint(long keyNanos, long startNanos) {
+        Scene scene = productGridPane.getScene();
+        if (scene == null) {
+            return;
         }
-
-        // 2. Fallback to Classpath Resource (Specific name)
-        if (image == null) {
-            try {
-                String imageName = product.getName().toLowerCase() + ".png";
-                var stream = getClass().getResourceAsStream(
-                        "/com/group18/greengrocer/images/products/" + imageName);
-
-                if (stream != null) {
-                    image = new Image(stream);
-                }
-            } catch (Exception e) {
-                // Ignore
-            }
+        if (!paintListenerInstalled) {
+            scene.addPostLayoutPulseListener(this::searchPainted);
+            paintListenerInstalled = true;
         }
+        paintKeyNanos = keyNanos;
+        paintStartNanos = startNanos;
+        Platform.requestNextPulse();
+    }
 
-        // 3. Fallback to Category Defaults (Requested)
-        if (image == null) {
-            try {
-                String defaultPath = "/com/group18/greengrocer/images/products/";
-                if (product.getCategory() == Category.FRUIT) {
-                    defaultPath += "furits.png"; // Per user request spelling
-                } else {
-                    defaultPath += "vegetables.png";
-                }
-
-                var stream = getClass().getResourceAsStream(defaultPath);
-                if (stream != null) {
-                    image = new Image(stream);
-                }
-            } catch (Exception e) {
-                // Ignore
-            }
+    private void searchPainted() {
+        if (paintStartNanos == 0) {
+            return;
         }
-
-        // 4. Display if found
-        if (image != null) {
-            ImageView imageView = new ImageView(image);
-            imageView.setFitWidth(120);
-            imageView.setFitHeight(100);
-            imageView.setPreserveRatio(true);
-            imageView.setStyle("-fx-border-color: red;");
-            box.getChildren().add(imageView);
+        long now = System.nanoTime();
+        long filterToPaintMs = (now - paintStartNanos) / 1_000_000;
+        if (paintKeyNanos != 0) {
+            BackgroundLoader.recordLatency("customer.search.keystroke-to-paint", (now - paintKeyNanos) / 1_000_000);
         }
+        BackgroundLoader.recordLatency("customer.search.filter-to-paint", filterToPaintMs);
+        if (filterToPaintMs > FRAME_BUDGET_MS) {
+            System.err.println("CustomerController: Search took " + filterToPaintMs + " ms from filter to paint ("
+                    + productFilter.size() + " products)");
+        }
+        paintStartNanos = 0;
+    }
 
-        // Calculate effective price (Double if stock <= threshold)
-        double effectivePrice = (product.getStock() <= product.getThreshold())
-                ? product.getPrice() * 2.0
-                : product.getPrice();
-
-        Label nameLabel = new Label(product.getName());
-        nameLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+    private void showProducts(List<Product> products) {
+        List<Product> fruits = new ArrayList<>();
+        List<Product> vegetables = new ArrayList<>();
 
-        // RATING DISPLAY
-        try {
-            double avgRating = productService.getAverageProductRating(product.getId());
-            Label ratingLabel = new Label();
-            StringBuilder stars = new StringBuilder();
-            int fullStars = (int) Math.round(avgRating);
-            for (int i = 0; i < 5; i++) {
-                if (i < fullStars)
-                    stars.append("★");
-                else
-                    stars.append("☆");
-            }
-            if (avgRating > 0) {
-                ratingLabel.setText(stars.toString() + " (" + String.format("%.1f", avgRating) + ")");
-                ratingLabel.setStyle("-fx-text-fill: #FFC107; -fx-font-size: 14px;"); // Gold color
-            } else {
-                ratingLabel.setText("No ratings");
-                ratingLabel.setStyle("-fx-text-fill: #9E9E9E; -fx-font-size: 11px; -fx-font-style: italic;");
+        for (Product product : products) {
+            if (product.getCategory() == Category.FRUIT) {
+                fruits.add(product);
+            } else if (product.getCategory() == Category.VEGETABLE) {
+                vegetables.add(product);
             }
-            box.getChildren().add(ratingLabel);
-        } catch (Exception e) {
-            // Ignore rating load error
         }
-        Label priceLabel = new Label(
-                "Price: " + String.format("%.2f", effectivePrice) + " ₺ / " + product.getUnit());
-        Label stockLabel = new Label("Stock: " + product.getStock());
-
-        // AMOUNT INPUT
-        TextField amountField = new TextField();
-        amountField.setPromptText(product.getUnit());
-        amountField.setMaxWidth(80);
 
-        Button addButton = new Button("Add to Cart");
-        addButton.setOnAction(e -> {
-            try {
-                String input = amountField.getText();
-
-                if (input == null || input.isBlank()) {
-                    showError("Please enter amount in " + product.getUnit() + ".");
-                    return;
-                }
+        // Only the visible cards exist; the grid rebinds them to the new products
+        Map<String, List<Product>> sections = new LinkedHashMap<>();
+        sections.put("Fresh Fruits", fruits);
+        sections.put("Fresh Vegetables", vegetables);
+        productGrid.setSections(sections);
+    }
 
-                double amount = Double.parseDouble(input);
+    private void handleAddToCart(Product product, TextField amountField) {
+        try {
+            String input = amountField.getText();
 
-                if ("piece".equalsIgnoreCase(product.getUnit())) {
-                    if (amount % 1 != 0) {
-                        showError("Products measured in 'piece' must be ordered in whole numbers (no decimals).");
-                        return;
-                    }
-                }
+            if (input == null || input.isBlank()) {
+                showError("Please enter amount in " + product.getUnit() + ".");
+                return;
+            }
 
-                if (amount <= 0) {
-                    showError("Amount must be greater than 0.");
-                    return;
-                }
+            double amount = Double.parseDouble(input);
 
-                // =====================
-                // STOCK CHECK (IMPORTANT)
-                // =====================
-                if (amount > product.getStock()) {
-                    showError(
-                            "Not enough stock.\nAvailable stock: " + String.format("%.2f", product.getStock()) + " "
-                                    + product.getUnit());
+            if ("piece".equalsIgnoreCase(product.getUnit())) {
+                if (amount % 1 != 0) {
+                    showError("Products measured in 'piece' must be ordered in whole numbers (no decimals).");
                     return;
                 }
+            }
 
-                orderService.addToCart(
-                        currentUser.getId(),
-                        product.getId(),
-                        amount);
-
-                Order cart = orderService.getCart(currentUser.getId());
-                cartButton.setText("Cart (" + cart.getItems().size() + ")");
-
-                showInfo(amount + " " + product.getUnit() + " of " + product.getName() + " added to cart.");
-                amountField.clear();
+            if (amount <= 0) {
+                showError("Amount must be greater than 0.");
+                return;
+            }
 
-            } catch (NumberFormatException ex) {
-                showError("Please enter a valid number.");
-            } catch (Exception ex) {
-                showError(ex.getMessage());
+            // =====================
+            // STOCK CHECK (IMPORTANT)
+            // =====================
+            if (amount > product.getStock()) {
+                showError(
+                        "Not enough stock.\nAvailable stock: " + String.format("%.2f", product.getStock()) + " "
+                                + product.getUnit());
+                return;
             }
-        });
 
-        box.getChildren().addAll(
-                nameLabel,
-                priceLabel,
-                stockLabel,
-                amountField,
-                addButton);
-        // Determine base color based on category
-        String baseBorderColor = (product.getCategory() == com.group18.greengrocer.model.Category.FRUIT)
-                ? "#FF9800" // Orange for Fruit
-                : "#4CAF50"; // Green for Veg/Default
-
-        box.setStyle("""
-                -fx-padding: 10;
-                -fx-border-color: %s;
-                -fx-border-width: 2;
-                -fx-border-radius: 5;
-                -fx-background-radius: 5;
-                -fx-alignment: center;
-                -fx-background-color: white;
-                -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 5, 0, 0, 0);
-                """.formatted(baseBorderColor));
-
-        // Hover Effect
-        box.setOnMouseEntered(e -> {
-            box.setStyle("""
-                    -fx-padding: 10;
-                    -fx-border-color: %s;
-                    -fx-border-width: 3;
-                    -fx-border-radius: 5;
-                    -fx-background-radius: 5;
-                    -fx-alignment: center;
-                    -fx-background-color: white;
-                    -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.3), 10, 0, 0, 5);
-                    -fx-scale-x: 1.05;
-                    -fx-scale-y: 1.05;
-                    """.formatted(baseBorderColor));
-            box.setCursor(javafx.scene.Cursor.HAND);
-        });
+            orderService.addToCart(
+                    currentUser.getId(),
+                    product.getId(),
+                    amount);
 
-        box.setOnMouseExited(e -> {
-            box.setStyle("""
-                    -fx-padding: 10;
-                    -fx-border-color: %s;
-                    -fx-border-width: 2;
-                    -fx-border-radius: 5;
-                    -fx-background-radius: 5;
-                    -fx-alignment: center;
-                    -fx-background-color: white;
-                    -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 5, 0, 0, 0);
-                    -fx-scale-x: 1.0;
-                    -fx-scale-y: 1.0;
-                    """.formatted(baseBorderColor));
-            box.setCursor(javafx.scene.Cursor.DEFAULT);
-        });
+            Order cart = orderService.getCart(currentUser.getId());
+            cartButton.setText("Cart (" + cart.getItems().size() + ")");
 
-        return box;
+            showInfo(amount + " " + product.getUnit() + " of " + product.getName() + " added to cart.");
+            amountField.clear();
+
+        } catch (NumberFormatException ex) {
+            showError("Please enter a valid number.");
+        } catch (Exception ex) {
+            showError(ex.getMessage());
+        }
     }
 
     // =====================
@@ -5,12 +5,12 @@ import com.group18.greengrocer.model.Order;
 import com.group18.greengrocer.model.User;
 import com.group18.greengrocer.model.CartItem;
 import com.group18.greengrocer.service.OrderService;
+import com.group18.greengrocer.util.BackgroundLoader;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.FileChooser;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.util.Base64;
 import javafx.stage.Stage;
 
 public class OrderHistoryController {
@@ -38,6 +38,8 @@ public class OrderHistoryController {
         // =====================
         private User currentUser;
         private final OrderService orderService = new OrderService();
+        private final BackgroundLoader ordersLoader = new BackgroundLoader("customer.orderHistory");
+        private final BackgroundLoader invoiceLoader = new BackgroundLoader("customer.invoice");
 
         // =====================
         // INITIALIZE
@@ -93,9 +95,8 @@ public class OrderHistoryController {
         // =====================
         public void initData(User user) {
                 this.currentUser = user;
-                ordersTable.setItems(
-                                FXCollections.observableArrayList(
-                                                orderService.getOrdersByCustomer(user.getId())));
+                ordersLoader.load(() -> orderService.getOrdersByCustomer(user.getId()),
+                                orders -> ordersTable.setItems(FXCollections.observableArrayList(orders)));
         }
 
         // =====================
@@ -182,16 +183,14 @@ public class OrderHistoryController {
                         return;
                 }
 
-                // Fetch fresh invoice from service (regenerates if needed)
-                String invoiceBase64;
-                try {
-                        invoiceBase64 = orderService.getInvoice(selected.getId());
-                } catch (Exception e) {
-                        showAlert("Error", "Could not generate invoice: " + e.getMessage());
-                        return;
-                }
+                // Fetch the stored invoice off the FX thread (rendered on demand if missing)
+                invoiceLoader.load(() -> orderService.getInvoice(selected.getId()),
+                                pdfBytes -> saveInvoice(selected, pdfBytes),
+                                e -> showAlert("Error", "Could not generate invoice: " + e.getMessage()));
+        }
 
-                if (invoiceBase64 == null || invoiceBase64.isEmpty()) {
+        private void saveInvoice(Order selected, byte[] pdfBytes) {
+                if (pdfBytes == null || pdfBytes.length == 0) {
                         showAlert("Info", "No invoice generated.");
                         return;
                 }
@@ -205,7 +204,6 @@ public class OrderHistoryController {
                 File file = fileChooser.showSaveDialog(ordersTable.getScene().getWindow());
                 if (file != null) {
                         try (FileOutputStream fos = new FileOutputStream(file)) {
-                                byte[] pdfBytes = Base64.getDecoder().decode(invoiceBase64);
                                 fos.write(pdfBytes);
                                 showAlert("Success", "Invoice saved to " + file.getAbsolutePath());
                         } catch (Exception e) {
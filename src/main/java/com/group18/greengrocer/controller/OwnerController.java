@@ -1,18 +1,23 @@
 package com.group18.greengrocer.controller;
 
+import com.group18.greengrocer.dao.StatementStats;
 import com.group18.greengrocer.model.Category;
 import com.group18.greengrocer.model.Message;
 import com.group18.greengrocer.model.Order;
 import com.group18.greengrocer.model.Product;
 import com.group18.greengrocer.model.User;
 // Services
+import com.group18.greengrocer.service.DiagnosticsService;
 import com.group18.greengrocer.service.DiscountService;
 import com.group18.greengrocer.service.MessageService;
 import com.group18.greengrocer.service.OrderService;
+import com.group18.greengrocer.service.ProductImageCache;
 import com.group18.greengrocer.service.ProductService;
 import com.group18.greengrocer.service.UserService;
 // Utils
 import com.group18.greengrocer.util.AlertUtil;
+import com.group18.greengrocer.util.BackgroundLoader;
+import com.group18.greengrocer.util.LazyTablePager;
 import com.group18.greengrocer.util.SessionManager;
 import com.group18.greengrocer.util.ValidatorUtil;
 
@@ -51,6 +56,14 @@ public class OwnerController {
     private final OrderService orderService;
     private final DiscountService discountService;
     private final MessageService messageService;
+    private final DiagnosticsService diagnosticsService;
+
+    private final BackgroundLoader reportsLoader = new BackgroundLoader("owner.reports");
+    private LazyTablePager<Order> ordersPager;
+
+    /** Statuses shown in the owner's pending order table. */
+    private static final java.util.List<Order.Status> PENDING_STATUSES = java.util.List.of(
+            Order.Status.WAITING, Order.Status.RECEIVED, Order.Status.AVAILABLE);
 
     private User currentUser;
 
@@ -183,6 +196,42 @@ public class OwnerController {
     @FXML
     private TextArea replyField;
 
+    // --- Diagnostics Tab Elements ---
+    @FXML
+    private TableView<StatementStats> statementTable;
+    @FXML
+    private TableColumn<StatementStats, String> stmtNameCol;
+    @FXML
+    private TableColumn<StatementStats, Long> stmtCountCol;
+    @FXML
+    private TableColumn<StatementStats, Double> stmtMeanCol;
+    @FXML
+    private TableColumn<StatementStats, Double> stmtP50Col;
+    @FXML
+    private TableColumn<StatementStats, Double> stmtP95Col;
+    @FXML
+    private TableColumn<StatementStats, Double> stmtP99Col;
+    @FXML
+    private TableColumn<StatementStats, Double> stmtMaxCol;
+    @FXML
+    private TableColumn<StatementStats, Long> stmtRowsCol;
+    @FXML
+    private TableColumn<StatementStats, Long> stmtBytesCol;
+    @FXML
+    private TableColumn<StatementStats, Long> stmtSlowCol;
+    @FXML
+    private TableColumn<StatementStats, Long> stmtErrorsCol;
+    @FXML
+    private ListView<String> slowQueryList;
+    @FXML
+    private TextField slowThresholdField;
+    @FXML
+    private Label poolStatsLabel;
+    @FXML
+    private Label imageCacheLabel;
+    @FXML
+    private Label loadStatsLabel;
+
     // =============================================================
     // SECTION: CONSTRUCTOR & INITIALIZATION
     // =============================================================
@@ -194,6 +243,7 @@ public class OwnerController {
         this.orderService = new OrderService();
         this.discountService = new DiscountService();
         this.messageService = new MessageService();
+        this.diagnosticsService = new DiagnosticsService();
     }
 
     @FXML
@@ -206,7 +256,8 @@ public class OwnerController {
         if (categoryCombo != null) {
             categoryCombo.getItems().setAll(Category.values());
             categoryCombo.getSelectionModel().selectedItemProperty().addListener((obs, oldV, newV) -> {
-                if (currentImageBytes == null) {
+                if (currentImageBytes == null
+                        && (productTable == null || productTable.getSelectionModel().getSelectedItem() == null)) {
                     displayImage(null, newV);
                 }
             });
@@ -255,6 +306,10 @@ public class OwnerController {
 
             orderTable.getSelectionModel().selectedItemProperty()
                     .addListener((obs, oldV, newV) -> showOrderDetails(newV));
+
+            // Pages of pending orders are fetched as the table is scrolled
+            ordersPager = new LazyTablePager<>("owner.orders", orderTable,
+                    token -> orderService.getOrdersPageForOwner(PENDING_STATUSES, token));
         }
 
         // Products Setup
@@ -302,6 +357,29 @@ public class OwnerController {
             carrierTable.setContextMenu(carrierCm);
         }
 
+        // Diagnostics Setup
+        if (statementTable != null) {
+            stmtNameCol.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getName()));
+            stmtCountCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getCount()));
+            stmtMeanCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(round2(cell.getValue().getMeanMillis())));
+            stmtP50Col.setCellValueFactory(cell -> new SimpleObjectProperty<>(round2(cell.getValue().getP50Millis())));
+            stmtP95Col.setCellValueFactory(cell -> new SimpleObjectProperty<>(round2(cell.getValue().getP95Millis())));
+            stmtP99Col.setCellValueFactory(cell -> new SimpleObjectProperty<>(round2(cell.getValue().getP99Millis())));
+            stmtMaxCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(round2(cell.getValue().getMaxMillis())));
+            stmtRowsCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getTotalRows()));
+            stmtBytesCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getTotalBytes()));
+            stmtSlowCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getSlowCount()));
+            stmtErrorsCol.setCellValueFactory(cell -> new SimpleObjectProperty<>(cell.getValue().getErrorCount()));
+
+            // Full SQL of the selected statement as a tooltip
+            statementTable.setRowFactory(table -> {
+                TableRow<StatementStats> row = new TableRow<>();
+                row.itemProperty().addListener((obs, oldV, newV) -> row.setTooltip(
+                        newV != null && newV.getSql() != null ? new Tooltip(newV.getSql()) : null));
+                return row;
+            });
+        }
+
         // Bind Buttons to Selection
         if (addButton != null && updateButton != null && productTable != null) {
             addButton.disableProperty().bind(productTable.getSelectionModel().selectedItemProperty().isNotNull());
@@ -331,6 +409,7 @@ public class OwnerController {
         if (productTable != null) {
             productTable.getSortOrder().clear(); // Clear any UI-driven sorting
             java.util.List<Product> products = productService.getAllProductsForOwner();
+            productService.loadProductRatings(); // for the rating column
             products.sort(java.util.Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER));
             productTable.getItems().setAll(products);
         }
@@ -354,14 +433,8 @@ public class OwnerController {
 
     @FXML
     private void handleRefreshOrders() {
-        if (orderTable != null) {
-            java.util.List<com.group18.greengrocer.model.Order> allOrders = orderService.getAllOrdersForOwner();
-            java.util.List<com.group18.greengrocer.model.Order> pending = allOrders.stream()
-                    .filter(o -> o.getStatus() == com.group18.greengrocer.model.Order.Status.WAITING ||
-                            o.getStatus() == com.group18.greengrocer.model.Order.Status.RECEIVED ||
-                            o.getStatus() == com.group18.greengrocer.model.Order.Status.AVAILABLE)
-                    .toList();
-            orderTable.getItems().setAll(pending);
+        if (ordersPager != null) {
+            ordersPager.reset();
         }
     }
 
@@ -381,8 +454,9 @@ public class OwnerController {
         stockField.setText(String.valueOf(product.getStock()));
         thresholdField.setText(String.valueOf(product.getThreshold()));
 
-        currentImageBytes = product.getImage();
-        displayImage(currentImageBytes, product.getCategory());
+        // Only a newly uploaded image is sent on update; the stored one is kept otherwise
+        currentImageBytes = null;
+        displayProductImage(product);
 
         try {
             double eff = productService.getEffectivePrice(product);
@@ -434,39 +508,45 @@ public class OwnerController {
         if (productImageView == null)
             return;
 
+        double width = productImageView.getFitWidth();
+        double height = productImageView.getFitHeight();
         Image image = null;
 
-        // 1. Try provided data (DB BLOB or Uploaded)
+        // 1. Try uploaded data (decoded at preview size)
         if (data != null && data.length > 0) {
             try {
-                image = new Image(new ByteArrayInputStream(data));
+                image = new Image(new ByteArrayInputStream(data), width, height, true, true);
+                if (image.isError()) {
+                    image = null;
+                }
             } catch (Exception e) {
-                // Ignore corrupt BLOB
+                // Ignore corrupt image
             }
         }
 
         // 2. Fallback to Category Defaults (Requested)
-        if (image == null && category != null) {
-            try {
-                String defaultPath = "/com/group18/greengrocer/images/products/";
-                if (category == Category.FRUIT) {
-                    defaultPath += "furits.png"; // Per user request spelling
-                } else {
-                    defaultPath += "vegetables.png";
-                }
-
-                var stream = getClass().getResourceAsStream(defaultPath);
-                if (stream != null) {
-                    image = new Image(stream);
-                }
-            } catch (Exception e) {
-                // Ignore
-            }
+        if (image == null) {
+            image = ProductImageCache.getInstance().getCategoryImage(category, width, height);
         }
 
         productImageView.setImage(image);
     }
 
+    private void displayProductImage(Product product) {
+        if (productImageView == null)
+            return;
+
+        // Category picture first; the product image is decoded in the background
+        displayImage(null, product.getCategory());
+        ProductImageCache.getInstance().load(product, productImageView.getFitWidth(),
+                productImageView.getFitHeight(), image -> {
+                    Product selected = productTable.getSelectionModel().getSelectedItem();
+                    if (currentImageBytes == null && selected != null && selected.getId() == product.getId()) {
+                        productImageView.setImage(image);
+                    }
+                });
+    }
+
     @FXML
     private void handleAdd() {
         if (!validateForm())
@@ -666,33 +746,44 @@ public class OwnerController {
         if (categoryPieChart == null)
             return;
 
+        // All report queries run in the background; the charts are filled once they return
+        reportsLoader.load(() -> {
+            ReportSnapshot r = new ReportSnapshot();
+            r.totalRevenue = orderService.getTotalRevenue();
+            r.totalOrders = orderService.getTotalOrdersCount();
+            r.activeCustomers = orderService.getActiveCustomersCount();
+            r.salesByCategory = orderService.getSalesByCategory();
+            r.statusDistribution = orderService.getOrderStatusDistribution();
+            r.revenueByProduct = orderService.getRevenueByProduct();
+            r.revenueOverTime = orderService.getRevenueOverTime();
+            return r;
+        }, this::showReports);
+    }
+
+    private void showReports(ReportSnapshot r) {
         // --- 1. Top Cards Stats ---
         if (totalRevenueLabel != null) {
-            totalRevenueLabel.setText(String.format("%.2f TL", orderService.getTotalRevenue()));
+            totalRevenueLabel.setText(String.format("%.2f TL", r.totalRevenue));
         }
         if (totalOrdersLabel != null) {
-            totalOrdersLabel.setText(String.valueOf(orderService.getTotalOrdersCount()));
+            totalOrdersLabel.setText(String.valueOf(r.totalOrders));
         }
         if (activeCustomersLabel != null) {
-            activeCustomersLabel.setText(String.valueOf(orderService.getActiveCustomersCount()));
+            activeCustomersLabel.setText(String.valueOf(r.activeCustomers));
         }
         if (avgOrderValueLabel != null) {
-            int totalOrders = orderService.getTotalOrdersCount();
-            double totalRev = orderService.getTotalRevenue();
-            double avg = totalOrders > 0 ? totalRev / totalOrders : 0.0;
+            double avg = r.totalOrders > 0 ? r.totalRevenue / r.totalOrders : 0.0;
             avgOrderValueLabel.setText(String.format("%.2f TL", avg));
         }
 
         // --- 2. Category Pie Chart ---
-        java.util.Map<String, Double> catData = orderService.getSalesByCategory();
         categoryPieChart.getData().clear();
-        catData.forEach((cat, val) -> categoryPieChart.getData().add(new javafx.scene.chart.PieChart.Data(cat, val)));
+        r.salesByCategory.forEach((cat, val) -> categoryPieChart.getData().add(new javafx.scene.chart.PieChart.Data(cat, val)));
 
         // --- 3. Order Status Pie Chart ---
         if (orderStatusChart != null) {
-            java.util.Map<String, Integer> statusData = orderService.getOrderStatusDistribution();
             orderStatusChart.getData().clear();
-            statusData.forEach((status, count) -> orderStatusChart.getData()
+            r.statusDistribution.forEach((status, count) -> orderStatusChart.getData()
                     .add(new javafx.scene.chart.PieChart.Data(status, count)));
         }
 
@@ -702,9 +793,8 @@ public class OwnerController {
             javafx.scene.chart.XYChart.Series<String, Number> series = new javafx.scene.chart.XYChart.Series<>();
             series.setName("Revenue");
 
-            java.util.Map<String, Double> prodData = orderService.getRevenueByProduct();
             // Sort top 10 for better visualization? For now show all.
-            prodData.forEach((prod, rev) -> series.getData().add(new javafx.scene.chart.XYChart.Data<>(prod, rev)));
+            r.revenueByProduct.forEach((prod, rev) -> series.getData().add(new javafx.scene.chart.XYChart.Data<>(prod, rev)));
 
             productSalesChart.getData().add(series);
         }
@@ -715,13 +805,25 @@ public class OwnerController {
             javafx.scene.chart.XYChart.Series<String, Number> series = new javafx.scene.chart.XYChart.Series<>();
             series.setName("Daily Revenue");
 
-            java.util.Map<String, Double> timeData = orderService.getRevenueOverTime();
-            timeData.forEach((date, val) -> series.getData().add(new javafx.scene.chart.XYChart.Data<>(date, val)));
+            r.revenueOverTime.forEach((date, val) -> series.getData().add(new javafx.scene.chart.XYChart.Data<>(date, val)));
 
             revenueChart.getData().add(series);
         }
     }
 
+    /**
+     * Values of the reports tab, collected by one background load.
+     */
+    private static final class ReportSnapshot {
+        private double totalRevenue;
+        private int totalOrders;
+        private int activeCustomers;
+        private java.util.Map<String, Double> salesByCategory;
+        private java.util.Map<String, Integer> statusDistribution;
+        private java.util.Map<String, Double> revenueByProduct;
+        private java.util.Map<String, Double> revenueOverTime;
+    }
+
     @FXML
     private void handleCreateCoupon() {
         try {
@@ -1011,6 +1113,54 @@ public class OwnerController {
         }
     }
 
+    // ================= DIAGNOSTICS =================
+
+    @FXML
+    private void handleRefreshDiagnostics() {
+        if (statementTable == null)
+            return;
+
+        statementTable.getItems().setAll(diagnosticsService.getStatementStats());
+        slowQueryList.getItems().setAll(diagnosticsService.getSlowQueries().stream()
+                .map(Object::toString).toList());
+        slowThresholdField.setText(String.valueOf(diagnosticsService.getSlowQueryThresholdMillis()));
+
+        com.group18.greengrocer.dao.ConnectionPool.Stats pool = diagnosticsService.getPoolStats();
+        poolStatsLabel.setText(pool != null ? "Connection pool: " + pool : "Connection pool: not connected yet");
+        imageCacheLabel.setText("Image cache: " + diagnosticsService.getImageCacheStats());
+
+        StringBuilder loads = new StringBuilder("Background loads:");
+        diagnosticsService.getLoadStats()
+                .forEach((name, stats) -> loads.append("\n  ").append(name).append(": ").append(stats));
+        loadStatsLabel.setText(loads.toString());
+    }
+
+    @FXML
+    private void handleApplySlowThreshold() {
+        try {
+            long millis = Long.parseLong(slowThresholdField.getText().trim());
+            diagnosticsService.setSlowQueryThresholdMillis(millis);
+            AlertUtil.showInfo("Success", "Slow query threshold set to " + millis + " ms.");
+        } catch (IllegalArgumentException e) {
+            AlertUtil.showError("Validation Error", "Threshold must be a non-negative whole number of milliseconds.");
+        }
+        handleRefreshDiagnostics();
+    }
+
+    @FXML
+    private void handleResetDiagnostics() {
+        Optional<ButtonType> res = AlertUtil.showConfirmation("Reset Metrics",
+                "Clear all statement metrics and the slow query history?");
+        if (res.isPresent() && res.get() == ButtonType.OK) {
+            diagnosticsService.resetQueryMetrics();
+            handleRefreshDiagnostics();
+        }
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
     @FXML
     private void handleBack() {
         handleLogout();
@@ -0,0 +1,173 @@
+package com.group18.greengrocer.controller;
+
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Product;
+import com.group18.greengrocer.service.DiscountService;
+import com.group18.greengrocer.service.ProductImageCache;
+import com.group18.greengrocer.service.ProductService;
+import com.group18.greengrocer.util.VirtualTileGrid;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.VBox;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Product card of the customer dashboard.
+ * <p>
+ * A card is created once and then shown for many products: the product grid recycles
+ * cards while scrolling and calls {@link #bind(Product)} with the product to display.
+ * All nodes and handlers are built in the constructor; binding only updates texts,
+ * styles and the image.
+ */
+class ProductCard implements VirtualTileGrid.Tile<Product> {
+
+    /** Width of every card; the product grid lays out its columns with it. */
+    static final double CARD_WIDTH = 170;
+
+    // Size of the product picture on a card; images are decoded at this size
+    private static final double IMAGE_WIDTH = 120;
+    private static final double IMAGE_HEIGHT = 100;
+
+    private final ProductService productService;
+
+    private final VBox box = new VBox(6);
+    private final ImageView imageView = new ImageView();
+    private final Label nameLabel = new Label();
+    private final Label ratingLabel = new Label();
+    private final Label priceLabel = new Label();
+    private final Label stockLabel = new Label();
+    private final TextField amountField = new TextField();
+    private final Button addButton = new Button("Add to Cart");
+
+    private Product product;
+    private String borderColor = "#4CAF50";
+
+    /**
+     * Creates an unbound card.
+     *
+     * @param productService Source of the rating summaries.
+     * @param onAddToCart    Called with the shown product and the amount field when
+     *                       "Add to Cart" is pressed.
+     */
+    ProductCard(ProductService productService, BiConsumer<Product, TextField> onAddToCart) {
+        this.productService = productService;
+
+        imageView.setFitWidth(IMAGE_WIDTH);
+        imageView.setFitHeight(IMAGE_HEIGHT);
+        imageView.setPreserveRatio(true);
+        imageView.setStyle("-fx-border-color: red;");
+
+        nameLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+        nameLabel.setMaxWidth(CARD_WIDTH - 20);
+
+        amountField.setMaxWidth(80);
+        addButton.setOnAction(e -> {
+            if (product != null) {
+                onAddToCart.accept(product, amountField);
+            }
+        });
+
+        box.getChildren().addAll(imageView, nameLabel, ratingLabel, priceLabel, stockLabel, amountField, addButton);
+        box.setMinWidth(CARD_WIDTH);
+        box.setPrefWidth(CARD_WIDTH);
+        box.setMaxWidth(CARD_WIDTH);
+
+        // Hover Effect
+        box.setOnMouseEntered(e -> {
+            box.setStyle(cardStyle(true));
+            box.setCursor(Cursor.HAND);
+        });
+        box.setOnMouseExited(e -> {
+            box.setStyle(cardStyle(false));
+            box.setCursor(Cursor.DEFAULT);
+        });
+    }
+
+    @Override
+    public Node getNode() {
+        return box;
+    }
+
+    @Override
+    public void bind(Product product) {
+        boolean sameProduct = this.product != null && this.product.getId() == product.getId();
+        this.product = product;
+
+        // =====================
+        // IMAGE (decoded at card size, shared cache)
+        // =====================
+        // Shows the category picture until the product image is decoded in the background;
+        // a late image is dropped if the card was rebound to another product meanwhile.
+        ProductImageCache images = ProductImageCache.getInstance();
+        if (!sameProduct) {
+            imageView.setImage(images.getCategoryImage(product.getCategory(), IMAGE_WIDTH, IMAGE_HEIGHT));
+            amountField.clear();
+        }
+        images.load(product, IMAGE_WIDTH, IMAGE_HEIGHT, image -> {
+            if (this.product != null && this.product.getId() == product.getId()) {
+                imageView.setImage(image);
+            }
+        });
+
+        nameLabel.setText(product.getName());
+        bindRating(product);
+
+        // Effective price (doubled if stock <= threshold), same rule as the cart and checkout
+        double effectivePrice = DiscountService.unitPrice(product);
+        priceLabel.setText("Price: " + String.format("%.2f", effectivePrice) + " ₺ / " + product.getUnit());
+        stockLabel.setText("Stock: " + product.getStock());
+        amountField.setPromptText(product.getUnit());
+
+        // Determine base color based on category
+        borderColor = (product.getCategory() == Category.FRUIT)
+                ? "#FF9800" // Orange for Fruit
+                : "#4CAF50"; // Green for Veg/Default
+        box.setStyle(cardStyle(box.isHover()));
+    }
+
+    private void bindRating(Product product) {
+        // RATING DISPLAY
+        double avgRating = 0;
+        try {
+            avgRating = productService.getAverageProductRating(product.getId());
+        } catch (Exception e) {
+            // Ignore rating load error
+        }
+        if (avgRating > 0) {
+            StringBuilder stars = new StringBuilder();
+            int fullStars = (int) Math.round(avgRating);
+            for (int i = 0; i < 5; i++) {
+                if (i < fullStars)
+                    stars.append("★");
+                else
+                    stars.append("☆");
+            }
+            ratingLabel.setText(stars.toString() + " (" + String.format("%.1f", avgRating) + ")");
+            ratingLabel.setStyle("-fx-text-fill: #FFC107; -fx-font-size: 14px;"); // Gold color
+        } else {
+            ratingLabel.setText("No ratings");
+            ratingLabel.setStyle("-fx-text-fill: #9E9E9E; -fx-font-size: 11px; -fx-font-style: italic;");
+        }
+    }
+
+    private String cardStyle(boolean hover) {
+        return """
+                -fx-padding: 10;
+                -fx-border-color: %s;
+                -fx-border-width: %d;
+                -fx-border-radius: 5;
+                -fx-background-radius: 5;
+                -fx-alignment: center;
+                -fx-background-color: white;
+                -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,%s), %d, 0, 0, %d);
+                -fx-scale-x: %s;
+                -fx-scale-y: %s;
+                """.formatted(borderColor, hover ? 3 : 2, hover ? "0.3" : "0.1", hover ? 10 : 5, hover ? 5 : 0,
+                hover ? "1.05" : "1.0", hover ? "1.05" : "1.0");
+    }
+}
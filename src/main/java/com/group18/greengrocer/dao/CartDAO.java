@@ -0,0 +1,37 @@
+package com.group18.greengrocer.dao;
+
+import java.util.Map;
+
+/**
+ * Data Access Object (DAO) for saved shopping carts (one line per customer and product).
+ *
+ * @see MySqlCartDAO
+ * @see InMemoryCartDAO
+ */
+public interface CartDAO {
+
+    /**
+     * Reads the saved cart of a customer.
+     *
+     * @param customerId The customer ID.
+     * @return Quantity per product ID, in the order the lines were saved (empty if none or on error).
+     */
+    Map<Integer, Double> findCart(int customerId);
+
+    /**
+     * Replaces the saved carts of several customers at once.
+     * An empty line map deletes the customer's saved cart.
+     *
+     * @param carts Quantity per product ID, per customer ID.
+     * @return true if all carts were saved.
+     */
+    boolean saveCarts(Map<Integer, Map<Integer, Double>> carts);
+
+    /**
+     * Deletes the saved cart of a customer.
+     *
+     * @param customerId The customer ID.
+     * @return true if successful.
+     */
+    boolean deleteCart(int customerId);
+}
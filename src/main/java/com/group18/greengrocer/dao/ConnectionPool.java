@@ -0,0 +1,460 @@
+package com.group18.greengrocer.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small bounded JDBC connection pool.
+ * <p>
+ * Every DAO obtains its connection through {@link DatabaseAdapter#getConnection()} and closes it
+ * in a try-with-resources block. The pool hands out lightweight proxies whose {@code close()}
+ * returns the physical connection to the pool instead of dropping the TCP session, so each
+ * caller gets its own connection (with its own autocommit/transaction state) without paying
+ * the reconnect cost on every query.
+ * <p>
+ * Features:
+ * <ul>
+ * <li>At most {@code maxSize} physical connections (active + idle).</li>
+ * <li>Callers wait up to {@code maxWaitMillis} for a free connection, then fail with a timeout.</li>
+ * <li>Idle connections are validated on borrow and evicted after {@code idleTimeoutMillis}.</li>
+ * <li>Connections held longer than {@code leakThresholdMillis} are reported with the borrow stack trace.</li>
+ * <li>Usage metrics are exposed through {@link #getStats()}.</li>
+ * <li>Optionally, every statement is measured by {@link QueryMetrics}.</li>
+ * </ul>
+ */
+public class ConnectionPool {
+
+    /** Seconds given to {@link Connection#isValid(int)} when validating a connection. */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    /** Idle connections used more recently than this are trusted without a validation round trip. */
+    private static final long VALIDATION_SKIP_MILLIS = 500;
+    /** How often the housekeeper checks for idle timeouts and leaks. */
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    /** Receives the timings of all statements, or null to hand out the driver's statements as they are. */
+    private final QueryMetrics queryMetrics;
+
+    /** Free physical connections, most recently returned first. */
+    private final LinkedBlockingDeque<PhysicalConnection> idle = new LinkedBlockingDeque<>();
+    /** Connections currently handed out to callers. */
+    private final Set<PooledHandle> active = ConcurrentHashMap.newKeySet();
+    /** One permit per connection that may be active at the same time. */
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * Creates a new pool. Physical connections are opened lazily on first use.
+     *
+     * @param url                 JDBC URL.
+     * @param user                Database user.
+     * @param password            Database password.
+     * @param maxSize             Maximum number of physical connections.
+     * @param minIdle             Number of idle connections kept open by the evictor.
+     * @param maxWaitMillis       Maximum time a caller waits for a free connection.
+     * @param idleTimeoutMillis   Idle time after which a connection is closed.
+     * @param leakThresholdMillis Hold time after which a borrowed connection is reported as a leak (0 disables).
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+            long maxWaitMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        this(url, user, password, maxSize, minIdle, maxWaitMillis, idleTimeoutMillis, leakThresholdMillis, null);
+    }
+
+    /**
+     * Creates a new pool whose statements report their executions to {@code queryMetrics}.
+     *
+     * @param queryMetrics Statement metrics registry (null disables statement metrics).
+     * @see #ConnectionPool(String, String, String, int, int, long, long, long)
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle,
+            long maxWaitMillis, long idleTimeoutMillis, long leakThresholdMillis, QueryMetrics queryMetrics) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("maxSize must be > 0.");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.max(0, Math.min(minIdle, maxSize));
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.queryMetrics = queryMetrics;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::houseKeep,
+                HOUSEKEEPING_PERIOD_MILLIS, HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle.
+     * Closing the returned connection gives it back to the pool.
+     *
+     * @return A pooled connection in autocommit mode.
+     * @throws SQLException if no connection becomes available within the wait limit or the database is unreachable.
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown)
+            throw new SQLException("Connection pool has been shut down.");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + maxWaitMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PhysicalConnection physical = takeValidIdle();
+            if (physical == null) {
+                physical = open();
+            }
+            PooledHandle handle = new PooledHandle(physical,
+                    leakThresholdMillis > 0 ? new Exception("Connection borrowed here") : null);
+            active.add(handle);
+            borrowCount.incrementAndGet();
+            return handle.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper.
+     * Connections still in use are closed when their borrowers return them.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PhysicalConnection pc;
+        while ((pc = idle.poll()) != null) {
+            closeQuietly(pc);
+        }
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the pool metrics.
+     *
+     * @return The current pool statistics.
+     */
+    public Stats getStats() {
+        return new Stats(active.size(), idle.size(), maxSize, permits.getQueueLength(),
+                borrowCount.get(), timeoutCount.get(), createdCount.get(), evictedCount.get(),
+                leakCount.get(), totalWaitNanos.get(), maxWaitNanos.get());
+    }
+
+    // --- Helper Methods ---
+
+    private PhysicalConnection takeValidIdle() {
+        PhysicalConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - pc.lastUsed < VALIDATION_SKIP_MILLIS || isAlive(pc)) {
+                return pc;
+            }
+            evictedCount.incrementAndGet();
+            closeQuietly(pc);
+        }
+        return null;
+    }
+
+    private PhysicalConnection open() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        createdCount.incrementAndGet();
+        return new PhysicalConnection(raw);
+    }
+
+    /**
+     * Called when a borrower closes its handle. Resets transaction state and puts the
+     * physical connection back into the idle queue before releasing the permit.
+     */
+    private void release(PooledHandle handle) {
+        if (!active.remove(handle)) {
+            return;
+        }
+        PhysicalConnection pc = handle.physical;
+        try {
+            boolean reusable = !shutdown && !pc.raw.isClosed();
+            if (reusable) {
+                if (!pc.raw.getAutoCommit()) {
+                    pc.raw.rollback();
+                    pc.raw.setAutoCommit(true);
+                }
+                pc.raw.clearWarnings();
+                pc.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pc);
+                // shutdown() may have drained the queue before the offer; whoever
+                // removes the connection from the queue closes it
+                if (shutdown && idle.remove(pc)) {
+                    closeQuietly(pc);
+                }
+            } else {
+                closeQuietly(pc);
+            }
+        } catch (SQLException e) {
+            // Broken connection: drop it, the next borrower will open a fresh one.
+            evictedCount.incrementAndGet();
+            closeQuietly(pc);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void houseKeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // 1. Idle eviction (oldest connections sit at the tail)
+            if (idleTimeoutMillis > 0) {
+                Iterator<PhysicalConnection> it = idle.descendingIterator();
+                while (it.hasNext() && idle.size() > minIdle) {
+                    PhysicalConnection pc = it.next();
+                    if (now - pc.lastUsed > idleTimeoutMillis && idle.remove(pc)) {
+                        evictedCount.incrementAndGet();
+                        closeQuietly(pc);
+                    }
+                }
+            }
+
+            // 2. Leak detection
+            if (leakThresholdMillis > 0) {
+                for (PooledHandle handle : active) {
+                    if (!handle.leakReported && now - handle.borrowedAt > leakThresholdMillis) {
+                        handle.leakReported = true;
+                        leakCount.incrementAndGet();
+                        System.err.println("ConnectionPool: possible connection leak, held for "
+                                + (now - handle.borrowedAt) + " ms.");
+                        if (handle.borrowSite != null) {
+                            handle.borrowSite.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private boolean isAlive(PhysicalConnection pc) {
+        try {
+            return pc.raw.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closeQuietly(PhysicalConnection pc) {
+        try {
+            pc.raw.close();
+        } catch (SQLException e) {
+            // Ignore, connection is being discarded anyway
+        }
+    }
+
+    /**
+     * A physical JDBC connection owned by the pool.
+     */
+    private static final class PhysicalConnection {
+        private final Connection raw;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PhysicalConnection(Connection raw) {
+            this.raw = raw;
+        }
+    }
+
+    /**
+     * One borrow of a physical connection. The proxy forwards every call to the physical
+     * connection except {@code close()}/{@code isClosed()}, and rejects calls after close.
+     * Statements are wrapped for {@link QueryMetrics} when the pool has one.
+     */
+    private final class PooledHandle implements InvocationHandler {
+        private final PhysicalConnection physical;
+        private final Exception borrowSite;
+        private final long borrowedAt = System.currentTimeMillis();
+        private final Connection proxy;
+        private volatile boolean closed;
+        private volatile boolean leakReported;
+
+        private PooledHandle(PhysicalConnection physical, Exception borrowSite) {
+            this.physical = physical;
+            this.borrowSite = borrowSite;
+            this.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical.raw + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            Object result;
+            try {
+                result = method.invoke(physical.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (queryMetrics != null && result instanceof Statement) {
+                // createStatement / prepareStatement / prepareCall
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return queryMetrics.wrap((Statement) result, method.getReturnType(), sql);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Immutable snapshot of pool metrics.
+     */
+    public static final class Stats {
+        private final int active;
+        private final int idle;
+        private final int maxSize;
+        private final int waiting;
+        private final long borrowCount;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long evictedCount;
+        private final long leakCount;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        private Stats(int active, int idle, int maxSize, int waiting, long borrowCount, long timeoutCount,
+                long createdCount, long evictedCount, long leakCount, long totalWaitNanos, long maxWaitNanos) {
+            this.active = active;
+            this.idle = idle;
+            this.maxSize = maxSize;
+            this.waiting = waiting;
+            this.borrowCount = borrowCount;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+            this.leakCount = leakCount;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount;
+        }
+
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        public long getEvictedCount() {
+            return evictedCount;
+        }
+
+        public long getLeakCount() {
+            return leakCount;
+        }
+
+        /**
+         * @return Average time callers waited for a connection, in milliseconds.
+         */
+        public double getAverageWaitMillis() {
+            return borrowCount == 0 ? 0.0 : (totalWaitNanos / (double) borrowCount) / 1_000_000.0;
+        }
+
+        /**
+         * @return Longest time a caller waited for a connection, in milliseconds.
+         */
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "PoolStats{active=%d, idle=%d, max=%d, waiting=%d, borrows=%d, timeouts=%d, created=%d, evicted=%d, leaks=%d, avgWait=%.3fms, maxWait=%.3fms}",
+                    active, idle, maxSize, waiting, borrowCount, timeoutCount, createdCount, evictedCount,
+                    leakCount, getAverageWaitMillis(), getMaxWaitMillis());
+        }
+    }
+}
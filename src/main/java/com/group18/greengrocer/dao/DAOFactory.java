@@ -0,0 +1,90 @@
+package com.group18.greengrocer.dao;
+
+/**
+ * Creates the DAOs used by the services and caches.
+ * <p>
+ * By default every DAO talks to MySQL. {@link #useInMemory()} switches the whole
+ * application to one shared {@link InMemoryDatabase}, so the service layer can be
+ * load-tested in-process without a database. The shared caches and stores check the
+ * backend in their {@code getInstance()} and are recreated after a switch; services
+ * keep the DAOs they were created with, so create them after choosing the backend.
+ * <p>
+ * Implements the Singleton pattern to ensure one backend for the whole application.
+ *
+ * @author Group18
+ * @version 1.0
+ */
+public class DAOFactory {
+
+    private static DAOFactory instance;
+
+    private final InMemoryDatabase memory; // null for MySQL
+    private final OrderDAO orderDAO;
+    private final ProductDAO productDAO;
+    private final CouponDAO couponDAO;
+    private final CartDAO cartDAO;
+
+    private DAOFactory(InMemoryDatabase memory) {
+        this.memory = memory;
+        if (memory == null) {
+            this.orderDAO = new MySqlOrderDAO();
+            this.productDAO = new MySqlProductDAO();
+            this.couponDAO = new MySqlCouponDAO();
+            this.cartDAO = new MySqlCartDAO();
+        } else {
+            this.orderDAO = new InMemoryOrderDAO(memory);
+            this.productDAO = new InMemoryProductDAO(memory);
+            this.couponDAO = new InMemoryCouponDAO(memory);
+            this.cartDAO = new InMemoryCartDAO(memory);
+        }
+    }
+
+    /**
+     * Retrieves the single instance of DAOFactory (MySQL unless {@link #useInMemory()} was called).
+     *
+     * @return The singleton instance.
+     */
+    public static synchronized DAOFactory getInstance() {
+        if (instance == null) {
+            instance = new DAOFactory(null);
+        }
+        return instance;
+    }
+
+    /**
+     * Switches all DAOs to a new, empty in-memory database.
+     * Shared caches are rebuilt on it the next time they are requested; services created
+     * before the switch keep their old DAOs.
+     *
+     * @return The in-memory database (e.g. to report its size).
+     */
+    public static synchronized InMemoryDatabase useInMemory() {
+        instance = new DAOFactory(new InMemoryDatabase());
+        return instance.memory;
+    }
+
+    /**
+     * Checks whether the DAOs work on the in-memory database.
+     *
+     * @return true for the in-memory backend, false for MySQL.
+     */
+    public boolean isInMemory() {
+        return memory != null;
+    }
+
+    public OrderDAO getOrderDAO() {
+        return orderDAO;
+    }
+
+    public ProductDAO getProductDAO() {
+        return productDAO;
+    }
+
+    public CouponDAO getCouponDAO() {
+        return couponDAO;
+    }
+
+    public CartDAO getCartDAO() {
+        return cartDAO;
+    }
+}
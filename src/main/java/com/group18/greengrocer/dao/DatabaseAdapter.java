@@ -2,17 +2,24 @@ package com.group18.greengrocer.dao;
 
 import com.group18.greengrocer.util.Constants;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
  * Database Adapter for JDBC connections.
  * Implements Singleton pattern.
+ * <p>
+ * Connections are served from a bounded {@link ConnectionPool}. Callers keep using
+ * try-with-resources; closing a connection returns it to the pool. Statement
+ * latencies are collected by {@link QueryMetrics} when
+ * {@link Constants#QUERY_METRICS_ENABLED} is set.
  */
 public class DatabaseAdapter {
 
     private static DatabaseAdapter instance;
-    private Connection connection;
+    private ConnectionPool pool;
+    private String url = Constants.DB_URL;
+    private String user = Constants.DB_USER;
+    private String password = Constants.DB_PASS;
 
     private DatabaseAdapter() {
         // Private constructor
@@ -26,26 +33,60 @@ public class DatabaseAdapter {
     }
 
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        return getPool().borrow();
+    }
+
+    /**
+     * Returns the current connection pool metrics (active, idle, wait times, timeouts).
+     *
+     * @return Pool statistics snapshot, or null if no connection has been requested yet.
+     */
+    public synchronized ConnectionPool.Stats getPoolStats() {
+        return pool != null ? pool.getStats() : null;
+    }
+
+    private synchronized ConnectionPool getPool() throws SQLException {
+        if (pool == null) {
             try {
                 // Ensure driver is loaded
                 Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(Constants.DB_URL, Constants.DB_USER, Constants.DB_PASS);
             } catch (ClassNotFoundException e) {
                 e.printStackTrace();
                 throw new SQLException("MySQL Driver not found.");
             }
+            pool = new ConnectionPool(url, user, password,
+                    Constants.DB_POOL_MAX_SIZE, Constants.DB_POOL_MIN_IDLE,
+                    Constants.DB_POOL_MAX_WAIT_MS, Constants.DB_POOL_IDLE_TIMEOUT_MS,
+                    Constants.DB_POOL_LEAK_THRESHOLD_MS,
+                    Constants.QUERY_METRICS_ENABLED ? QueryMetrics.getInstance() : null);
         }
-        return connection;
+        return pool;
     }
-    
-    public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+
+    /**
+     * Points the adapter at another database (e.g. an embedded test server) instead of
+     * {@link Constants#DB_URL}. The current pool is shut down; the next
+     * {@link #getConnection()} call connects to the new database.
+     *
+     * @param url      The JDBC URL.
+     * @param user     The database user.
+     * @param password The password.
+     */
+    public synchronized void useDatabase(String url, String user, String password) {
+        closeConnection();
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * Shuts down the connection pool and closes all idle connections.
+     * A later {@link #getConnection()} call creates a fresh pool.
+     */
+    public synchronized void closeConnection() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
         }
     }
 }
@@ -0,0 +1,48 @@
+package com.group18.greengrocer.dao;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory implementation of {@link CartDAO} on top of an {@link InMemoryDatabase}.
+ * A saved cart is replaced as a whole, so readers always see one complete version.
+ */
+public class InMemoryCartDAO implements CartDAO {
+
+    private final InMemoryDatabase db;
+
+    public InMemoryCartDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public Map<Integer, Double> findCart(int customerId) {
+        Map<Integer, Double> lines = db.carts.get(customerId);
+        return lines == null ? new LinkedHashMap<>() : new LinkedHashMap<>(lines);
+    }
+
+    @Override
+    public boolean saveCarts(Map<Integer, Map<Integer, Double>> carts) {
+        carts.forEach((customerId, lines) -> {
+            if (lines.isEmpty()) {
+                db.carts.remove(customerId);
+            } else {
+                Map<Integer, Double> copy = new LinkedHashMap<>();
+                lines.forEach((productId, quantity) -> {
+                    if (db.products.containsKey(productId)) { // FOREIGN KEY product_id
+                        copy.put(productId, quantity);
+                    }
+                });
+                db.carts.put(customerId, Collections.unmodifiableMap(copy));
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean deleteCart(int customerId) {
+        db.carts.remove(customerId);
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.model.Coupon;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory implementation of {@link CouponDAO} on top of an {@link InMemoryDatabase}.
+ * Coupon codes are unique, as with the UNIQUE key of the Coupons table.
+ */
+public class InMemoryCouponDAO implements CouponDAO {
+
+    private final InMemoryDatabase db;
+
+    public InMemoryCouponDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public boolean addCoupon(Coupon coupon) {
+        int id = db.couponIds.incrementAndGet();
+        if (db.couponCodes.putIfAbsent(coupon.getCode(), id) != null) {
+            return false; // duplicate code
+        }
+        Coupon row = InMemoryDatabase.copyOf(coupon);
+        row.setId(id);
+        db.coupons.put(id, row);
+        coupon.setId(id);
+        return true;
+    }
+
+    @Override
+    public Coupon findCouponByCode(String code) {
+        Integer id = code == null ? null : db.couponCodes.get(code);
+        return id == null ? null : findCouponById(id);
+    }
+
+    @Override
+    public Coupon findCouponById(int id) {
+        Coupon row = db.coupons.get(id);
+        return row == null ? null : InMemoryDatabase.copyOf(row);
+    }
+
+    @Override
+    public List<Coupon> findAllCoupons() {
+        List<Coupon> result = new ArrayList<>();
+        for (Coupon row : db.coupons.values()) {
+            result.add(InMemoryDatabase.copyOf(row));
+        }
+        // ORDER BY expiry_date DESC (NULLs last, as in MySQL)
+        result.sort(Comparator.comparing(Coupon::getExpiryDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .reversed());
+        return result;
+    }
+
+    @Override
+    public boolean deactivateCoupon(int id) {
+        // Rows are replaced, never changed in place, so readers never see a half-written coupon
+        return db.coupons.computeIfPresent(id, (key, row) -> {
+            Coupon changed = InMemoryDatabase.copyOf(row);
+            changed.setActive(false);
+            return changed;
+        }) != null;
+    }
+
+    @Override
+    public boolean deleteCoupon(int id) {
+        Coupon removed = db.coupons.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        db.couponCodes.remove(removed.getCode(), id);
+        return true;
+    }
+}
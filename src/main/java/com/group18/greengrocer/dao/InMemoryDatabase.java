@@ -0,0 +1,182 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Coupon;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Product;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared tables of the in-memory DAOs ({@link InMemoryProductDAO}, {@link InMemoryOrderDAO},
+ * {@link InMemoryCouponDAO}, {@link InMemoryCartDAO}).
+ * <p>
+ * Rows live in concurrent maps and are never handed out: the DAOs copy a row into a
+ * new model object on every read and copy the model into the row on every write, just
+ * like a database. Each row has its own lock, so changes to different rows run in
+ * parallel while a change to one row is atomic (the equivalent of InnoDB row locks).
+ * IDs come from per-table counters, like AUTO_INCREMENT.
+ * <p>
+ * Used for load tests of the service layer without MySQL; see {@link DAOFactory#useInMemory()}.
+ */
+public class InMemoryDatabase {
+
+    final Map<Integer, ProductRow> products = new ConcurrentHashMap<>();
+    final Map<Integer, OrderRow> orders = new ConcurrentHashMap<>();
+    final Map<Integer, Coupon> coupons = new ConcurrentHashMap<>();
+    final Map<String, Integer> couponCodes = new ConcurrentHashMap<>(); // UNIQUE (code)
+    final Map<Integer, Map<Integer, Double>> carts = new ConcurrentHashMap<>();
+
+    // Product IDs referenced by at least one order item (FOREIGN KEY OrderItems.product_id)
+    final Set<Integer> productsInOrders = ConcurrentHashMap.newKeySet();
+
+    final AtomicInteger productIds = new AtomicInteger();
+    final AtomicInteger orderIds = new AtomicInteger();
+    final AtomicInteger couponIds = new AtomicInteger();
+
+    /**
+     * Gets the number of stored products.
+     *
+     * @return The product count.
+     */
+    public int getProductCount() {
+        return products.size();
+    }
+
+    /**
+     * Gets the number of stored orders.
+     *
+     * @return The order count.
+     */
+    public int getOrderCount() {
+        return orders.size();
+    }
+
+    /**
+     * One ProductInfo row. Fields are guarded by {@link #lock}.
+     */
+    static final class ProductRow {
+        final int id;
+        final ReentrantLock lock = new ReentrantLock();
+        Product data; // private copy, never returned
+
+        ProductRow(int id, Product data) {
+            this.id = id;
+            this.data = data;
+        }
+
+        Product read() {
+            lock.lock();
+            try {
+                return copyOf(data, false);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * One OrderInfo row with its items. Fields are guarded by the row's monitor.
+     */
+    static final class OrderRow {
+        final int id;
+        Order data;       // private copy without items
+        final List<ItemRow> items;
+        byte[] invoicePdf;
+
+        OrderRow(int id, Order data, List<ItemRow> items) {
+            this.id = id;
+            this.data = data;
+            this.items = items;
+        }
+    }
+
+    /**
+     * One OrderItems row.
+     */
+    static final class ItemRow {
+        final int productId;
+        final double quantity;
+        final double priceAtPurchase;
+
+        ItemRow(int productId, double quantity, double priceAtPurchase) {
+            this.productId = productId;
+            this.quantity = quantity;
+            this.priceAtPurchase = priceAtPurchase;
+        }
+    }
+
+    /**
+     * Copies a product.
+     *
+     * @param p         The product.
+     * @param withImage Whether the image bytes are copied too (rows keep them, reads do not).
+     * @return The copy.
+     */
+    static Product copyOf(Product p, boolean withImage) {
+        Product copy = new Product();
+        copy.setId(p.getId());
+        copy.setName(p.getName());
+        copy.setCategory(p.getCategory());
+        copy.setType(p.getType());
+        copy.setPrice(p.getPrice());
+        copy.setStock(p.getStock());
+        copy.setThreshold(p.getThreshold());
+        copy.setUnit(p.getUnit());
+        copy.setImageHash(p.getImageHash());
+        if (withImage && p.getImage() != null) {
+            copy.setImage(p.getImage().clone());
+        }
+        return copy;
+    }
+
+    /**
+     * Copies the OrderInfo part of an order (no items).
+     */
+    static Order copyOf(Order o) {
+        Order copy = new Order(o.getId(), o.getCustomerId(), o.getCarrierId(), copyOf(o.getOrderTime()),
+                copyOf(o.getDeliveryTime()), o.getStatus(), o.getTotalCost(), o.getUsedCouponId(), null);
+        copy.setRequestedDeliveryDate(copyOf(o.getRequestedDeliveryDate()));
+        copy.setItems(new ArrayList<>());
+        return copy;
+    }
+
+    static Coupon copyOf(Coupon c) {
+        return new Coupon(c.getId(), c.getCode(), c.getDiscountAmount(),
+                c.getExpiryDate() == null ? null : new java.sql.Date(c.getExpiryDate().getTime()), c.isActive());
+    }
+
+    private static Timestamp copyOf(Timestamp t) {
+        return t == null ? null : new Timestamp(t.getTime());
+    }
+
+    /**
+     * Builds the items of an order as the SQL join does: the stored quantity and price
+     * with the current product data.
+     */
+    Order readOrder(OrderRow row) {
+        Order order;
+        List<ItemRow> items;
+        synchronized (row) {
+            order = copyOf(row.data);
+            items = List.copyOf(row.items);
+        }
+        for (ItemRow item : items) {
+            ProductRow product = products.get(item.productId);
+            if (product == null) {
+                continue; // JOIN drops lines of missing products
+            }
+            CartItem line = new CartItem(product.read(), item.quantity);
+            line.setPriceAtPurchase(item.priceAtPurchase);
+            order.addItem(line);
+        }
+        return order;
+    }
+}
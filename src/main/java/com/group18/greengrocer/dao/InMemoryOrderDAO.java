@@ -0,0 +1,331 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Coupon;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Page;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory implementation of {@link OrderDAO} on top of an {@link InMemoryDatabase}.
+ * <p>
+ * Follows the semantics of {@link MySqlOrderDAO}:
+ * <ul>
+ * <li>{@link #createOrder} reserves the stock of all lines all-or-nothing, locking the
+ * product rows in product-id order like the SQL batch.</li>
+ * <li>Status changes are conditional updates: each one checks the current status and
+ * changes the row atomically, so only one of two racing carriers can select an order.</li>
+ * <li>Every status change drops the stored invoice; a stored invoice is only kept if the
+ * order is still in the status it was rendered with.</li>
+ * <li>An order can contain a product only once (UNIQUE (order_id, product_id)).</li>
+ * </ul>
+ * Carrier ratings are not stored here, so orders are returned without a rating.
+ */
+public class InMemoryOrderDAO implements OrderDAO {
+
+    private static final Set<Order.Status> APPROVABLE =
+            EnumSet.of(Order.Status.WAITING, Order.Status.RECEIVED, Order.Status.AVAILABLE);
+    private static final Set<Order.Status> DELIVERED =
+            EnumSet.of(Order.Status.DELIVERED, Order.Status.COMPLETED);
+
+    // ORDER BY ordertime DESC, id DESC (NULL order times last, as in MySQL)
+    private static final Comparator<Order> NEWEST_FIRST = Comparator
+            .comparing(Order::getOrderTime, Comparator.nullsFirst(Comparator.<Timestamp>naturalOrder()))
+            .thenComparingInt(Order::getId)
+            .reversed();
+
+    private final InMemoryDatabase db;
+
+    public InMemoryOrderDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public boolean createOrder(Order order) {
+        // UNIQUE (order_id, product_id) and the product foreign key
+        Map<Integer, CartItem> lines = new TreeMap<>(); // sorted by product id -> consistent lock order
+        for (CartItem item : order.getItems()) {
+            int productId = item.getProduct().getId();
+            if (lines.put(productId, item) != null || !db.products.containsKey(productId)) {
+                return false;
+            }
+        }
+
+        // 1. Reserve stock for all lines while holding all row locks
+        List<InMemoryDatabase.ProductRow> locked = new ArrayList<>(lines.size());
+        try {
+            for (Integer productId : lines.keySet()) {
+                InMemoryDatabase.ProductRow row = db.products.get(productId);
+                if (row == null) {
+                    return false;
+                }
+                row.lock.lock();
+                locked.add(row);
+            }
+            for (InMemoryDatabase.ProductRow row : locked) {
+                CartItem item = lines.get(row.id);
+                if (row.data.getStock() < item.getQuantity()) {
+                    throw new IllegalStateException("Insufficient stock for: " + item.getProduct().getName());
+                }
+            }
+
+            // Consume the coupon (single use; only an active coupon can be consumed)
+            Integer couponId = order.getUsedCouponId();
+            if (couponId != null) {
+                boolean[] consumed = new boolean[1];
+                db.coupons.computeIfPresent(couponId, (key, coupon) -> {
+                    if (!coupon.isActive()) {
+                        return coupon;
+                    }
+                    Coupon changed = InMemoryDatabase.copyOf(coupon);
+                    changed.setActive(false);
+                    consumed[0] = true;
+                    return changed;
+                });
+                if (!consumed[0]) {
+                    throw new IllegalStateException("Coupon could not be processed (maybe already used?).");
+                }
+            }
+
+            for (InMemoryDatabase.ProductRow row : locked) {
+                row.data.setStock(row.data.getStock() - lines.get(row.id).getQuantity());
+            }
+
+            // 2. + 3. Insert OrderInfo and OrderItems
+            int id = db.orderIds.incrementAndGet();
+            List<InMemoryDatabase.ItemRow> items = new ArrayList<>(lines.size());
+            for (CartItem item : order.getItems()) {
+                items.add(new InMemoryDatabase.ItemRow(item.getProduct().getId(), item.getQuantity(),
+                        item.getPriceAtPurchase()));
+                db.productsInOrders.add(item.getProduct().getId());
+            }
+            Order data = InMemoryDatabase.copyOf(order);
+            data.setId(id);
+            db.orders.put(id, new InMemoryDatabase.OrderRow(id, data, items));
+            order.setId(id);
+            return true;
+        } finally {
+            for (InMemoryDatabase.ProductRow row : locked) {
+                row.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Order findOrderById(int id) {
+        InMemoryDatabase.OrderRow row = db.orders.get(id);
+        return row == null ? null : db.readOrder(row);
+    }
+
+    @Override
+    public List<Order> findOrdersByCustomerId(int customerId) {
+        return list(o -> o.getCustomerId() == customerId, NEWEST_FIRST);
+    }
+
+    @Override
+    public int countDeliveredOrders(int customerId) {
+        int count = 0;
+        for (InMemoryDatabase.OrderRow row : db.orders.values()) {
+            synchronized (row) {
+                if (row.data.getCustomerId() == customerId && DELIVERED.contains(row.data.getStatus())) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Order> findOrdersByCarrierId(int carrierId) {
+        return list(o -> o.getCarrierId() != null && o.getCarrierId() == carrierId, NEWEST_FIRST);
+    }
+
+    @Override
+    public List<Order> findAvailableOrders() {
+        return list(o -> o.getStatus() == Order.Status.RECEIVED, NEWEST_FIRST.reversed());
+    }
+
+    @Override
+    public List<Order> findAllOrders() {
+        return list(o -> true, NEWEST_FIRST);
+    }
+
+    @Override
+    public Page<Order> findOrdersPage(Integer carrierId, Collection<Order.Status> statuses,
+            String continuationToken, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be > 0.");
+        }
+        long[] cursor = decodeCursor(continuationToken);
+        Set<Order.Status> wanted = statuses == null || statuses.isEmpty() ? null : new HashSet<>(statuses);
+
+        List<Order> matches = list(o -> {
+            if (o.getOrderTime() == null) {
+                return false;
+            }
+            if (carrierId != null && !carrierId.equals(o.getCarrierId())) {
+                return false;
+            }
+            if (wanted != null && !wanted.contains(o.getStatus())) {
+                return false;
+            }
+            if (cursor != null) {
+                long time = o.getOrderTime().getTime();
+                return time < cursor[0] || (time == cursor[0] && o.getId() < cursor[1]);
+            }
+            return true;
+        }, NEWEST_FIRST);
+
+        boolean hasMore = matches.size() > pageSize;
+        List<Order> orders = hasMore ? new ArrayList<>(matches.subList(0, pageSize)) : matches;
+        String nextToken = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextToken = last.getOrderTime().getTime() + ":" + last.getId();
+        }
+        return new Page<>(orders, nextToken);
+    }
+
+    @Override
+    public boolean approveOrder(int orderId) {
+        return transition(orderId, APPROVABLE::contains, o -> o.setStatus(Order.Status.RECEIVED));
+    }
+
+    @Override
+    public boolean selectOrder(int orderId, int carrierId) {
+        return transition(orderId, status -> status == Order.Status.RECEIVED, o -> {
+            o.setCarrierId(carrierId);
+            o.setStatus(Order.Status.ON_THE_WAY);
+        });
+    }
+
+    @Override
+    public boolean completeOrder(int orderId, Timestamp deliveryTime) {
+        return transition(orderId, status -> status == Order.Status.ON_THE_WAY, o -> {
+            o.setStatus(Order.Status.DELIVERED);
+            o.setDeliveryTime(deliveryTime == null ? null : new Timestamp(deliveryTime.getTime()));
+        });
+    }
+
+    @Override
+    public boolean cancelOrder(int orderId) {
+        InMemoryDatabase.OrderRow row = db.orders.get(orderId);
+        if (row == null) {
+            return false;
+        }
+        synchronized (row) {
+            if (!transition(orderId, status -> !DELIVERED.contains(status) && status != Order.Status.CANCELLED,
+                    o -> o.setStatus(Order.Status.CANCELLED))) {
+                return false;
+            }
+            // Return the stock while the order row is still held, like the SQL transaction
+            List<InMemoryDatabase.ItemRow> items = new ArrayList<>(row.items);
+            items.sort(Comparator.comparingInt(item -> item.productId));
+            for (InMemoryDatabase.ItemRow item : items) {
+                InMemoryDatabase.ProductRow product = db.products.get(item.productId);
+                if (product == null) {
+                    continue;
+                }
+                product.lock.lock();
+                try {
+                    product.data.setStock(product.data.getStock() + item.quantity);
+                } finally {
+                    product.lock.unlock();
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean updateInvoicePdf(int orderId, byte[] pdf, Order.Status renderedStatus) {
+        InMemoryDatabase.OrderRow row = db.orders.get(orderId);
+        if (row == null) {
+            return false;
+        }
+        synchronized (row) {
+            if (row.data.getStatus() != renderedStatus) {
+                return false;
+            }
+            row.invoicePdf = pdf == null ? null : pdf.clone();
+            return true;
+        }
+    }
+
+    @Override
+    public byte[] findInvoicePdf(int orderId) {
+        InMemoryDatabase.OrderRow row = db.orders.get(orderId);
+        if (row == null) {
+            return null;
+        }
+        synchronized (row) {
+            return row.invoicePdf == null ? null : row.invoicePdf.clone();
+        }
+    }
+
+    @Override
+    public boolean dismissOrder(int orderId) {
+        return transition(orderId, status -> status == Order.Status.DELIVERED,
+                o -> o.setStatus(Order.Status.COMPLETED));
+    }
+
+    /**
+     * Conditional update of one order: {@code UPDATE ... SET invoice_pdf = NULL, ... WHERE id = ? AND <status check>}.
+     */
+    private boolean transition(int orderId, Predicate<Order.Status> allowed, Consumer<Order> change) {
+        InMemoryDatabase.OrderRow row = db.orders.get(orderId);
+        if (row == null) {
+            return false;
+        }
+        synchronized (row) {
+            if (!allowed.test(row.data.getStatus())) {
+                return false;
+            }
+            Order updated = InMemoryDatabase.copyOf(row.data);
+            change.accept(updated);
+            row.data = updated;
+            row.invoicePdf = null;
+            return true;
+        }
+    }
+
+    private List<Order> list(Predicate<Order> filter, Comparator<Order> order) {
+        List<Order> result = new ArrayList<>();
+        for (InMemoryDatabase.OrderRow row : db.orders.values()) {
+            Order header;
+            synchronized (row) {
+                header = row.data;
+            }
+            // Headers are replaced, never changed in place, so they can be tested unlocked
+            if (filter.test(header)) {
+                result.add(db.readOrder(row));
+            }
+        }
+        result.sort(order);
+        return result;
+    }
+
+    private static long[] decodeCursor(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        int sep = token.indexOf(':');
+        try {
+            return new long[] { Long.parseLong(token.substring(0, sep)), Integer.parseInt(token.substring(sep + 1)) };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Product;
+import com.group18.greengrocer.util.HashUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * In-memory implementation of {@link ProductDAO} on top of an {@link InMemoryDatabase}.
+ * Follows the semantics of {@link MySqlProductDAO}: soft-deleted products are hidden
+ * from lists, stock changes are conditional and atomic, and products in use by an
+ * order cannot be deleted.
+ */
+public class InMemoryProductDAO implements ProductDAO {
+
+    private static final String DELETED_PREFIX = "DELETED-";
+
+    private final InMemoryDatabase db;
+
+    public InMemoryProductDAO(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return list(p -> true);
+    }
+
+    @Override
+    public List<Product> findAvailableProducts() {
+        return list(p -> p.getStock() > 0);
+    }
+
+    @Override
+    public List<Product> searchByName(String keyword) {
+        // LIKE '%keyword%' with the case-insensitive collation of the schema
+        String needle = keyword == null ? "" : keyword.toLowerCase(Locale.ROOT);
+        return list(p -> p.getName() != null && p.getName().toLowerCase(Locale.ROOT).contains(needle));
+    }
+
+    @Override
+    public List<Product> findByCategory(Category category) {
+        return list(p -> p.getCategory() == category);
+    }
+
+    @Override
+    public Product findById(int id) {
+        InMemoryDatabase.ProductRow row = db.products.get(id);
+        return row == null ? null : row.read();
+    }
+
+    @Override
+    public Map<Integer, Product> findByIds(Collection<Integer> ids) {
+        Map<Integer, Product> result = new HashMap<>();
+        if (ids == null) {
+            return result;
+        }
+        for (Integer id : ids) {
+            Product p = findById(id);
+            if (p != null) {
+                result.put(id, p);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean insert(Product product) {
+        int id = db.productIds.incrementAndGet();
+        String imageHash = HashUtil.sha256Hex(product.getImage());
+        Product data = InMemoryDatabase.copyOf(product, true);
+        data.setId(id);
+        data.setImageHash(imageHash);
+        db.products.put(id, new InMemoryDatabase.ProductRow(id, data));
+        product.setId(id);
+        product.setImageHash(imageHash);
+        return true;
+    }
+
+    @Override
+    public boolean update(Product product) {
+        InMemoryDatabase.ProductRow row = db.products.get(product.getId());
+        if (row == null) {
+            return false;
+        }
+        String imageHash = HashUtil.sha256Hex(product.getImage());
+        row.lock.lock();
+        try {
+            Product data = InMemoryDatabase.copyOf(product, true);
+            if (product.getImage() == null) {
+                // COALESCE(?, imagelocation): keep the stored image
+                data.setImage(row.data.getImage());
+                data.setImageHash(row.data.getImageHash());
+            } else {
+                data.setImageHash(imageHash);
+            }
+            row.data = data;
+        } finally {
+            row.lock.unlock();
+        }
+        if (imageHash != null) {
+            product.setImageHash(imageHash);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean adjustStock(int id, double delta) {
+        InMemoryDatabase.ProductRow row = db.products.get(id);
+        if (row == null) {
+            return false;
+        }
+        row.lock.lock();
+        try {
+            double stock = row.data.getStock() + delta;
+            if (stock < 0) {
+                return false;
+            }
+            row.data.setStock(stock);
+            return true;
+        } finally {
+            row.lock.unlock();
+        }
+    }
+
+    @Override
+    public byte[] findImageById(int id) {
+        InMemoryDatabase.ProductRow row = db.products.get(id);
+        if (row == null) {
+            return null;
+        }
+        row.lock.lock();
+        try {
+            byte[] image = row.data.getImage();
+            return image == null ? null : image.clone();
+        } finally {
+            row.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean softDelete(int id) {
+        InMemoryDatabase.ProductRow row = db.products.get(id);
+        if (row == null) {
+            return false;
+        }
+        row.lock.lock();
+        try {
+            row.data.setName(DELETED_PREFIX + id + "-" + row.data.getName());
+            row.data.setStock(0);
+            return true;
+        } finally {
+            row.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        if (isProductInUse(id)) {
+            return false; // foreign key from OrderItems
+        }
+        // ON DELETE CASCADE of saved cart lines
+        db.carts.replaceAll((customerId, lines) -> {
+            if (!lines.containsKey(id)) {
+                return lines;
+            }
+            Map<Integer, Double> remaining = new LinkedHashMap<>(lines);
+            remaining.remove(id);
+            return remaining;
+        });
+        return db.products.remove(id) != null;
+    }
+
+    @Override
+    public boolean isProductInUse(int productId) {
+        return db.productsInOrders.contains(productId);
+    }
+
+    private List<Product> list(Predicate<Product> filter) {
+        List<Product> result = new ArrayList<>();
+        for (InMemoryDatabase.ProductRow row : db.products.values()) {
+            Product p = row.read();
+            if (p.getName() != null && p.getName().startsWith(DELETED_PREFIX)) {
+                continue;
+            }
+            if (filter.test(p)) {
+                result.add(p);
+            }
+        }
+        result.sort(Comparator.comparing(Product::getName, String.CASE_INSENSITIVE_ORDER));
+        return result;
+    }
+}
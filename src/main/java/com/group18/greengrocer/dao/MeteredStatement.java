@@ -0,0 +1,186 @@
+package com.group18.greengrocer.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Blob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Proxy around a JDBC statement that reports every execution to {@link QueryMetrics}.
+ * <p>
+ * {@code execute*} calls are timed. Update counts are recorded right away; for queries
+ * the returned result set is wrapped as well and counts the rows and the approximate
+ * bytes read, and the execution is recorded when the result set (or the statement)
+ * is closed. All other calls are forwarded unchanged.
+ */
+final class MeteredStatement implements InvocationHandler {
+
+    private final Statement target;
+    private final StatementStats stats;
+    private final String sql;
+    private final QueryMetrics metrics;
+    private MeteredResultSet openResult;
+
+    private MeteredStatement(Statement target, StatementStats stats, String sql, QueryMetrics metrics) {
+        this.target = target;
+        this.stats = stats;
+        this.sql = sql;
+        this.metrics = metrics;
+    }
+
+    static Statement wrap(Statement target, Class<?> type, StatementStats stats, String sql, QueryMetrics metrics) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { type },
+                new MeteredStatement(target, stats, sql, metrics));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "close":
+                finishOpenResult();
+                break;
+            default:
+                if (name.startsWith("execute")) {
+                    return execute(method, args);
+                }
+                break;
+        }
+        return forward(target, method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        // Plain statements pass their SQL to execute*(String, ...)
+        String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+        finishOpenResult();
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            metrics.record(stats, executed, System.nanoTime() - start, 0, 0, String.valueOf(e.getCause().getMessage()));
+            throw e.getCause();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (result instanceof ResultSet) {
+            openResult = new MeteredResultSet((ResultSet) result, executed, elapsed);
+            return openResult.proxy;
+        }
+        metrics.record(stats, executed, elapsed, changedRows(result), 0, null);
+        return result;
+    }
+
+    private void finishOpenResult() {
+        if (openResult != null) {
+            openResult.finish();
+            openResult = null;
+        }
+    }
+
+    // executeUpdate -> int/long, executeBatch -> int[]/long[], execute -> boolean (no count)
+    private static long changedRows(Object result) {
+        long rows = 0;
+        if (result instanceof Number) {
+            rows = ((Number) result).longValue();
+        } else if (result instanceof int[]) {
+            for (int n : (int[]) result) {
+                rows += Math.max(0, n);
+            }
+        } else if (result instanceof long[]) {
+            for (long n : (long[]) result) {
+                rows += Math.max(0, n);
+            }
+        }
+        return Math.max(0, rows);
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Result set of one query; counts rows and value sizes until it is closed.
+     */
+    private final class MeteredResultSet implements InvocationHandler {
+        private final ResultSet target;
+        private final String executed;
+        private final long elapsedNanos;
+        private final ResultSet proxy;
+        private long rows;
+        private long bytes;
+        private boolean finished;
+
+        private MeteredResultSet(ResultSet target, String executed, long elapsedNanos) {
+            this.target = target;
+            this.executed = executed;
+            this.elapsedNanos = elapsedNanos;
+            this.proxy = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    finish();
+                    break;
+                default:
+                    break;
+            }
+            Object result = forward(target, method, args);
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if (args != null && name.startsWith("get") && !name.equals("getStatement")) {
+                // Column getters take the column index or label
+                bytes += sizeOf(result);
+            }
+            return result;
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                metrics.record(stats, executed, elapsedNanos, rows, bytes, null);
+            }
+        }
+    }
+
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        if (value instanceof Blob) {
+            try {
+                return ((Blob) value).length();
+            } catch (SQLException e) {
+                return 0;
+            }
+        }
+        return 8; // numbers, booleans, dates and timestamps
+    }
+}
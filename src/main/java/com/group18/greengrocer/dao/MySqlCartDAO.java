@@ -0,0 +1,121 @@
+package com.group18.greengrocer.dao;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data Access Object (DAO) for saved shopping carts.
+ * Handles database operations for the Carts table (one row per customer and product).
+ * MySQL implementation of {@link CartDAO}.
+ * <p>
+ * Carts are written in the background by {@link com.group18.greengrocer.service.CartStore}
+ * so they survive a restart; a click in the UI never waits for this table.
+ */
+public class MySqlCartDAO implements CartDAO {
+
+    private DatabaseAdapter dbAdapter;
+
+    public MySqlCartDAO() {
+        this.dbAdapter = DatabaseAdapter.getInstance();
+    }
+
+    /**
+     * Reads the saved cart of a customer.
+     *
+     * @param customerId The customer ID.
+     * @return Quantity per product ID, in the order the lines were saved (empty if none or on error).
+     */
+    @Override
+    public Map<Integer, Double> findCart(int customerId) {
+        Map<Integer, Double> lines = new LinkedHashMap<>();
+        String sql = "SELECT product_id, quantity FROM Carts WHERE customer_id = ? ORDER BY line_no";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, customerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lines.put(rs.getInt("product_id"), rs.getDouble("quantity"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return lines;
+    }
+
+    /**
+     * Replaces the saved carts of several customers in one transaction.
+     * An empty line map deletes the customer's saved cart.
+     *
+     * @param carts Quantity per product ID, per customer ID.
+     * @return true if all carts were saved.
+     */
+    @Override
+    public boolean saveCarts(Map<Integer, Map<Integer, Double>> carts) {
+        if (carts.isEmpty()) {
+            return true;
+        }
+        String deleteSql = "DELETE FROM Carts WHERE customer_id = ?";
+        String insertSql = "INSERT INTO Carts (customer_id, product_id, quantity, line_no) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = dbAdapter.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql);
+                 PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
+
+                for (Map.Entry<Integer, Map<Integer, Double>> cart : carts.entrySet()) {
+                    deleteStmt.setInt(1, cart.getKey());
+                    deleteStmt.addBatch();
+
+                    int lineNo = 0;
+                    for (Map.Entry<Integer, Double> line : cart.getValue().entrySet()) {
+                        insertStmt.setInt(1, cart.getKey());
+                        insertStmt.setInt(2, line.getKey());
+                        insertStmt.setBigDecimal(3, BigDecimal.valueOf(line.getValue()));
+                        insertStmt.setInt(4, lineNo++);
+                        insertStmt.addBatch();
+                    }
+                }
+                deleteStmt.executeBatch();
+                insertStmt.executeBatch();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Deletes the saved cart of a customer (e.g. after checkout).
+     *
+     * @param customerId The customer ID.
+     * @return true if the statement succeeded.
+     */
+    @Override
+    public boolean deleteCart(int customerId) {
+        String sql = "DELETE FROM Carts WHERE customer_id = ?";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, customerId);
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+}
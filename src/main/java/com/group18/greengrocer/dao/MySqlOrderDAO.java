@@ -0,0 +1,896 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Page;
+import com.group18.greengrocer.model.Product;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object (DAO) for managing Order entities.
+ * Handles database operations for OrderInfo and OrderItems tables.
+ * MySQL implementation of {@link OrderDAO}.
+ */
+public class MySqlOrderDAO implements OrderDAO {
+
+    /**
+     * Maximum number of order ids bound into a single {@code IN (...)} item query.
+     */
+    private static final int ITEM_BATCH_SIZE = 500;
+
+    /**
+     * OrderInfo columns needed to build an {@link Order}. The invoice columns are
+     * left out on purpose: invoices are only read on download
+     * (see {@link #findInvoicePdf(int)}).
+     */
+    private static final String ORDER_COLUMNS = "id, customer_id, carrier_id, ordertime, deliverytime, "
+            + "requested_delivery_date, status, totalcost, used_coupon_id";
+
+    private DatabaseAdapter dbAdapter;
+
+    public MySqlOrderDAO() {
+        this.dbAdapter = DatabaseAdapter.getInstance();
+    }
+
+    /**
+     * Creates a new order in the database.
+     * This method uses a transaction to ensure stock reservation, OrderInfo and
+     * OrderItems are saved atomically.
+     * <p>
+     * Stock is reserved with a conditional decrement
+     * ({@code stock = stock - ? WHERE id = ? AND stock >= ?}) for every line in one
+     * batch, so two concurrent checkouts can never oversell a product.
+     *
+     * @param order The order to create.
+     * @return true if the order was successfully created, false otherwise.
+     * @throws IllegalStateException if a product does not have enough stock left
+     *                               (nothing is written in that case).
+     */
+    // ASSIGNED TO: Customer (Places Order)
+    @Override
+    public boolean createOrder(Order order) {
+        String insertOrderSql = "INSERT INTO OrderInfo (customer_id, carrier_id, ordertime, deliverytime, requested_delivery_date, status, totalcost, used_coupon_id) "
+                +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        String insertItemSql = "INSERT INTO OrderItems (order_id, product_id, quantity, price_at_purchase) VALUES (?, ?, ?, ?)";
+        String reserveStockSql = "UPDATE ProductInfo SET stock = stock - ? WHERE id = ? AND stock >= ?";
+        // Conditional, so a coupon used by a concurrent checkout is not accepted twice
+        String useCouponSql = "UPDATE Coupons SET is_active = FALSE WHERE id = ? AND is_active = TRUE";
+
+        Connection conn = null;
+        PreparedStatement orderStmt = null;
+        PreparedStatement itemStmt = null;
+        PreparedStatement stockStmt = null;
+        PreparedStatement couponStmt = null;
+
+        try {
+            conn = dbAdapter.getConnection();
+            // Start transaction
+            conn.setAutoCommit(false);
+
+            // 1. Reserve stock for all lines (sorted by product id -> consistent row lock order)
+            List<CartItem> lines = new ArrayList<>(order.getItems());
+            lines.sort(Comparator.comparingInt(item -> item.getProduct().getId()));
+
+            stockStmt = conn.prepareStatement(reserveStockSql);
+            for (CartItem item : lines) {
+                BigDecimal quantity = BigDecimal.valueOf(item.getQuantity());
+                stockStmt.setBigDecimal(1, quantity);
+                stockStmt.setInt(2, item.getProduct().getId());
+                stockStmt.setBigDecimal(3, quantity);
+                stockStmt.addBatch();
+            }
+            int[] reserved = stockStmt.executeBatch();
+            for (int i = 0; i < reserved.length; i++) {
+                if (reserved[i] == 0) {
+                    conn.rollback();
+                    throw new IllegalStateException("Insufficient stock for: " + lines.get(i).getProduct().getName());
+                }
+            }
+
+            // 2. Consume the coupon (single use)
+            if (order.getUsedCouponId() != null) {
+                couponStmt = conn.prepareStatement(useCouponSql);
+                couponStmt.setInt(1, order.getUsedCouponId());
+                if (couponStmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    throw new IllegalStateException("Coupon could not be processed (maybe already used?).");
+                }
+            }
+
+            // 3. Insert OrderInfo
+            orderStmt = conn.prepareStatement(insertOrderSql, Statement.RETURN_GENERATED_KEYS);
+            orderStmt.setInt(1, order.getCustomerId());
+
+            if (order.getCarrierId() != null) {
+                orderStmt.setInt(2, order.getCarrierId());
+            } else {
+                orderStmt.setNull(2, Types.INTEGER);
+            }
+
+            orderStmt.setTimestamp(3, order.getOrderTime());
+            orderStmt.setTimestamp(4, order.getDeliveryTime());
+            orderStmt.setTimestamp(5, order.getRequestedDeliveryDate());
+            orderStmt.setString(6, order.getStatus().name());
+            orderStmt.setDouble(7, order.getTotalCost());
+
+            if (order.getUsedCouponId() != null) {
+                orderStmt.setInt(8, order.getUsedCouponId());
+            } else {
+                orderStmt.setNull(8, Types.INTEGER);
+            }
+
+            int affectedRows = orderStmt.executeUpdate();
+            if (affectedRows == 0) {
+                conn.rollback();
+                return false;
+            }
+
+            // Retrieve generated ID
+            try (ResultSet generatedKeys = orderStmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    order.setId(generatedKeys.getInt(1));
+                } else {
+                    conn.rollback();
+                    return false;
+                }
+            }
+
+            // 4. Insert OrderItems
+            itemStmt = conn.prepareStatement(insertItemSql);
+            for (CartItem item : order.getItems()) {
+                itemStmt.setInt(1, order.getId());
+                itemStmt.setInt(2, item.getProduct().getId());
+                itemStmt.setDouble(3, item.getQuantity());
+                itemStmt.setDouble(4, item.getPriceAtPurchase());
+                itemStmt.addBatch();
+            }
+            itemStmt.executeBatch();
+
+            // Commit transaction
+            conn.commit();
+            return true;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            return false;
+        } finally {
+            if (orderStmt != null)
+                try {
+                    orderStmt.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            if (itemStmt != null)
+                try {
+                    itemStmt.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            if (stockStmt != null)
+                try {
+                    stockStmt.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            if (couponStmt != null)
+                try {
+                    couponStmt.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            if (conn != null)
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+        }
+    }
+
+    /**
+     * Finds an order by its ID, including all its items.
+     *
+     * @param id The ID of the order.
+     * @return The Order object if found, otherwise null.
+     */
+    // ASSIGNED TO: Shared (Used by all roles)
+    @Override
+    public Order findOrderById(int id) {
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo WHERE id = ?";
+        Order order = null;
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    order = mapOrder(rs);
+                }
+            }
+            if (order != null) {
+                // Load items for this order
+                loadOrderItems(List.of(order), conn);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return order;
+    }
+
+    /**
+     * Retrieves all orders for a specific customer.
+     *
+     * @param customerId The ID of the customer.
+     * @return A list of orders belonging to the customer.
+     */
+    // ASSIGNED TO: Customer (Order History)
+    @Override
+    public List<Order> findOrdersByCustomerId(int customerId) {
+        List<Order> orders = new ArrayList<>();
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo WHERE customer_id = ? ORDER BY ordertime DESC";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, customerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapOrder(rs));
+                }
+            }
+            loadOrderItems(orders, conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return orders;
+    }
+
+    /**
+     * Counts the delivered orders (status DELIVERED or COMPLETED) of a customer.
+     * Used for the loyalty tier; no order rows are loaded.
+     *
+     * @param customerId The ID of the customer.
+     * @return The number of delivered orders, or -1 if the count could not be read.
+     */
+    // ASSIGNED TO: Customer (Loyalty)
+    @Override
+    public int countDeliveredOrders(int customerId) {
+        String sql = "SELECT COUNT(*) FROM OrderInfo WHERE customer_id = ? AND status IN ('DELIVERED', 'COMPLETED')";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, customerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves all orders selected by or completed by a specific carrier.
+     *
+     * @param carrierId The ID of the carrier.
+     * @return A list of orders associated with the carrier.
+     */
+    // ASSIGNED TO: Carrier (Work History)
+    // ASSIGNED TO: Carrier (Work History)
+    @Override
+    public List<Order> findOrdersByCarrierId(int carrierId) {
+        List<Order> orders = new ArrayList<>();
+        // JOIN to get rating info
+        String sql = "SELECT O.id, O.customer_id, O.carrier_id, O.ordertime, O.deliverytime, " +
+                "O.requested_delivery_date, O.status, O.totalcost, O.used_coupon_id, CR.rating, CR.comment " +
+                "FROM OrderInfo O " +
+                "LEFT JOIN CarrierRatings CR ON O.id = CR.order_id " +
+                "WHERE O.carrier_id = ? ORDER BY O.ordertime DESC";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, carrierId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Order order = mapOrder(rs);
+
+                    // Manually populate rating fields from the joined columns
+                    int r = rs.getInt("rating");
+                    if (!rs.wasNull()) {
+                        order.setRating(r);
+                        order.setReview(rs.getString("comment"));
+                    }
+
+                    orders.add(order);
+                }
+            }
+            loadOrderItems(orders, conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return orders;
+    }
+
+    /**
+     * Retrieves all available orders (Status = AVAILABLE).
+     * These are orders waiting to be picked up by a carrier.
+     *
+     * @return A list of available orders.
+     */
+    // ASSIGNED TO: Carrier (Job Board)
+    @Override
+    public List<Order> findAvailableOrders() {
+        List<Order> orders = new ArrayList<>();
+        // Carriers see orders that are RECEIVED (Approved by Owner)
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo WHERE status = 'RECEIVED' ORDER BY ordertime ASC";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapOrder(rs));
+                }
+            }
+            loadOrderItems(orders, conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return orders;
+    }
+
+    /**
+     * Retrieves all orders in the database (for Owner).
+     * 
+     * @return A list of all orders.
+     */
+    // ASSIGNED TO: Owner (Admin View)
+    @Override
+    public List<Order> findAllOrders() {
+        List<Order> orders = new ArrayList<>();
+        String sql = "SELECT " + ORDER_COLUMNS + " FROM OrderInfo ORDER BY ordertime DESC";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapOrder(rs));
+                }
+            }
+            loadOrderItems(orders, conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return orders;
+    }
+
+    /**
+     * Retrieves one page of orders, newest first, using keyset pagination on
+     * {@code (ordertime, id)}.
+     * <p>
+     * Unlike OFFSET paging, each page is an index range scan that starts right after
+     * the last row of the previous page (indexes {@code (ordertime, id)},
+     * {@code (status, ordertime)} and {@code (carrier_id, ordertime)}; InnoDB appends
+     * the primary key to the last two), so the cost of a page does not grow with the
+     * size of the order history. An {@code IN} list over several statuses cannot be
+     * read from {@code (status, ordertime)} in time order, so each status is paged on
+     * its own range and the results are merged ({@code UNION ALL}); only
+     * {@code pageSize + 1} rows per status are sorted. Orders with a NULL or legacy
+     * status ({@link #WAITING_ALIASES}) are listed as WAITING, like
+     * {@link #mapOrder(ResultSet)} reads them. Orders without an order time are not
+     * returned.
+     *
+     * @param carrierId         Only orders of this carrier (with their carrier rating), or null for all carriers.
+     * @param statuses          Only orders in one of these statuses, or null/empty for all statuses.
+     * @param continuationToken The token of the previous page, or null for the first page.
+     * @param pageSize          Maximum number of orders in the page.
+     * @return The page of orders (including their items).
+     * @throws IllegalArgumentException if the continuation token is malformed.
+     */
+    // ASSIGNED TO: Owner / Carrier (Order tables)
+    @Override
+    public Page<Order> findOrdersPage(Integer carrierId, Collection<Order.Status> statuses,
+            String continuationToken, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be > 0.");
+        }
+
+        StringBuilder range = new StringBuilder("SELECT O.id, O.customer_id, O.carrier_id, O.ordertime, O.deliverytime, ")
+                .append("O.requested_delivery_date, O.status, O.totalcost, O.used_coupon_id");
+        if (carrierId != null) {
+            range.append(", CR.rating, CR.comment FROM OrderInfo O LEFT JOIN CarrierRatings CR ON O.id = CR.order_id");
+        } else {
+            range.append(" FROM OrderInfo O");
+        }
+        range.append(" WHERE O.ordertime IS NOT NULL");
+
+        if (carrierId != null) {
+            range.append(" AND O.carrier_id = ?");
+        }
+        // One range per stored status (null = NULL), merged
+        List<String> statusList = new ArrayList<>();
+        if (statuses != null) {
+            for (Order.Status status : statuses) {
+                statusList.add(status.name());
+            }
+            if (statuses.contains(Order.Status.WAITING)) {
+                statusList.add(null);
+                statusList.addAll(WAITING_ALIASES);
+            }
+        }
+        long[] cursor = decodeCursor(continuationToken);
+        String cursorSql = cursor != null ? " AND (O.ordertime < ? OR (O.ordertime = ? AND O.id < ?))" : "";
+        // Fetch one extra row to know whether another page exists
+        String orderSql = " ORDER BY O.ordertime DESC, O.id DESC LIMIT ?";
+
+        String sql;
+        if (statusList.isEmpty()) {
+            sql = range + cursorSql + orderSql;
+        } else {
+            List<String> ranges = new ArrayList<>();
+            for (String status : statusList) {
+                ranges.add(range + (status != null ? " AND O.status = ?" : " AND O.status IS NULL") + cursorSql + orderSql);
+            }
+            sql = ranges.size() == 1 ? ranges.get(0)
+                    : "(" + String.join(") UNION ALL (", ranges) + ") ORDER BY ordertime DESC, id DESC LIMIT ?";
+        }
+
+        List<Order> orders = new ArrayList<>();
+        boolean hasMore = false;
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int idx = 1;
+            int ranges = Math.max(1, statusList.size());
+            for (int r = 0; r < ranges; r++) {
+                if (carrierId != null) {
+                    stmt.setInt(idx++, carrierId);
+                }
+                if (!statusList.isEmpty() && statusList.get(r) != null) {
+                    stmt.setString(idx++, statusList.get(r));
+                }
+                if (cursor != null) {
+                    Timestamp time = new Timestamp(cursor[0]);
+                    stmt.setTimestamp(idx++, time);
+                    stmt.setTimestamp(idx++, time);
+                    stmt.setInt(idx++, (int) cursor[1]);
+                }
+                stmt.setInt(idx++, pageSize + 1);
+            }
+            if (ranges > 1) {
+                stmt.setInt(idx, pageSize + 1);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (orders.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    Order order = mapOrder(rs);
+                    if (carrierId != null) {
+                        int r = rs.getInt("rating");
+                        if (!rs.wasNull()) {
+                            order.setRating(r);
+                            order.setReview(rs.getString("comment"));
+                        }
+                    }
+                    orders.add(order);
+                }
+            }
+            loadOrderItems(orders, conn);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        String nextToken = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextToken = last.getOrderTime().getTime() + ":" + last.getId();
+        }
+        return new Page<>(orders, nextToken);
+    }
+
+    /**
+     * Values of the OrderInfo status column without an {@link Order.Status} constant;
+     * {@link #mapOrder(ResultSet)} reads them as WAITING.
+     */
+    private static final List<String> WAITING_ALIASES = List.of("PREPARING");
+
+    /**
+     * Parses a continuation token of {@link #findOrdersPage} into {ordertime millis, id}.
+     */
+    private static long[] decodeCursor(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        int sep = token.indexOf(':');
+        try {
+            return new long[] { Long.parseLong(token.substring(0, sep)), Integer.parseInt(token.substring(sep + 1)) };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token: " + token);
+        }
+    }
+
+    /**
+     * Approves a RECEIVED order, changing status to PREPARING.
+     * 
+     * @param orderId The ID of the order to approve.
+     * @return true if successful.
+     */
+    // ASSIGNED TO: Owner
+    @Override
+    public boolean approveOrder(int orderId) {
+        // Allow approving 'WAITING' (new) or legacy orders
+        String sql = "UPDATE OrderInfo SET invoice_pdf = NULL, status = 'RECEIVED' WHERE id = ? AND (status = 'WAITING' OR status = 'RECEIVED' OR status = 'AVAILABLE')";
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, orderId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Selects an order for a carrier.
+     * Sets status to SELECTED and assigns the carrier ID.
+     * Checks concurrency to ensure order is still AVAILABLE.
+     *
+     * @param orderId   The ID of the order to select.
+     * @param carrierId The ID of the carrier selecting the order.
+     * @return true if successful, false if order is no longer available.
+     */
+    // ASSIGNED TO: Carrier
+    @Override
+    public boolean selectOrder(int orderId, int carrierId) {
+        String sql = "UPDATE OrderInfo SET invoice_pdf = NULL, carrier_id = ?, status = 'ON_THE_WAY' WHERE id = ? AND status = 'RECEIVED'";
+
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, carrierId);
+            stmt.setInt(2, orderId);
+
+            int rowsAffected = stmt.executeUpdate();
+            return rowsAffected > 0;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Completes an order (Delivered).
+     * Sets status to DELIVERED, updates delivery time and adds the order to the
+     * daily sales rollup in the same transaction.
+     *
+     * @param orderId      The ID of the order to complete.
+     * @param deliveryTime The time when the order was delivered (entered by
+     *                     carrier).
+     * @return true if successful.
+     */
+    // ASSIGNED TO: Carrier
+    @Override
+    public boolean completeOrder(int orderId, Timestamp deliveryTime) {
+        String sql = "UPDATE OrderInfo SET invoice_pdf = NULL, status = 'DELIVERED', deliverytime = ? WHERE id = ? AND status = 'ON_THE_WAY'";
+
+        try (Connection conn = dbAdapter.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setTimestamp(1, deliveryTime);
+                stmt.setInt(2, orderId);
+
+                if (stmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                // Only the carrier that wins the status change counts the sale
+                ReportDAO.getInstance().addDeliveredOrder(conn, orderId);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Cancels an order and returns its reserved stock, in one transaction.
+     * Can only cancel if the order is not yet COMPLETED (or already CANCELLED, so
+     * two racing cancels cannot both restore the stock).
+     * 
+     * @param orderId The ID of the order to cancel.
+     * @return true if the cancellation was successful.
+     */
+    // ASSIGNED TO: Customer
+    @Override
+    public boolean cancelOrder(int orderId) {
+        // Prevent cancelling DELIVERED (new), COMPLETED (legacy) or already CANCELLED orders;
+        // delivered orders are already counted in the sales rollup
+        String sql = "UPDATE OrderInfo SET invoice_pdf = NULL, status = 'CANCELLED' WHERE id = ? AND status NOT IN ('DELIVERED', 'COMPLETED', 'CANCELLED')";
+        String itemsSql = "SELECT product_id, quantity FROM OrderItems WHERE order_id = ? ORDER BY product_id";
+        String restoreStockSql = "UPDATE ProductInfo SET stock = stock + ? WHERE id = ?";
+
+        try (Connection conn = dbAdapter.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                    PreparedStatement items = conn.prepareStatement(itemsSql);
+                    PreparedStatement restore = conn.prepareStatement(restoreStockSql)) {
+
+                stmt.setInt(1, orderId);
+                if (stmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+
+                // Product rows in id order, the same lock order as createOrder
+                items.setInt(1, orderId);
+                try (ResultSet rs = items.executeQuery()) {
+                    while (rs.next()) {
+                        restore.setBigDecimal(1, rs.getBigDecimal("quantity"));
+                        restore.setInt(2, rs.getInt("product_id"));
+                        restore.addBatch();
+                    }
+                }
+                restore.executeBatch();
+
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Stores the rendered PDF invoice of an order.
+     * <p>
+     * The invoice shows the order status, so it is only stored while the order is
+     * still in the status it was rendered with; a render that lost a race against a
+     * status change is discarded (the newer render will store its copy).
+     *
+     * @param orderId        The ID of the order.
+     * @param pdf            The PDF document bytes.
+     * @param renderedStatus The order status printed on the invoice.
+     * @return true if successful.
+     */
+    // ASSIGNED TO: Shared (Invoice worker)
+    @Override
+    public boolean updateInvoicePdf(int orderId, byte[] pdf, Order.Status renderedStatus) {
+        String sql = "UPDATE OrderInfo SET invoice_pdf = ? WHERE id = ? AND status = ?";
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setBytes(1, pdf);
+            stmt.setInt(2, orderId);
+            stmt.setString(3, renderedStatus.name());
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Reads the stored PDF invoice of an order.
+     * <p>
+     * Orders placed before invoices were stored as binary only have the old
+     * Base64 text in the {@code invoice} column; that copy is decoded and returned
+     * until a binary copy has been rendered. Status changes only clear
+     * {@code invoice_pdf}, so the legacy copy is never lost.
+     *
+     * @param orderId The ID of the order.
+     * @return The PDF document bytes, or null if no invoice has been stored yet.
+     */
+    // ASSIGNED TO: Customer (Download Invoice)
+    @Override
+    public byte[] findInvoicePdf(int orderId) {
+        String sql = "SELECT invoice_pdf, invoice FROM OrderInfo WHERE id = ?";
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, orderId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    byte[] pdf = rs.getBytes("invoice_pdf");
+                    if (pdf != null && pdf.length > 0) {
+                        return pdf;
+                    }
+                    String legacy = rs.getString("invoice");
+                    if (legacy != null && !legacy.isBlank()) {
+                        try {
+                            return Base64.getDecoder().decode(legacy.trim());
+                        } catch (IllegalArgumentException e) {
+                            System.err.println("OrderDAO: Legacy invoice of order " + orderId + " is not valid Base64.");
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Dismisses an order from the tracking view by setting its status to COMPLETED
+     * (Legacy/Archived). Only DELIVERED orders can be dismissed, so the number of
+     * delivered orders (loyalty) does not change.
+     * 
+     * @param orderId The ID of the order.
+     * @return true if successful.
+     */
+    @Override
+    public boolean dismissOrder(int orderId) {
+        String sql = "UPDATE OrderInfo SET invoice_pdf = NULL, status = 'COMPLETED' WHERE id = ? AND status = 'DELIVERED'";
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, orderId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    // --- Helper Methods ---
+
+    // Package-private so the row mapping benchmark can call it with a fake row
+    Order mapOrder(ResultSet rs) throws SQLException {
+        Order order = new Order();
+        order.setId(rs.getInt("id"));
+        order.setCustomerId(rs.getInt("customer_id"));
+
+        int carrierId = rs.getInt("carrier_id");
+        if (!rs.wasNull()) {
+            order.setCarrierId(carrierId);
+        }
+
+        order.setOrderTime(rs.getTimestamp("ordertime"));
+        order.setDeliveryTime(rs.getTimestamp("deliverytime"));
+        order.setRequestedDeliveryDate(rs.getTimestamp("requested_delivery_date"));
+
+        try {
+            String statusStr = rs.getString("status");
+            if (statusStr != null) {
+                order.setStatus(Order.Status.valueOf(statusStr.trim().toUpperCase()));
+            } else {
+                order.setStatus(Order.Status.WAITING);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(
+                    "OrderDAO: Unknown status found in DB: '" + rs.getString("status") + "' -> Defaulting to WAITING");
+            order.setStatus(Order.Status.WAITING);
+        }
+
+        order.setTotalCost(rs.getDouble("totalcost"));
+
+        int couponId = rs.getInt("used_coupon_id");
+        if (!rs.wasNull()) {
+            order.setUsedCouponId(couponId);
+        }
+        return order;
+    }
+
+    /**
+     * Loads the items of a whole set of orders with one query per chunk of
+     * {@link #ITEM_BATCH_SIZE} orders (instead of one query per order) and
+     * attaches them to the matching {@link Order} objects by id.
+     *
+     * @param orders The orders whose items should be loaded.
+     * @param conn   The open connection to use.
+     */
+    // Package-private so the round-trip benchmark can run it on a fake connection
+    void loadOrderItems(List<Order> orders, Connection conn) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Order> byId = new HashMap<>();
+        for (Order order : orders) {
+            byId.put(order.getId(), order);
+        }
+        List<Integer> ids = new ArrayList<>(byId.keySet());
+
+        for (int from = 0; from < ids.size(); from += ITEM_BATCH_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + ITEM_BATCH_SIZE, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT oi.order_id, oi.quantity, oi.price_at_purchase, p.id, p.name, p.category, p.type, p.price, p.stock, p.threshold, p.unit "
+                    +
+                    "FROM OrderItems oi " +
+                    "JOIN ProductInfo p ON oi.product_id = p.id " +
+                    "WHERE oi.order_id IN (" + placeholders + ") " +
+                    "ORDER BY oi.order_id, oi.id";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Order order = byId.get(rs.getInt("order_id"));
+                        if (order != null) {
+                            order.addItem(mapOrderItem(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private CartItem mapOrderItem(ResultSet rs) throws SQLException {
+        Product product = new Product();
+        product.setId(rs.getInt("id"));
+        product.setName(rs.getString("name"));
+        try {
+            product.setCategory(Category.valueOf(rs.getString("category")));
+        } catch (Exception e) {
+            product.setCategory(Category.FRUIT); // Fallback
+        }
+        product.setType(rs.getString("type"));
+        product.setPrice(rs.getDouble("price")); // This is current price, technically we care about
+                                                 // price_at_purchase in the item
+        product.setStock(rs.getDouble("stock"));
+        product.setThreshold(rs.getDouble("threshold"));
+        product.setUnit(rs.getString("unit"));
+
+        double quantity = rs.getDouble("quantity");
+        double purchasePrice = rs.getDouble("price_at_purchase");
+
+        CartItem item = new CartItem(product, quantity);
+        item.setPriceAtPurchase(purchasePrice);
+        return item;
+    }
+}
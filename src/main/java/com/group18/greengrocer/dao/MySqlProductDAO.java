@@ -0,0 +1,412 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Product;
+import com.group18.greengrocer.util.HashUtil;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for ProductInfo table.
+ * Follows Rule 1.1: Storage Access only, no business logic.
+ * MySQL implementation of {@link ProductDAO}.
+ */
+public class MySqlProductDAO implements ProductDAO {
+
+    /**
+     * Columns read for list/detail queries. The image BLOB (imagelocation) is
+     * intentionally excluded; it is loaded on demand via {@link #findImageById(int)}.
+     */
+    private static final String PRODUCT_COLUMNS = "id, name, category, type, price, stock, threshold, unit, image_hash";
+
+    private DatabaseAdapter dbAdapter;
+
+    public MySqlProductDAO() {
+        this.dbAdapter = DatabaseAdapter.getInstance();
+    }
+
+    /**
+     * Retrieves all products sorted by name (Rule 4.1).
+     * Excludes soft-deleted products.
+     * 
+     * @return List of all active products.
+     */
+    @Override
+    public List<Product> findAll() {
+        List<Product> products = new ArrayList<>();
+        // Filter out soft-deleted items
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM ProductInfo WHERE name NOT LIKE 'DELETED-%' ORDER BY name ASC";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                products.add(mapProduct(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return products;
+    }
+
+    /**
+     * Retrieves all available products (stock > 0), sorted by name.
+     * Use this for Customer Interface (Rule 4.1).
+     * 
+     * @return List of available products.
+     */
+    @Override
+    public List<Product> findAvailableProducts() {
+        List<Product> products = new ArrayList<>();
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM ProductInfo WHERE stock > 0 AND name NOT LIKE 'DELETED-%' ORDER BY name ASC";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                products.add(mapProduct(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return products;
+    }
+
+    // ... (searchByName and findByCategory should also ideally filter, but finding by ID usually returns exact)
+
+    /**
+     * Searches for products by name matching the keyword.
+     * Case-insensitive search using LIKE %keyword%.
+     * 
+     * @param keyword The search keyword.
+     * @return List of matching products.
+     */
+    @Override
+    public List<Product> searchByName(String keyword) {
+        List<Product> products = new ArrayList<>();
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM ProductInfo WHERE name LIKE ? AND name NOT LIKE 'DELETED-%' ORDER BY name ASC";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setString(1, "%" + keyword + "%");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(mapProduct(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return products;
+    }
+
+    /**
+     * Retrieves products filtered by category.
+     * 
+     * @param category The category to filter by (FRUIT or VEGETABLE).
+     * @return List of products in the category.
+     */
+    @Override
+    public List<Product> findByCategory(Category category) {
+        List<Product> products = new ArrayList<>();
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM ProductInfo WHERE category = ? AND name NOT LIKE 'DELETED-%' ORDER BY name ASC";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, category.name());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(mapProduct(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return products;
+    }
+
+    /**
+     * Finds a product by ID.
+     * 
+     * @param id The product ID.
+     * @return The Product object or null if not found.
+     */
+    @Override
+    public Product findById(int id) {
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM ProductInfo WHERE id = ?";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapProduct(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Finds several products by ID with a single query.
+     * 
+     * @param ids The product IDs.
+     * @return Map of product ID to Product; IDs that do not exist are absent.
+     */
+    @Override
+    public Map<Integer, Product> findByIds(Collection<Integer> ids) {
+        Map<Integer, Product> products = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return products;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        String sql = "SELECT " + PRODUCT_COLUMNS + " FROM ProductInfo WHERE id IN (" + placeholders + ")";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (Integer id : ids) {
+                stmt.setInt(index++, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Product p = mapProduct(rs);
+                    products.put(p.getId(), p);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return products;
+    }
+
+    /**
+     * Inserts a new product into the database.
+     * 
+     * @param product The product to insert.
+     * @return true if successful.
+     */
+    @Override
+    public boolean insert(Product product) {
+        String sql = "INSERT INTO ProductInfo (name, category, type, price, stock, threshold, imagelocation, unit, image_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setString(1, product.getName());
+            stmt.setString(2, product.getCategory().name());
+            stmt.setString(3, product.getType());
+            stmt.setDouble(4, product.getPrice());
+            stmt.setDouble(5, product.getStock());
+            stmt.setDouble(6, product.getThreshold());
+            stmt.setBytes(7, product.getImage()); // BLOB handling
+            stmt.setString(8, product.getUnit());
+            String imageHash = HashUtil.sha256Hex(product.getImage());
+            stmt.setString(9, imageHash);
+
+            int affectedRows = stmt.executeUpdate();
+            if (affectedRows > 0) {
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        product.setId(generatedKeys.getInt(1));
+                    }
+                }
+                product.setImageHash(imageHash);
+                return true;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Database Error: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Updates an existing product.
+     * The stored image is only replaced when {@code product.getImage()} is not null,
+     * since products loaded by this DAO do not carry their image bytes. A new image
+     * gets its content hash and is marked as owner-provided, so the image seeder
+     * leaves it alone.
+     * 
+     * @param product The product to update.
+     * @return true if successful.
+     */
+    @Override
+    public boolean update(Product product) {
+        String sql = "UPDATE ProductInfo SET name = ?, category = ?, type = ?, price = ?, stock = ?, threshold = ?, "
+                + "imagelocation = COALESCE(?, imagelocation), unit = ?, "
+                + "image_seeded = CASE WHEN ? IS NULL THEN image_seeded ELSE FALSE END, "
+                + "image_hash = COALESCE(?, image_hash) WHERE id = ?";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, product.getName());
+            stmt.setString(2, product.getCategory().name());
+            stmt.setString(3, product.getType());
+            stmt.setDouble(4, product.getPrice());
+            stmt.setDouble(5, product.getStock());
+            stmt.setDouble(6, product.getThreshold());
+            stmt.setBytes(7, product.getImage()); // BLOB handling
+            stmt.setString(8, product.getUnit());
+            String imageHash = HashUtil.sha256Hex(product.getImage());
+            stmt.setString(9, imageHash);
+            stmt.setString(10, imageHash);
+            stmt.setInt(11, product.getId());
+
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated && imageHash != null) {
+                product.setImageHash(imageHash);
+            }
+            return updated;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Atomically changes the stock of a product by {@code delta} without a read-modify-write.
+     * The update is rejected if it would make the stock negative.
+     * 
+     * @param id    The product ID.
+     * @param delta Amount to add (positive) or remove (negative).
+     * @return true if the stock was changed, false if the product does not exist or stock would go negative.
+     */
+    @Override
+    public boolean adjustStock(int id, double delta) {
+        String sql = "UPDATE ProductInfo SET stock = stock + ? WHERE id = ? AND stock + ? >= 0";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            BigDecimal amount = BigDecimal.valueOf(delta);
+            stmt.setBigDecimal(1, amount);
+            stmt.setInt(2, id);
+            stmt.setBigDecimal(3, amount);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Loads only the image BLOB of a product.
+     * 
+     * @param id The product ID.
+     * @return The image bytes, or null if the product has no image or does not exist.
+     */
+    @Override
+    public byte[] findImageById(int id) {
+        String sql = "SELECT imagelocation FROM ProductInfo WHERE id = ?";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getBytes("imagelocation");
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Soft deletes a product by renaming it and setting stock to 0.
+     * Used when product has history and cannot be physically deleted.
+     */
+    @Override
+    public boolean softDelete(int id) {
+        String sql = "UPDATE ProductInfo SET name = CONCAT('DELETED-', id, '-', name), stock = 0 WHERE id = ?";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Deletes a product by ID.
+     * 
+     * @param id The product ID.
+     * @return true if successful.
+     */
+    @Override
+    public boolean delete(int id) {
+        String sql = "DELETE FROM ProductInfo WHERE id = ?";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, id);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a product is referenced in any orders (OrderItems table).
+     * Rule: Products with order history cannot be deleted to preserve records.
+     * 
+     * @param productId The product ID.
+     * @return true if the product is in at least one order.
+     */
+    @Override
+    public boolean isProductInUse(int productId) {
+        String sql = "SELECT 1 FROM OrderItems WHERE product_id = ? LIMIT 1";
+        try (Connection conn = dbAdapter.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, productId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    // Package-private so the row mapping benchmark can call it with a fake row
+    Product mapProduct(ResultSet rs) throws SQLException {
+        Product p = new Product();
+        p.setId(rs.getInt("id"));
+        p.setName(rs.getString("name"));
+        
+        // Category Enum
+        String catStr = rs.getString("category");
+        if (catStr != null) {
+            try {
+                p.setCategory(Category.valueOf(catStr));
+            } catch (IllegalArgumentException e) {
+                p.setCategory(null);
+            }
+        }
+        
+        p.setType(rs.getString("type")); // String type
+        
+        p.setPrice(rs.getDouble("price"));
+        p.setStock(rs.getDouble("stock"));
+        p.setThreshold(rs.getDouble("threshold"));
+        p.setUnit(rs.getString("unit"));
+        p.setImageHash(rs.getString("image_hash"));
+        return p;
+    }
+}
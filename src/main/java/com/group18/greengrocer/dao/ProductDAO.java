@@ -2,288 +2,126 @@ package com.group18.greengrocer.dao;
 
 import com.group18.greengrocer.model.Category;
 import com.group18.greengrocer.model.Product;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Data Access Object for ProductInfo table.
+ * Data Access Object for products (ProductInfo).
  * Follows Rule 1.1: Storage Access only, no business logic.
+ * <p>
+ * Products returned by the list and lookup methods do not carry their image bytes;
+ * images are loaded on demand with {@link #findImageById(int)}. Soft-deleted products
+ * (name starting with {@code DELETED-}) are left out of all lists.
+ *
+ * @see MySqlProductDAO
+ * @see InMemoryProductDAO
  */
-public class ProductDAO {
-
-    private DatabaseAdapter dbAdapter;
-
-    public ProductDAO() {
-        this.dbAdapter = DatabaseAdapter.getInstance();
-    }
+public interface ProductDAO {
 
     /**
      * Retrieves all products sorted by name (Rule 4.1).
-     * Excludes soft-deleted products.
-     * 
+     *
      * @return List of all active products.
      */
-    public List<Product> findAll() {
-        List<Product> products = new ArrayList<>();
-        // Filter out soft-deleted items
-        String sql = "SELECT * FROM ProductInfo WHERE name NOT LIKE 'DELETED-%' ORDER BY name ASC";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                products.add(mapProduct(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return products;
-    }
+    List<Product> findAll();
 
     /**
-     * Retrieves all available products (stock > 0), sorted by name.
-     * Use this for Customer Interface (Rule 4.1).
-     * 
+     * Retrieves products with stock > 0, sorted by name.
+     *
      * @return List of available products.
      */
-    public List<Product> findAvailableProducts() {
-        List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM ProductInfo WHERE stock > 0 AND name NOT LIKE 'DELETED-%' ORDER BY name ASC";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                products.add(mapProduct(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return products;
-    }
-
-    // ... (searchByName and findByCategory should also ideally filter, but finding by ID usually returns exact)
+    List<Product> findAvailableProducts();
 
     /**
-     * Searches for products by name matching the keyword.
-     * Case-insensitive search using LIKE %keyword%.
-     * 
-     * @param keyword The search keyword.
-     * @return List of matching products.
+     * Searches products whose name contains the keyword, sorted by name.
+     *
+     * @param keyword The search text.
+     * @return The matching products.
      */
-    public List<Product> searchByName(String keyword) {
-        List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM ProductInfo WHERE name LIKE ? AND name NOT LIKE 'DELETED-%' ORDER BY name ASC";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, "%" + keyword + "%");
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    products.add(mapProduct(rs));
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return products;
-    }
+    List<Product> searchByName(String keyword);
 
     /**
-     * Retrieves products filtered by category.
-     * 
-     * @param category The category to filter by (FRUIT or VEGETABLE).
-     * @return List of products in the category.
+     * Retrieves the products of a category, sorted by name.
+     *
+     * @param category The category.
+     * @return The products of the category.
      */
-    public List<Product> findByCategory(Category category) {
-        List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM ProductInfo WHERE category = ? AND name NOT LIKE 'DELETED-%' ORDER BY name ASC";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, category.name());
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    products.add(mapProduct(rs));
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return products;
-    }
+    List<Product> findByCategory(Category category);
 
     /**
-     * Finds a product by ID.
-     * 
+     * Finds a product by ID (also soft-deleted ones).
+     *
      * @param id The product ID.
-     * @return The Product object or null if not found.
+     * @return The product, or null if not found.
      */
-    public Product findById(int id) {
-        String sql = "SELECT * FROM ProductInfo WHERE id = ?";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    Product findById(int id);
 
-            stmt.setInt(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapProduct(rs);
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
+    /**
+     * Finds several products by ID.
+     *
+     * @param ids The product IDs.
+     * @return The found products by ID; missing IDs are not in the map.
+     */
+    Map<Integer, Product> findByIds(Collection<Integer> ids);
 
     /**
-     * Inserts a new product into the database.
-     * 
+     * Inserts a new product; the product receives its ID and image hash.
+     *
      * @param product The product to insert.
      * @return true if successful.
      */
-    public boolean insert(Product product) {
-        String sql = "INSERT INTO ProductInfo (name, category, type, price, stock, threshold, imagelocation, unit) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, product.getName());
-            stmt.setString(2, product.getCategory().name());
-            stmt.setString(3, product.getType());
-            stmt.setDouble(4, product.getPrice());
-            stmt.setDouble(5, product.getStock());
-            stmt.setDouble(6, product.getThreshold());
-            stmt.setBytes(7, product.getImage()); // BLOB handling
-            stmt.setString(8, product.getUnit());
-
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        product.setId(generatedKeys.getInt(1));
-                    }
-                }
-                return true;
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Database Error: " + e.getMessage());
-        }
-        return false;
-    }
+    boolean insert(Product product);
 
     /**
-     * Updates an existing product.
-     * 
+     * Updates an existing product. The stored image is only replaced when
+     * {@code product.getImage()} is not null.
+     *
      * @param product The product to update.
      * @return true if successful.
      */
-    public boolean update(Product product) {
-        String sql = "UPDATE ProductInfo SET name = ?, category = ?, type = ?, price = ?, stock = ?, threshold = ?, imagelocation = ?, unit = ? WHERE id = ?";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, product.getName());
-            stmt.setString(2, product.getCategory().name());
-            stmt.setString(3, product.getType());
-            stmt.setDouble(4, product.getPrice());
-            stmt.setDouble(5, product.getStock());
-            stmt.setDouble(6, product.getThreshold());
-            stmt.setBytes(7, product.getImage()); // BLOB handling
-            stmt.setString(8, product.getUnit());
-            stmt.setInt(9, product.getId());
+    boolean update(Product product);
 
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
-    }
+    /**
+     * Atomically changes the stock of a product by {@code delta}.
+     * The update is rejected if it would make the stock negative.
+     *
+     * @param id    The product ID.
+     * @param delta Amount to add (positive) or remove (negative).
+     * @return true if the stock was changed.
+     */
+    boolean adjustStock(int id, double delta);
 
     /**
-     * Soft deletes a product by renaming it and setting stock to 0.
-     * Used when product has history and cannot be physically deleted.
+     * Loads only the image of a product.
+     *
+     * @param id The product ID.
+     * @return The image bytes, or null if the product has no image or does not exist.
      */
-    public boolean softDelete(int id) {
-        String sql = "UPDATE ProductInfo SET name = CONCAT('DELETED-', id, '-', name), stock = 0 WHERE id = ?";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
-    }
+    byte[] findImageById(int id);
 
     /**
-     * Deletes a product by ID.
-     * 
+     * Soft deletes a product by renaming it to {@code DELETED-<id>-<name>} and setting its stock to 0.
+     *
      * @param id The product ID.
      * @return true if successful.
      */
-    public boolean delete(int id) {
-        String sql = "DELETE FROM ProductInfo WHERE id = ?";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    boolean softDelete(int id);
 
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
-    }
+    /**
+     * Deletes a product.
+     *
+     * @param id The product ID.
+     * @return true if successful.
+     */
+    boolean delete(int id);
 
     /**
-     * Checks if a product is referenced in any orders (OrderItems table).
-     * Rule: Products with order history cannot be deleted to preserve records.
-     * 
+     * Checks if a product is referenced by any order item.
+     *
      * @param productId The product ID.
      * @return true if the product is in at least one order.
      */
-    public boolean isProductInUse(int productId) {
-        String sql = "SELECT 1 FROM OrderItems WHERE product_id = ? LIMIT 1";
-        try (Connection conn = dbAdapter.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, productId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                return rs.next();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
-    }
-
-    private Product mapProduct(ResultSet rs) throws SQLException {
-        Product p = new Product();
-        p.setId(rs.getInt("id"));
-        p.setName(rs.getString("name"));
-        
-        // Category Enum
-        String catStr = rs.getString("category");
-        if (catStr != null) {
-            try {
-                p.setCategory(Category.valueOf(catStr));
-            } catch (IllegalArgumentException e) {
-                p.setCategory(null);
-            }
-        }
-        
-        p.setType(rs.getString("type")); // String type
-        
-        p.setPrice(rs.getDouble("price"));
-        p.setStock(rs.getDouble("stock"));
-        p.setThreshold(rs.getDouble("threshold"));
-        p.setImage(rs.getBytes("imagelocation")); // BLOB retrieval
-        p.setUnit(rs.getString("unit"));
-        return p;
-    }
+    boolean isProductInUse(int productId);
 }
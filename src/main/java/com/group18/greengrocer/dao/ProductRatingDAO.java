@@ -1,9 +1,12 @@
 package com.group18.greengrocer.dao;
 
 import com.group18.greengrocer.model.ProductRating;
+import com.group18.greengrocer.model.RatingSummary;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 /**
  * Data Access Object (DAO) for managing Product Ratings.
  * <p>
@@ -12,6 +15,7 @@ import java.util.List;
  * <ul>
  * <li>Insert new ratings for products purchased in an order.</li>
  * <li>Retrieve all ratings associated with a specific product.</li>
+ * <li>Aggregate the average and count of ratings for the whole catalog.</li>
  * <li>Check if an order has already been rated to prevent duplicate entries.</li>
  * </ul>
  *
@@ -86,6 +90,31 @@ public class ProductRatingDAO {
         }
         return ratings;
     }
+/**
+     * Retrieves the average rating and rating count of every rated product.
+     * <p>
+     * Aggregation is done by the database in one {@code GROUP BY} query, so the whole
+     * product grid needs a single round trip and no rating rows are transferred.
+     *
+     * @return A map from product ID to its {@link RatingSummary}. Products without ratings are absent.
+     */
+    public Map<Integer, RatingSummary> getRatingSummaries() {
+        Map<Integer, RatingSummary> summaries = new HashMap<>();
+        String sql = "SELECT product_id, AVG(rating) AS avg_rating, COUNT(*) AS rating_count "
+                + "FROM ProductRatings GROUP BY product_id";
+        try (Connection conn = dbAdapter.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                int productId = rs.getInt("product_id");
+                summaries.put(productId,
+                        new RatingSummary(productId, rs.getDouble("avg_rating"), rs.getInt("rating_count")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return summaries;
+    }
 /**
      * Checks if any product in the given order has already been rated.
      * <p>
@@ -0,0 +1,299 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.util.Constants;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per-statement latency metrics and slow query log for all DAOs.
+ * <p>
+ * The {@link ConnectionPool} wraps every statement it hands out (see
+ * {@link MeteredStatement}), so the DAOs need no changes: each statement is named
+ * after the DAO method that prepared it, e.g. {@code OrderDAO.findAllOrders} (the
+ * {@code MySql} prefix of the implementation classes is dropped). Every execution
+ * records its latency, rows and bytes; executions slower than the threshold are
+ * written to the slow query log ({@link Constants#SLOW_QUERY_LOG_FILE}) and kept in a
+ * short in-memory history for the owner's Diagnostics tab.
+ * <p>
+ * The metrics are also published as JMX MBeans under {@code com.group18.greengrocer}
+ * (see {@link QueryMetricsMBean} and {@link StatementStatsMBean}), so they can be
+ * watched with JConsole or VisualVM while the application runs.
+ * <p>
+ * Implements the Singleton pattern so all connections report to one registry.
+ */
+public class QueryMetrics implements QueryMetricsMBean {
+
+    private static final String JMX_DOMAIN = "com.group18.greengrocer";
+    private static final String APP_PACKAGE = "com.group18.greengrocer.";
+    private static final String IMPLEMENTATION_PREFIX = "MySql";
+    private static final DateTimeFormatter LOG_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static QueryMetrics instance;
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final Deque<SlowQuery> recentSlow = new ArrayDeque<>();
+    private final ExecutorService logWriter;
+    private final MBeanServer mbeanServer;
+    private volatile long slowThresholdMillis = Constants.SLOW_QUERY_THRESHOLD_MS;
+
+    private QueryMetrics() {
+        this.logWriter = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "slow-query-log");
+            t.setDaemon(true);
+            return t;
+        });
+        this.mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        register(this, "type=QueryMetrics");
+    }
+
+    /**
+     * Retrieves the single instance of QueryMetrics.
+     *
+     * @return The singleton instance.
+     */
+    public static synchronized QueryMetrics getInstance() {
+        if (instance == null) {
+            instance = new QueryMetrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Wraps a statement so its executions are measured. Called by the connection pool
+     * for every statement it creates.
+     *
+     * @param statement The driver's statement.
+     * @param type      The statement interface to expose (Statement, PreparedStatement, ...).
+     * @param sql       The SQL it was prepared with (null for plain statements).
+     * @return The measured statement.
+     */
+    Statement wrap(Statement statement, Class<?> type, String sql) {
+        String name = callerName();
+        StatementStats stats = statements.computeIfAbsent(name, key -> {
+            StatementStats created = new StatementStats(key, sql);
+            register(created, "type=Statements,name=" + ObjectName.quote(key));
+            return created;
+        });
+        return MeteredStatement.wrap(statement, type, stats, sql, this);
+    }
+
+    /**
+     * Records one execution and logs it if it was slow.
+     */
+    void record(StatementStats stats, String sql, long nanos, long rows, long bytes, String error) {
+        long millis = nanos / 1_000_000;
+        boolean slow = millis >= slowThresholdMillis;
+        stats.record(sql, nanos, rows, bytes, slow, error);
+        if (slow) {
+            logSlow(new SlowQuery(LocalDateTime.now(), stats.getName(), millis, rows, sql, error));
+        }
+    }
+
+    /**
+     * Gets the metrics of all statements seen so far, most total time first.
+     *
+     * @return The statement metrics.
+     */
+    public List<StatementStats> getStatements() {
+        List<StatementStats> result = new ArrayList<>(statements.values());
+        result.sort(Comparator.comparingDouble(StatementStats::getTotalMillis).reversed());
+        return result;
+    }
+
+    /**
+     * Gets the most recent slow executions.
+     *
+     * @return Up to {@link Constants#SLOW_QUERY_HISTORY} entries, newest first.
+     */
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (recentSlow) {
+            return new ArrayList<>(recentSlow);
+        }
+    }
+
+    @Override
+    public int getStatementCount() {
+        return statements.size();
+    }
+
+    @Override
+    public long getTotalExecutions() {
+        return statements.values().stream().mapToLong(StatementStats::getCount).sum();
+    }
+
+    @Override
+    public long getTotalErrors() {
+        return statements.values().stream().mapToLong(StatementStats::getErrorCount).sum();
+    }
+
+    @Override
+    public long getTotalSlowExecutions() {
+        return statements.values().stream().mapToLong(StatementStats::getSlowCount).sum();
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    @Override
+    public void setSlowQueryThresholdMillis(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Threshold cannot be negative.");
+        }
+        this.slowThresholdMillis = millis;
+    }
+
+    @Override
+    public String[] getRecentSlowQueries() {
+        return getSlowQueries().stream().map(SlowQuery::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public void reset() {
+        statements.values().forEach(StatementStats::reset);
+        synchronized (recentSlow) {
+            recentSlow.clear();
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void logSlow(SlowQuery entry) {
+        synchronized (recentSlow) {
+            recentSlow.addFirst(entry);
+            while (recentSlow.size() > Constants.SLOW_QUERY_HISTORY) {
+                recentSlow.removeLast();
+            }
+        }
+        if (Constants.SLOW_QUERY_LOG_FILE == null) {
+            return;
+        }
+        // Written on a background thread so a slow disk does not slow down the DAO
+        try {
+            logWriter.execute(() -> {
+                Path file = Paths.get(Constants.SLOW_QUERY_LOG_FILE);
+                try {
+                    Files.writeString(file, entry + System.lineSeparator(), StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the entry is still in the in-memory history
+        }
+    }
+
+    /**
+     * Names a statement after the first application frame outside the JDBC layer,
+     * i.e. the DAO method (or other class) that prepared it.
+     */
+    private static String callerName() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> {
+                    String cls = f.getClassName();
+                    return cls.startsWith(APP_PACKAGE)
+                            && !cls.startsWith(ConnectionPool.class.getName())
+                            && !cls.startsWith(QueryMetrics.class.getName())
+                            && !cls.startsWith(MeteredStatement.class.getName())
+                            && !cls.equals(DatabaseAdapter.class.getName())
+                            && !f.getMethodName().startsWith("lambda$");
+                })
+                .findFirst()
+                .map(f -> {
+                    String cls = f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1);
+                    if (cls.startsWith(IMPLEMENTATION_PREFIX)) {
+                        cls = cls.substring(IMPLEMENTATION_PREFIX.length());
+                    }
+                    return cls + "." + f.getMethodName();
+                })
+                .orElse("unknown"));
+    }
+
+    private void register(Object mbean, String keyProperties) {
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":" + keyProperties);
+            if (!mbeanServer.isRegistered(objectName)) {
+                mbeanServer.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * One execution that took longer than the slow query threshold.
+     */
+    public static final class SlowQuery {
+        private final LocalDateTime time;
+        private final String name;
+        private final long millis;
+        private final long rows;
+        private final String sql;
+        private final String error;
+
+        private SlowQuery(LocalDateTime time, String name, long millis, long rows, String sql, String error) {
+            this.time = time;
+            this.name = name;
+            this.millis = millis;
+            this.rows = rows;
+            this.sql = sql;
+            this.error = error;
+        }
+
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return LOG_TIME.format(time) + " " + name + " " + millis + " ms, " + rows + " rows"
+                    + (error != null ? ", error: " + error : "") + " | " + sql;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.group18.greengrocer.dao;
+
+/**
+ * JMX view of the query metrics of all DAOs.
+ * Registered as {@code com.group18.greengrocer:type=QueryMetrics}.
+ *
+ * @see QueryMetrics
+ */
+public interface QueryMetricsMBean {
+
+    int getStatementCount();
+
+    long getTotalExecutions();
+
+    long getTotalErrors();
+
+    long getTotalSlowExecutions();
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long millis);
+
+    /**
+     * @return The most recent slow executions, newest first.
+     */
+    String[] getRecentSlowQueries();
+
+    /**
+     * Clears all statement metrics and the slow query history (not the log file).
+     */
+    void reset();
+}
@@ -5,6 +5,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 /**
@@ -13,6 +14,16 @@ import java.util.List;
  * This class executes complex aggregation queries (SUM, COUNT, GROUP BY) against the database
  * to provide data for charts and graphs in the owner/admin dashboard.
  * <p>
+ * Sales over time are read from the {@code DailySalesRollup} table instead of
+ * re-aggregating OrderInfo on every call. The rollup holds one row per order day with
+ * the totals of that day's delivered orders. It is kept up to date incrementally by
+ * {@link #addDeliveredOrder(Connection, int)}, in the same transaction that moves an
+ * order to DELIVERED, and can be rebuilt from the orders with
+ * {@link #rebuildDailySales(LocalDate, LocalDate)}. Cancelling a delivered order is
+ * rejected ({@code OrderService.cancelOrder}, {@code OrderDAO.cancelOrder}), so an
+ * order never has to be subtracted again. The owner dashboard totals count all
+ * non-cancelled orders, including open ones, and are still read from the orders.
+ * <p>
  * Implements the Singleton pattern to ensure a single access point for reporting queries.
  *
  * @author Group18
@@ -104,7 +115,8 @@ public class ReportDAO {
     /**
      * Calculates the total revenue aggregated by month for the last year.
      * <p>
-     * Filters specifically for 'COMPLETED' orders to ensure only finalized sales are counted.
+     * Only delivered (DELIVERED or COMPLETED) orders are counted. The sums come from
+     * the daily rows of the sales rollup, so at most 366 rows are read.
      *
      * @return A list of {@link ReportData} where the label is the month (YYYY-MM) and value is the total revenue.
      */
@@ -112,22 +124,24 @@ public class ReportDAO {
 
     public List<ReportData> getMonthlyRevenue() {
         List<ReportData> data = new ArrayList<>();
-        // Note: Formatting date might be DB specific. Using generic approach or MySQL specific.
-        String query = "SELECT DATE_FORMAT(ordertime, '%Y-%m') as month, SUM(totalcost) as revenue " +
-                       "FROM OrderInfo " +
-                       "WHERE status = 'COMPLETED' " + 
+        String query = "SELECT DATE_FORMAT(sales_day, '%Y-%m') as month, SUM(revenue) as revenue " +
+                       "FROM DailySalesRollup " +
+                       "WHERE sales_day >= ? " +
                        "GROUP BY month " +
-                       "ORDER BY month DESC " +
-                       "LIMIT 12";
+                       "ORDER BY month DESC";
 
         try (Connection conn = DatabaseAdapter.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(query);
-             ResultSet rs = stmt.executeQuery()) {
+             PreparedStatement stmt = conn.prepareStatement(query)) {
 
-            while (rs.next()) {
-                String label = rs.getString("month");
-                double value = rs.getDouble("revenue");
-                data.add(new ReportData(label, value));
+            // From the first day of the month eleven months ago: twelve months including this one
+            stmt.setDate(1, java.sql.Date.valueOf(LocalDate.now().withDayOfMonth(1).minusMonths(11)));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String label = rs.getString("month");
+                    double value = rs.getDouble("revenue");
+                    data.add(new ReportData(label, value));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -137,7 +151,9 @@ public class ReportDAO {
 /**
      * Calculates total sales for each day within a specified past range.
      * <p>
-     * This method is useful for line charts showing recent sales trends.
+     * This method is useful for line charts showing recent sales trends. Only
+     * delivered (DELIVERED or COMPLETED) orders are counted, read from the daily rows
+     * of the sales rollup.
      *
      * @param days The number of days to look back (e.g., 7 for weekly, 30 for monthly).
      * @return A list of {@link ReportData} where the label is the date and value is the daily total.
@@ -145,12 +161,10 @@ public class ReportDAO {
     public List<ReportData> getDailySales(int days) {
         List<ReportData> data = new ArrayList<>();
         String sql =
-            "SELECT DATE(ordertime) AS day, SUM(totalcost) AS total " +
-            "FROM OrderInfo " +
-            "WHERE ordertime >= (NOW() - INTERVAL ? DAY) " +
-            "AND status = 'COMPLETED' " +
-            "GROUP BY DATE(ordertime) " +
-            "ORDER BY day";
+            "SELECT sales_day AS day, revenue AS total " +
+            "FROM DailySalesRollup " +
+            "WHERE sales_day >= (CURDATE() - INTERVAL ? DAY) " +
+            "ORDER BY sales_day";
 
         try (Connection conn = DatabaseAdapter.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -170,4 +184,230 @@ public class ReportDAO {
         }
         return data;
     }
+
+    // --- Daily sales rollup ---
+
+    /** Orders in these states count as sales. */
+    private static final String DELIVERED = "o.status IN ('DELIVERED', 'COMPLETED')";
+
+    /** Total quantity of one order (uses the OrderItems foreign key index). */
+    private static final String ORDER_QUANTITY =
+            "COALESCE((SELECT SUM(i.quantity) FROM OrderItems i WHERE i.order_id = o.id), 0)";
+
+    private static final String ROLLUP_INSERT =
+            "INSERT INTO DailySalesRollup (sales_day, order_count, quantity, revenue) ";
+
+    /** Adds the derived table {@code s (n, q, r)} to existing rows. */
+    private static final String ROLLUP_ADD =
+            " ON DUPLICATE KEY UPDATE order_count = order_count + n, quantity = quantity + q, revenue = revenue + r";
+
+    /**
+     * Adds a newly delivered order to the sales rollup.
+     * <p>
+     * Must be called on the connection (and inside the transaction) that moved the
+     * order to DELIVERED, so the order is counted exactly once and only if the status
+     * change commits.
+     *
+     * @param conn    The connection of the caller's transaction.
+     * @param orderId The delivered order.
+     * @throws SQLException if the rollup cannot be updated; the caller rolls back.
+     */
+    void addDeliveredOrder(Connection conn, int orderId) throws SQLException {
+        String sql = ROLLUP_INSERT +
+                "SELECT * FROM (SELECT DATE(o.ordertime) AS d, 1 AS n, " +
+                ORDER_QUANTITY + " AS q, o.totalcost AS r " +
+                "FROM OrderInfo o WHERE o.id = ?) AS s" + ROLLUP_ADD;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, orderId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Rebuilds the sales rollup from the orders (backfill).
+     * <p>
+     * Replaces the rollup rows of the given order days with fresh sums of the
+     * delivered orders, in one transaction. Used to fill the table the first time, after
+     * bulk loads that bypass the DAOs, or to repair it. A delivery that commits while
+     * its day is being rebuilt may fail with a deadlock and has to be retried, so large
+     * rebuilds are best run while the shop is quiet.
+     *
+     * @param from First order day to rebuild, or null for no lower limit.
+     * @param to   Last order day to rebuild (inclusive), or null for no upper limit.
+     * @return The number of rollup rows written, or -1 if the rebuild failed.
+     */
+    public int rebuildDailySales(LocalDate from, LocalDate to) {
+        try (Connection conn = DatabaseAdapter.getInstance().getConnection()) {
+            return rebuildDailySales(conn, from, to);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    /**
+     * Rebuilds the sales rollup on the given connection.
+     *
+     * @see #rebuildDailySales(LocalDate, LocalDate)
+     */
+    static int rebuildDailySales(Connection conn, LocalDate from, LocalDate to) throws SQLException {
+        // Ranges on ordertime itself (not DATE(ordertime)) so the status/time index can be used
+        String orderRange = (from != null ? " AND o.ordertime >= ?" : "") + (to != null ? " AND o.ordertime < ?" : "");
+        String dayRange = (from != null ? " AND sales_day >= ?" : "") + (to != null ? " AND sales_day < ?" : "");
+
+        String deleteSql = "DELETE FROM DailySalesRollup WHERE 1 = 1" + dayRange;
+        String daySql = ROLLUP_INSERT +
+                "SELECT DATE(o.ordertime), COUNT(*), SUM(" + ORDER_QUANTITY + "), " +
+                "SUM(o.totalcost) " +
+                "FROM OrderInfo o " +
+                "WHERE " + DELIVERED + " AND o.ordertime IS NOT NULL" + orderRange + " " +
+                "GROUP BY DATE(o.ordertime)";
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            int rows = 0;
+            for (String sql : new String[] { deleteSql, daySql }) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    int index = 1;
+                    if (from != null) {
+                        stmt.setDate(index++, java.sql.Date.valueOf(from));
+                    }
+                    if (to != null) {
+                        stmt.setDate(index, java.sql.Date.valueOf(to.plusDays(1)));
+                    }
+                    int count = stmt.executeUpdate();
+                    if (!sql.equals(deleteSql)) {
+                        rows += count;
+                    }
+                }
+            }
+            conn.commit();
+            return rows;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // --- Owner dashboard aggregates (non-cancelled orders) ---
+
+    /**
+     * SQL condition matching every order that is not cancelled.
+     * Orders with a NULL status are treated as WAITING by the application, so they are counted.
+     */
+    private static final String NOT_CANCELLED = "(o.status IS NULL OR o.status <> 'CANCELLED')";
+
+    /**
+     * Sums item revenue (quantity * purchase price) per product over all non-cancelled orders.
+     *
+     * @return A list of {@link ReportData} where the label is the product name and value is the revenue.
+     */
+    public List<ReportData> getRevenueByProductName() {
+        String query = "SELECT p.name AS label, SUM(oi.quantity * oi.price_at_purchase) AS value " +
+                       "FROM OrderItems oi " +
+                       "JOIN OrderInfo o ON oi.order_id = o.id " +
+                       "JOIN ProductInfo p ON oi.product_id = p.id " +
+                       "WHERE " + NOT_CANCELLED + " " +
+                       "GROUP BY p.name";
+        return queryLabelValues(query);
+    }
+
+    /**
+     * Sums item revenue (quantity * purchase price) per product category over all non-cancelled orders.
+     *
+     * @return A list of {@link ReportData} where the label is the category name and value is the revenue.
+     */
+    public List<ReportData> getRevenueByCategory() {
+        String query = "SELECT p.category AS label, SUM(oi.quantity * oi.price_at_purchase) AS value " +
+                       "FROM OrderItems oi " +
+                       "JOIN OrderInfo o ON oi.order_id = o.id " +
+                       "JOIN ProductInfo p ON oi.product_id = p.id " +
+                       "WHERE " + NOT_CANCELLED + " AND p.category IS NOT NULL " +
+                       "GROUP BY p.category";
+        return queryLabelValues(query);
+    }
+
+    /**
+     * Sums order totals per day (yyyy-MM-dd) over all non-cancelled orders.
+     *
+     * @return A list of {@link ReportData} where the label is the day and value is the revenue, ordered by day.
+     */
+    public List<ReportData> getRevenueByDay() {
+        String query = "SELECT DATE_FORMAT(o.ordertime, '%Y-%m-%d') AS label, SUM(o.totalcost) AS value " +
+                       "FROM OrderInfo o " +
+                       "WHERE " + NOT_CANCELLED + " AND o.ordertime IS NOT NULL " +
+                       "GROUP BY label " +
+                       "ORDER BY label";
+        return queryLabelValues(query);
+    }
+
+    /**
+     * Counts orders per raw status value (all orders, including cancelled).
+     *
+     * @return A list of {@link ReportData} where the label is the stored status (may be null) and value is the count.
+     */
+    public List<ReportData> getOrderCountByStatus() {
+        String query = "SELECT o.status AS label, COUNT(*) AS value FROM OrderInfo o GROUP BY o.status";
+        return queryLabelValues(query);
+    }
+
+    /**
+     * Calculates the total revenue of all non-cancelled orders.
+     *
+     * @return The revenue sum, or 0.0 if there are no orders.
+     */
+    public double getTotalRevenue() {
+        return querySingleNumber("SELECT COALESCE(SUM(o.totalcost), 0) FROM OrderInfo o WHERE " + NOT_CANCELLED);
+    }
+
+    /**
+     * Counts all non-cancelled orders.
+     *
+     * @return The number of orders.
+     */
+    public int getTotalOrderCount() {
+        return (int) querySingleNumber("SELECT COUNT(*) FROM OrderInfo o WHERE " + NOT_CANCELLED);
+    }
+
+    /**
+     * Counts distinct customers with at least one non-cancelled order.
+     *
+     * @return The number of active customers.
+     */
+    public int getActiveCustomerCount() {
+        return (int) querySingleNumber("SELECT COUNT(DISTINCT o.customer_id) FROM OrderInfo o WHERE " + NOT_CANCELLED);
+    }
+
+    private List<ReportData> queryLabelValues(String query) {
+        List<ReportData> data = new ArrayList<>();
+        try (Connection conn = DatabaseAdapter.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                data.add(new ReportData(rs.getString("label"), rs.getDouble("value")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return data;
+    }
+
+    private double querySingleNumber(String query) {
+        try (Connection conn = DatabaseAdapter.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getDouble(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0.0;
+    }
 }
@@ -1,54 +1,287 @@
 package com.group18.greengrocer.dao;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import java.sql.SQLException;
-import com.group18.greengrocer.util.ProductImageSeeder;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 /**
- * Utility class responsible for applying dynamic schema updates to the database.
+ * Utility class responsible for applying versioned schema migrations to the database.
  * <p>
  * This class serves as a migration tool to ensure the database structure stays in sync
- * with the Java application logic. It is particularly useful for updating ENUM definitions
- * in MySQL without needing to manually drop and recreate tables.
+ * with the Java application logic. Every schema change is a numbered {@link Migration};
+ * applied versions are recorded in the {@code schema_version} ledger table, so each
+ * step runs exactly once per database instead of on every application start.
+ * <p>
+ * Migrations are applied while holding a MySQL named lock, so several terminals
+ * starting at the same time never run the same step twice. Steps that add columns or
+ * indexes check the JDBC metadata first, which keeps them safe on databases that were
+ * created from a newer {@code database_schema.sql} or patched by an older release.
+ * <p>
+ * <b>Adding a migration:</b> append a new entry with the next version number to
+ * {@link #MIGRATIONS}. Never change or reorder a migration that has already shipped.
  *
- * @version 1.0
+ * @version 2.0
  */
 public class SchemaPatcher {
+
+    /** Name of the MySQL advisory lock that serializes migrations across terminals. */
+    private static final String LOCK_NAME = "greengrocer_schema_migration";
+
+    /** Seconds to wait for another terminal to finish migrating. */
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    /**
+     * One schema change.
+     */
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection conn, Statement stmt) throws SQLException;
+    }
+
+    /**
+     * A numbered schema change with a short description for the ledger.
+     */
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        private Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
     /**
-     * Checks and updates the database schema to support new Order Status values.
+     * All migrations in version order.
+     */
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "OrderInfo status enum with all application states", (conn, stmt) ->
+                    stmt.executeUpdate("ALTER TABLE OrderInfo MODIFY COLUMN status " +
+                            "ENUM('AVAILABLE', 'SELECTED', 'COMPLETED', 'CANCELLED', " +
+                            "'RECEIVED', 'PREPARING', 'ON_THE_WAY', 'DELIVERED', 'WAITING') " +
+                            "DEFAULT 'WAITING'")),
+
+            new Migration(2, "ProductInfo imagelocation as MEDIUMBLOB", (conn, stmt) ->
+                    stmt.executeUpdate("ALTER TABLE ProductInfo MODIFY COLUMN imagelocation MEDIUMBLOB")),
+
+            new Migration(3, "OrderInfo invoice_pdf binary invoice column", (conn, stmt) -> {
+                if (!columnExists(conn, "OrderInfo", "invoice_pdf")) {
+                    stmt.executeUpdate("ALTER TABLE OrderInfo ADD COLUMN invoice_pdf MEDIUMBLOB");
+                }
+            }),
+
+            new Migration(4, "Indexes for order, message and rating queries", (conn, stmt) -> {
+                createIndexIfMissing(conn, stmt, "OrderInfo", "idx_orderinfo_time", "ordertime", "id");
+                createIndexIfMissing(conn, stmt, "OrderInfo", "idx_orderinfo_status_time", "status", "ordertime");
+                createIndexIfMissing(conn, stmt, "OrderInfo", "idx_orderinfo_customer_time", "customer_id", "ordertime");
+                createIndexIfMissing(conn, stmt, "OrderInfo", "idx_orderinfo_carrier_time", "carrier_id", "ordertime");
+                createIndexIfMissing(conn, stmt, "Messages", "idx_messages_conversation_time", "conversation_id", "sent_at");
+                createIndexIfMissing(conn, stmt, "ProductRatings", "idx_productratings_product", "product_id");
+                createIndexIfMissing(conn, stmt, "CarrierRatings", "idx_carrierratings_carrier", "carrier_id");
+                createIndexIfMissing(conn, stmt, "Conversations", "idx_conversations_customer_status_time",
+                        "customer_id", "status", "created_at");
+            }),
+
+            new Migration(5, "ProductInfo image content hash for idempotent image seeding", (conn, stmt) -> {
+                if (!columnExists(conn, "ProductInfo", "image_hash")) {
+                    stmt.executeUpdate("ALTER TABLE ProductInfo ADD COLUMN image_hash CHAR(64) NULL");
+                }
+                if (!columnExists(conn, "ProductInfo", "image_seeded")) {
+                    stmt.executeUpdate("ALTER TABLE ProductInfo ADD COLUMN image_seeded BOOLEAN NOT NULL DEFAULT FALSE");
+                }
+            }),
+
+            new Migration(6, "Carts table for saved shopping carts", (conn, stmt) ->
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS Carts (" +
+                            "customer_id INT NOT NULL, " +
+                            "product_id INT NOT NULL, " +
+                            "quantity DECIMAL(10, 2) NOT NULL, " +
+                            "line_no INT NOT NULL DEFAULT 0, " +
+                            "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, " +
+                            "PRIMARY KEY (customer_id, product_id), " +
+                            "FOREIGN KEY (customer_id) REFERENCES UserInfo(id), " +
+                            "FOREIGN KEY (product_id) REFERENCES ProductInfo(id) ON DELETE CASCADE)")),
+
+            new Migration(7, "DailySalesRollup table for sales reports, backfilled from the orders", (conn, stmt) -> {
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS DailySalesRollup (" +
+                        "sales_day DATE NOT NULL PRIMARY KEY, " +
+                        "order_count INT NOT NULL DEFAULT 0, " +
+                        "quantity DECIMAL(14, 2) NOT NULL DEFAULT 0, " +
+                        "revenue DECIMAL(14, 2) NOT NULL DEFAULT 0)");
+                int rows = ReportDAO.rebuildDailySales(conn, null, null);
+                System.out.println("Schema update: " + rows + " sales rollup row(s) backfilled.");
+            }));
+
+    /**
+     * Applies all pending migrations.
      * <p>
-     * This method executes an {@code ALTER TABLE} SQL command to modify the 'status' column
-     * in the 'OrderInfo' table. It expands the allowed ENUM values to include all states
-     * used in the application (e.g., 'ON_THE_WAY', 'PREPARING').
+     * Product images are not seeded here any more; see
+     * {@link com.group18.greengrocer.util.ProductImageSeeder#seedInBackground()}.
      * <p>
      * <b>Note:</b> SQL Exceptions are caught and logged rather than thrown, ensuring that
-     * a schema update failure (e.g., if already updated) does not crash the application startup.
+     * a schema update failure does not crash the application startup. A failed
+     * migration is not recorded, so it is retried on the next start.
      */
     public static void updateSchema() {
-        System.out.println("Checking and updating database schema...");
+        System.out.println("Checking database schema version...");
         try (Connection conn = DatabaseAdapter.getInstance().getConnection();
                 Statement stmt = conn.createStatement()) {
 
-            // 1. Update OrderInfo status enum
-            String sql1 = "ALTER TABLE OrderInfo MODIFY COLUMN status " +
-                    "ENUM('AVAILABLE', 'SELECTED', 'COMPLETED', 'CANCELLED', " +
-                    "'RECEIVED', 'PREPARING', 'ON_THE_WAY', 'DELIVERED', 'WAITING') " +
-                    "DEFAULT 'WAITING'";
-            stmt.executeUpdate(sql1);
-            System.out.println("Schema update: OrderInfo status enum updated.");
+            ensureLedger(stmt);
 
-            // 2. Update ProductInfo imagelocation to MEDIUMBLOB for large images
-            String sql2 = "ALTER TABLE ProductInfo MODIFY COLUMN imagelocation MEDIUMBLOB";
-            stmt.executeUpdate(sql2);
-            System.out.println("Schema update: ProductInfo imagelocation updated to MEDIUMBLOB.");
-
-            // 3. Auto-seed images if they are missing
-            System.out.println("Checking for missing product images...");
-            ProductImageSeeder.seedProductImagesToDb(conn);
+            if (!acquireLock(conn)) {
+                System.err.println("Schema update skipped: another terminal holds the migration lock.");
+            } else {
+                try {
+                    applyPendingMigrations(conn, stmt);
+                } finally {
+                    releaseLock(conn);
+                }
+            }
 
         } catch (Exception e) {
-            System.err.println("Schema update or seeding failed: " + e.getMessage());
+            System.err.println("Schema update failed: " + e.getMessage());
             e.printStackTrace();
         }
     }
+
+    private static void ensureLedger(Statement stmt) throws SQLException {
+        stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version ("
+                + "version INT PRIMARY KEY, "
+                + "description VARCHAR(255) NOT NULL, "
+                + "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+    }
+
+    private static void applyPendingMigrations(Connection conn, Statement stmt) throws SQLException {
+        // Read the ledger only after taking the lock, so concurrent starts see each other's work
+        Set<Integer> applied = new HashSet<>();
+        try (ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                applied.add(rs.getInt("version"));
+            }
+        }
+
+        int count = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (applied.contains(migration.version)) {
+                continue;
+            }
+            System.out.println("Schema update " + migration.version + ": " + migration.description);
+            migration.step.apply(conn, stmt);
+
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                insert.setInt(1, migration.version);
+                insert.setString(2, migration.description);
+                insert.executeUpdate();
+            }
+            count++;
+        }
+
+        System.out.println(count == 0
+                ? "Schema is up to date (version " + MIGRATIONS.get(MIGRATIONS.size() - 1).version + ")."
+                : "Schema update: " + count + " migration(s) applied.");
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Checks whether a column exists, using the JDBC metadata of the current catalog.
+     *
+     * @param conn   The open connection.
+     * @param table  The table name.
+     * @param column The column name.
+     * @return true if the column exists.
+     * @throws SQLException if the metadata cannot be read.
+     */
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        // MySQL on case-sensitive file systems may report table names in lower case
+        for (String name : new String[] { table, table.toLowerCase() }) {
+            try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, name, column)) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates an index unless the table already has an index (of any name) whose
+     * leading columns are exactly the requested ones, e.g. the implicit index MySQL
+     * creates for a foreign key.
+     *
+     * @param conn    The open connection.
+     * @param stmt    Statement used for the DDL.
+     * @param table   The table name.
+     * @param index   The name of the index to create.
+     * @param columns The indexed columns, in order.
+     * @throws SQLException if the metadata cannot be read or the index cannot be created.
+     */
+    private static void createIndexIfMissing(Connection conn, Statement stmt, String table, String index,
+            String... columns) throws SQLException {
+        for (List<String> existing : indexColumns(conn, table).values()) {
+            if (existing.size() >= columns.length
+                    && existing.subList(0, columns.length).equals(List.of(columns))) {
+                return;
+            }
+        }
+        stmt.executeUpdate("CREATE INDEX " + index + " ON " + table + " (" + String.join(", ", columns) + ")");
+        System.out.println("Schema update: index " + index + " created.");
+    }
+
+    /**
+     * Reads the columns of every index of a table, keyed by index name.
+     */
+    private static Map<String, List<String>> indexColumns(Connection conn, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        Map<String, Map<Short, String>> byName = new TreeMap<>();
+        for (String name : new String[] { table, table.toLowerCase() }) {
+            try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, name, false, false)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName != null && column != null) {
+                        byName.computeIfAbsent(indexName, k -> new TreeMap<>())
+                                .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase());
+                    }
+                }
+            }
+            if (!byName.isEmpty()) {
+                break;
+            }
+        }
+
+        Map<String, List<String>> result = new TreeMap<>();
+        byName.forEach((name, cols) -> result.put(name, new ArrayList<>(cols.values())));
+        return result;
+    }
 }
@@ -0,0 +1,128 @@
+package com.group18.greengrocer.dao;
+
+import com.group18.greengrocer.util.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one named SQL statement (e.g. {@code OrderDAO.findAllOrders}), collected
+ * by {@link QueryMetrics}: execution latency histogram, rows and bytes fetched (or
+ * rows changed), errors and slow executions.
+ * <p>
+ * Latency is the time of the {@code execute*} call itself; for queries that is the
+ * round trip until the result is available, not the time the DAO spends mapping rows.
+ */
+public class StatementStats implements StatementStatsMBean {
+
+    private final String name;
+    private volatile String sql;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private volatile String lastError;
+
+    StatementStats(String name, String sql) {
+        this.name = name;
+        this.sql = sql;
+    }
+
+    void record(String sql, long nanos, long rowCount, long byteCount, boolean wasSlow, String error) {
+        this.sql = sql;
+        latencies.record(nanos / 1_000);
+        rows.add(rowCount);
+        bytes.add(byteCount);
+        if (wasSlow) {
+            slow.increment();
+        }
+        if (error != null) {
+            errors.increment();
+            lastError = error;
+        }
+    }
+
+    void reset() {
+        latencies.reset();
+        errors.reset();
+        slow.reset();
+        rows.reset();
+        bytes.reset();
+        lastError = null;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /** @return The SQL of the latest execution (without parameter values). */
+    @Override
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getSlowCount() {
+        return slow.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latencies.getMeanMicros() / 1000.0;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latencies.percentileMicros(50) / 1000.0;
+    }
+
+    @Override
+    public double getP95Millis() {
+        return latencies.percentileMicros(95) / 1000.0;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latencies.percentileMicros(99) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latencies.getMaxMicros() / 1000.0;
+    }
+
+    /** @return Rows fetched by queries plus rows changed by updates. */
+    @Override
+    public long getTotalRows() {
+        return rows.sum();
+    }
+
+    /** @return Approximate size of the column values read from the result sets. */
+    @Override
+    public long getTotalBytes() {
+        return bytes.sum();
+    }
+
+    @Override
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * @return Total time spent in this statement, in milliseconds.
+     */
+    public double getTotalMillis() {
+        return getMeanMillis() * getCount();
+    }
+}
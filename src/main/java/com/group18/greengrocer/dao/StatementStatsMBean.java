@@ -0,0 +1,36 @@
+package com.group18.greengrocer.dao;
+
+/**
+ * JMX view of the metrics of one named SQL statement.
+ * Registered as {@code com.group18.greengrocer:type=Statements,name="<DAO>.<method>"}.
+ *
+ * @see StatementStats
+ */
+public interface StatementStatsMBean {
+
+    String getName();
+
+    String getSql();
+
+    long getCount();
+
+    long getErrorCount();
+
+    long getSlowCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    long getTotalRows();
+
+    long getTotalBytes();
+
+    String getLastError();
+}
@@ -26,7 +26,8 @@ public class Main extends Application {
      * the system is ready for the application to begin running.
      * <p>
      * It loads the {@code splash.fxml} file, sets up the primary window (Stage),
-     * and displays it in maximized mode.
+     * and displays it in maximized mode. Product image seeding is then started in
+     * the background so it does not delay the first window.
      *
      * @param primaryStage The primary stage for this application, onto which
      * the application scene can be set.
@@ -54,10 +55,25 @@ public class Main extends Application {
             primaryStage.setMaximized(true);
             primaryStage.show();
 
+            // Seed missing/changed product images once the window is up
+            com.group18.greengrocer.util.ProductImageSeeder.seedInBackground();
+
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
+/**
+     * Called when the application exits.
+     * <p>
+     * Shuts down the database connection pool so pooled connections are closed cleanly.
+     */
+    @Override
+    public void stop() {
+        com.group18.greengrocer.service.InvoiceService.getInstance().shutdown();
+        com.group18.greengrocer.service.ProductImageCache.getInstance().shutdown();
+        com.group18.greengrocer.service.CartStore.getInstance().shutdown();
+        com.group18.greengrocer.dao.DatabaseAdapter.getInstance().closeConnection();
+    }
 /**
      * The standard main() method for Java applications.
      * <p>
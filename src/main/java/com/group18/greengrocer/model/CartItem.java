@@ -1,5 +1,7 @@
 package com.group18.greengrocer.model;
 
+import com.group18.greengrocer.util.PriceMath;
+
 /**
  * Represents an item in a shopping cart or a line item in an order.
  * Corresponds to the 'OrderItems' table in the database.
@@ -130,10 +132,10 @@ public class CartItem {
     /**
      * Calculates the total price for this line item.
      *
-     * @return quantity * priceAtPurchase
+     * @return quantity * priceAtPurchase (not rounded, see PriceMath)
      */
     public double getTotalPrice() {
-        return priceAtPurchase * quantity;
+        return PriceMath.lineTotal(priceAtPurchase, quantity);
     }
 
     @Override
@@ -0,0 +1,62 @@
+package com.group18.greengrocer.model;
+
+/**
+ * Represents the loyalty tier of a customer.
+ * The tier follows from the number of delivered orders (status DELIVERED or COMPLETED).
+ */
+public enum LoyaltyTier {
+    /**
+     * Fewer than 5 delivered orders: no discount.
+     */
+    NONE(0, 0.0),
+
+    /**
+     * 5+ delivered orders: 5% discount.
+     */
+    TIER_1(5, 5.0),
+
+    /**
+     * 10+ delivered orders: 15% discount.
+     */
+    TIER_2(10, 15.0);
+
+    private final int minOrders;
+    private final double discountPercent;
+
+    LoyaltyTier(int minOrders, double discountPercent) {
+        this.minOrders = minOrders;
+        this.discountPercent = discountPercent;
+    }
+
+    /**
+     * Gets the number of delivered orders needed for this tier.
+     *
+     * @return The minimum order count.
+     */
+    public int getMinOrders() {
+        return minOrders;
+    }
+
+    /**
+     * Gets the discount of this tier.
+     *
+     * @return The discount in percent (e.g., 5.0).
+     */
+    public double getDiscountPercent() {
+        return discountPercent;
+    }
+
+    /**
+     * Determines the tier for a number of delivered orders.
+     *
+     * @param deliveredOrders The number of DELIVERED/COMPLETED orders.
+     * @return The highest tier reached.
+     */
+    public static LoyaltyTier forOrderCount(int deliveredOrders) {
+        if (deliveredOrders >= TIER_2.minOrders)
+            return TIER_2;
+        if (deliveredOrders >= TIER_1.minOrders)
+            return TIER_1;
+        return NONE;
+    }
+}
@@ -0,0 +1,63 @@
+package com.group18.greengrocer.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query.
+ * <p>
+ * The continuation token is opaque to callers: pass it back to the same query to
+ * fetch the next page. It is {@code null} on the last page.
+ *
+ * @param <T> The type of the items.
+ */
+public class Page<T> {
+
+    /**
+     * The items of this page, in query order.
+     */
+    private final List<T> items;
+
+    /**
+     * Token for the next page, or null if this is the last page.
+     */
+    private final String nextToken;
+
+    /**
+     * Constructor with fields.
+     *
+     * @param items     The items of this page.
+     * @param nextToken Token for the next page, or null if there are no more items.
+     */
+    public Page(List<T> items, String nextToken) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Gets the items of this page.
+     *
+     * @return The (unmodifiable) list of items.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the continuation token for the next page.
+     *
+     * @return The token, or null if this is the last page.
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Checks whether more items can be fetched with {@link #getNextToken()}.
+     *
+     * @return true if there is a next page.
+     */
+    public boolean hasMore() {
+        return nextToken != null;
+    }
+}
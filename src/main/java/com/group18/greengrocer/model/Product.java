@@ -56,6 +56,12 @@ public class Product {
      */
     private byte[] image;
 
+    /**
+     * SHA-256 of the stored image (hex), or null if unknown.
+     * Corresponds to the 'image_hash' column; identifies the image version for caches.
+     */
+    private String imageHash;
+
     /**
      * The unit of measurement for the product (e.g., "kg").
      * Corresponds to the 'unit' column.
@@ -277,6 +283,24 @@ public class Product {
         this.image = image;
     }
 
+    /**
+     * Gets the content hash of the stored image.
+     *
+     * @return The hex SHA-256, or null if the product has no (hashed) image.
+     */
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    /**
+     * Sets the content hash of the stored image.
+     *
+     * @param imageHash The hex SHA-256.
+     */
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
     /**
      * Gets the unit of measurement.
      *
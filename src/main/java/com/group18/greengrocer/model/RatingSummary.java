@@ -0,0 +1,66 @@
+package com.group18.greengrocer.model;
+
+/**
+ * Data Transfer Object holding the aggregated ratings of one product.
+ * Built from a single {@code AVG/COUNT ... GROUP BY product_id} query.
+ */
+public class RatingSummary {
+
+    /** Summary used for products that have not been rated yet. */
+    public static final RatingSummary NONE = new RatingSummary(0, 0.0, 0);
+
+    /**
+     * The ID of the rated product.
+     */
+    private final int productId;
+
+    /**
+     * The average rating (1-5), or 0 if there are no ratings.
+     */
+    private final double average;
+
+    /**
+     * The number of ratings.
+     */
+    private final int count;
+
+    /**
+     * Constructor with fields.
+     *
+     * @param productId The product ID.
+     * @param average   The average rating.
+     * @param count     The number of ratings.
+     */
+    public RatingSummary(int productId, double average, int count) {
+        this.productId = productId;
+        this.average = average;
+        this.count = count;
+    }
+
+    /**
+     * Gets the product ID.
+     *
+     * @return The product ID.
+     */
+    public int getProductId() {
+        return productId;
+    }
+
+    /**
+     * Gets the average rating.
+     *
+     * @return The average rating, or 0 if there are no ratings.
+     */
+    public double getAverage() {
+        return average;
+    }
+
+    /**
+     * Gets the number of ratings.
+     *
+     * @return The rating count.
+     */
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,150 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Coupon;
+import com.group18.greengrocer.model.LoyaltyTier;
+import com.group18.greengrocer.util.PriceMath;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CartQuote
+ * Running price quote of one shopping cart.
+ *
+ * The quote keeps the total of every cart line and a running subtotal that is
+ * updated by the difference of the changed line only. The coupon (validated once
+ * when it is applied) and the customer's loyalty tier (read once when the quote is
+ * created) are kept for the cart session, so editing the cart costs no database
+ * work. Checkout does not trust the quote: {@link DiscountService#calculateFinalPrice}
+ * prices the order again from fresh product, coupon and loyalty data.
+ *
+ * The pricing steps are the same as in {@link DiscountService#calculateFinalPrice}:
+ * threshold-aware subtotal, fixed coupon amount, loyalty percent, VAT.
+ */
+public class CartQuote {
+
+    private final Map<Integer, Double> lineTotals = new HashMap<>();
+    private double subtotal;
+
+    private final int deliveredOrders;
+    private final LoyaltyTier loyaltyTier;
+    private Coupon coupon;
+
+    /**
+     * Creates a quote for the current items of a cart.
+     *
+     * @param items           The cart items.
+     * @param deliveredOrders The customer's number of delivered orders (loyalty).
+     */
+    CartQuote(List<CartItem> items, int deliveredOrders) {
+        this.deliveredOrders = deliveredOrders;
+        this.loyaltyTier = LoyaltyTier.forOrderCount(deliveredOrders);
+        for (CartItem item : items) {
+            putLine(item);
+        }
+    }
+
+    /**
+     * Adds a cart line or updates it after its quantity changed.
+     *
+     * @param item The cart item.
+     */
+    public void putLine(CartItem item) {
+        if (item == null || item.getProduct() == null) {
+            return;
+        }
+        double lineTotal = PriceMath.lineTotal(DiscountService.unitPrice(item.getProduct()), item.getQuantity());
+        Double previous = lineTotals.put(item.getProduct().getId(), lineTotal);
+        subtotal += lineTotal - (previous != null ? previous : 0.0);
+    }
+
+    /**
+     * Removes a cart line.
+     *
+     * @param productId The product of the removed line.
+     */
+    public void removeLine(int productId) {
+        Double previous = lineTotals.remove(productId);
+        if (previous != null) {
+            subtotal -= previous;
+        }
+        if (lineTotals.isEmpty()) {
+            subtotal = 0.0; // drop accumulated rounding noise
+        }
+    }
+
+    /**
+     * Sets the coupon of this cart (already validated by {@link DiscountService#validateCoupon}).
+     *
+     * @param coupon The coupon, or null to remove it.
+     */
+    public void setCoupon(Coupon coupon) {
+        this.coupon = coupon;
+    }
+
+    /**
+     * Gets the coupon of this cart.
+     *
+     * @return The coupon, or null.
+     */
+    public Coupon getCoupon() {
+        return coupon;
+    }
+
+    /**
+     * Gets the number of lines in the cart.
+     *
+     * @return The line count.
+     */
+    public int getLineCount() {
+        return lineTotals.size();
+    }
+
+    /**
+     * Gets the subtotal before discounts and VAT.
+     *
+     * @return The subtotal.
+     */
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    /**
+     * Gets the customer's number of delivered orders at the start of the session.
+     *
+     * @return The order count.
+     */
+    public int getDeliveredOrders() {
+        return deliveredOrders;
+    }
+
+    /**
+     * Gets the customer's loyalty tier at the start of the session.
+     *
+     * @return The tier.
+     */
+    public LoyaltyTier getLoyaltyTier() {
+        return loyaltyTier;
+    }
+
+    /**
+     * Gets the total including coupon, loyalty discount and VAT, rounded to 2 decimals.
+     *
+     * @return The total.
+     */
+    public double getTotal() {
+        return PriceMath.total(subtotal, coupon != null ? coupon.getDiscountAmount() : 0.0,
+                loyaltyTier.getDiscountPercent());
+    }
+
+    /**
+     * Gets the VAT contained in {@link #getTotal()}.
+     *
+     * @return The VAT amount.
+     */
+    public double getVatAmount() {
+        return PriceMath.vatIncluded(getTotal());
+    }
+}
@@ -0,0 +1,456 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.CartDAO;
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.ProductDAO;
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Product;
+import com.group18.greengrocer.util.Constants;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * CartStore
+ * Keeps the shopping carts of all customers in memory.
+ *
+ * Every cart indexes its lines by product ID, so merging an item into the cart is a
+ * map lookup instead of a scan. Changes to one cart are made while holding that
+ * cart's lock ({@link #update}); different customers never block each other.
+ *
+ * Carts that were not used for {@link Constants#CART_TTL_MS} are evicted, and the
+ * store never holds more than {@link Constants#CART_MAX_ENTRIES} carts (least recently
+ * used first). With {@link Constants#CART_PERSISTENCE_ENABLED} changed carts are
+ * written to the Carts table by a background thread every
+ * {@link Constants#CART_MAINTENANCE_INTERVAL_MS} (write-behind) and read back on the
+ * customer's next visit, so evicted carts and carts of a restarted terminal are not
+ * lost and no click waits for the database. A saved cart is read on the first access
+ * to it, so the customer screen restores it off the FX thread right after login.
+ *
+ * A cart is evicted while holding its lock: an edit either happens before the
+ * eviction (and is part of the saved copy) or retries on the reloaded cart. Until its
+ * last copy is saved, an evicted cart is restored from that copy instead of the
+ * database.
+ *
+ * Implements the Singleton pattern so all OrderService instances share one store.
+ */
+public class CartStore {
+
+    private static CartStore instance;
+
+    // Backend the DAOs below were taken from
+    private final DAOFactory factory;
+    private final CartDAO cartDAO;
+    private final ProductDAO productDAO;
+    private final boolean persistent;
+
+    private final Map<Integer, Cart> carts = new ConcurrentHashMap<>();
+
+    // Customers whose cart changed since it was last written (write-behind)
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+    // Lines of evicted carts whose save has not succeeded yet, by customer
+    private final Map<Integer, Map<Integer, Double>> evicting = new ConcurrentHashMap<>();
+
+    // Single thread: eviction, write-back and deletes never overlap, so a delete
+    // queued after a write always wins
+    private final ScheduledExecutorService maintenance;
+
+    private CartStore(DAOFactory factory) {
+        this.factory = factory;
+        this.cartDAO = factory.getCartDAO();
+        this.productDAO = factory.getProductDAO();
+        this.persistent = Constants.CART_PERSISTENCE_ENABLED;
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cart-store");
+            t.setDaemon(true);
+            return t;
+        });
+        maintenance.scheduleWithFixedDelay(this::maintain, Constants.CART_MAINTENANCE_INTERVAL_MS,
+                Constants.CART_MAINTENANCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Retrieves the single instance of CartStore.
+     * If the DAO backend was switched since it was created, the old store writes back
+     * its carts and is replaced by one on the new backend.
+     *
+     * @return The singleton instance.
+     */
+    public static synchronized CartStore getInstance() {
+        DAOFactory factory = DAOFactory.getInstance();
+        if (instance == null || instance.factory != factory) {
+            if (instance != null) {
+                instance.shutdown();
+            }
+            instance = new CartStore(factory);
+        }
+        return instance;
+    }
+
+    /**
+     * Copies the cart of a customer while holding its lock. Creates an empty cart (or
+     * restores the saved one) if the customer has none in memory.
+     * <p>
+     * The copy is detached: pricing or checking it out never changes the cart, and
+     * later cart changes do not show up in it.
+     *
+     * @param customerId The customer ID.
+     * @return A new order with copies of the cart lines, in cart order.
+     */
+    public Order snapshot(int customerId) {
+        while (true) {
+            Cart cart = acquire(customerId);
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue; // evicted between lookup and lock; use the reloaded cart
+                }
+                List<CartItem> items = new ArrayList<>(cart.lines.size());
+                for (CartItem line : cart.lines.values()) {
+                    CartItem item = new CartItem(line.getProduct(), line.getQuantity());
+                    item.setPriceAtPurchase(line.getPriceAtPurchase());
+                    items.add(item);
+                }
+                Order copy = new Order();
+                copy.setCustomerId(customerId);
+                copy.setItems(items);
+                return copy;
+            }
+        }
+    }
+
+    /**
+     * Gets the running price quote of a cart, creating it on first use.
+     *
+     * @param customerId The customer ID.
+     * @param factory    Creates the quote for the cart order.
+     * @return The quote.
+     */
+    public CartQuote getQuote(int customerId, Function<Order, CartQuote> factory) {
+        while (true) {
+            Cart cart = acquire(customerId);
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue;
+                }
+                if (cart.quote == null) {
+                    cart.quote = factory.apply(cart.order);
+                }
+                return cart.quote;
+            }
+        }
+    }
+
+    /**
+     * Changes a cart while holding its lock. The cart is marked as changed afterwards,
+     * also if the change throws.
+     *
+     * @param customerId The customer ID.
+     * @param change     The change.
+     */
+    public void update(int customerId, Consumer<Cart> change) {
+        while (true) {
+            Cart cart = acquire(customerId);
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue; // evicted between lookup and lock; use the reloaded cart
+                }
+                try {
+                    change.accept(cart);
+                } finally {
+                    if (persistent) {
+                        dirty.add(customerId);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Empties the cart of a customer, e.g. after checkout. The saved cart is deleted
+     * in the background.
+     *
+     * @param customerId The customer ID.
+     */
+    public void remove(int customerId) {
+        // Replace instead of removing: a cart restored before the delete has run
+        // would bring the checked-out items back
+        Cart cart = carts.put(customerId, new Cart(customerId));
+        if (cart != null) {
+            synchronized (cart) {
+                cart.evicted = true;
+            }
+        }
+        dirty.remove(customerId);
+        evicting.remove(customerId);
+        if (persistent) {
+            submit(() -> cartDAO.deleteCart(customerId));
+        }
+    }
+
+    /**
+     * Gets the number of carts currently held in memory.
+     *
+     * @return The cart count.
+     */
+    public int size() {
+        return carts.size();
+    }
+
+    /**
+     * Writes all changed carts and stops the background thread.
+     * Called when the application exits.
+     */
+    public void shutdown() {
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (persistent) {
+            writeBack();
+        }
+    }
+
+    private Cart acquire(int customerId) {
+        Cart cart = carts.get(customerId);
+        if (cart == null) {
+            // Restore outside the map so a slow read does not block other customers
+            Cart loaded = persistent ? restore(customerId) : new Cart(customerId);
+            cart = carts.putIfAbsent(customerId, loaded);
+            if (cart == null) {
+                cart = loaded;
+                if (carts.size() > Constants.CART_MAX_ENTRIES) {
+                    submit(this::evictOverflow);
+                }
+            }
+        }
+        cart.lastAccess = System.currentTimeMillis();
+        return cart;
+    }
+
+    private Cart restore(int customerId) {
+        Cart cart = new Cart(customerId);
+        Map<Integer, Double> saved = evicting.get(customerId);
+        if (saved == null) {
+            saved = cartDAO.findCart(customerId);
+        }
+        if (saved.isEmpty()) {
+            return cart;
+        }
+        Map<Integer, Product> products = productDAO.findByIds(saved.keySet());
+        for (Map.Entry<Integer, Double> line : saved.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                continue; // product was deleted meanwhile
+            }
+            CartItem item = new CartItem(product, line.getValue());
+            item.setPriceAtPurchase(DiscountService.unitPrice(product));
+            cart.add(item);
+        }
+        return cart;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            maintenance.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run(); // shutting down
+        }
+    }
+
+    // Runs on the maintenance thread
+    private void maintain() {
+        try {
+            long idleSince = System.currentTimeMillis() - Constants.CART_TTL_MS;
+            for (Cart cart : carts.values()) {
+                if (cart.lastAccess < idleSince) {
+                    evict(cart, idleSince);
+                }
+            }
+            if (persistent) {
+                saveEvicted();
+                writeBack();
+            }
+        } catch (Exception e) {
+            e.printStackTrace(); // keep the schedule alive
+        }
+    }
+
+    private void evictOverflow() {
+        int excess = carts.size() - Constants.CART_MAX_ENTRIES;
+        if (excess <= 0) {
+            return;
+        }
+        List<Cart> oldest = new ArrayList<>(carts.values());
+        oldest.sort(Comparator.comparingLong(cart -> cart.lastAccess));
+        for (int i = 0; i < excess && i < oldest.size(); i++) {
+            Cart cart = oldest.get(i);
+            evict(cart, cart.lastAccess);
+        }
+    }
+
+    /**
+     * Evicts a cart unless it was used after {@code idleSince}. Runs on the
+     * maintenance thread.
+     */
+    private void evict(Cart cart, long idleSince) {
+        Map<Integer, Double> lines;
+        synchronized (cart) {
+            if (cart.evicted || cart.lastAccess > idleSince) {
+                return; // checked out or used again meanwhile
+            }
+            cart.evicted = true;
+            lines = persistent && dirty.remove(cart.customerId) ? linesOf(cart) : null;
+            if (lines != null) {
+                // Before leaving the map, so restore() finds either the cart or this copy
+                evicting.put(cart.customerId, lines);
+            }
+            carts.remove(cart.customerId, cart);
+            if (lines == null) {
+                return; // nothing unsaved
+            }
+        }
+        if (cartDAO.saveCarts(Map.of(cart.customerId, lines))) {
+            evicting.remove(cart.customerId, lines);
+        } // else: saveEvicted() retries on the next run
+    }
+
+    private void saveEvicted() {
+        if (evicting.isEmpty()) {
+            return;
+        }
+        Map<Integer, Map<Integer, Double>> pending = new HashMap<>(evicting);
+        if (cartDAO.saveCarts(pending)) {
+            pending.forEach(evicting::remove);
+        }
+    }
+
+    private void writeBack() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Map<Integer, Cart> changed = new HashMap<>();
+        for (Iterator<Integer> it = dirty.iterator(); it.hasNext(); ) {
+            Integer customerId = it.next();
+            it.remove();
+            Cart cart = carts.get(customerId);
+            if (cart != null) {
+                changed.put(customerId, cart);
+            }
+        }
+        save(changed);
+    }
+
+    private boolean save(Map<Integer, Cart> changed) {
+        if (changed.isEmpty()) {
+            return true;
+        }
+        Map<Integer, Map<Integer, Double>> snapshot = new HashMap<>();
+        for (Cart cart : changed.values()) {
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue; // checked out meanwhile; its delete is already queued
+                }
+                dirty.remove(cart.customerId);
+                snapshot.put(cart.customerId, linesOf(cart));
+            }
+        }
+        boolean saved = cartDAO.saveCarts(snapshot);
+        if (!saved) {
+            dirty.addAll(snapshot.keySet()); // retry on the next run
+        }
+        return saved;
+    }
+
+    // Quantities by product ID; the caller holds the cart lock
+    private static Map<Integer, Double> linesOf(Cart cart) {
+        Map<Integer, Double> lines = new LinkedHashMap<>();
+        cart.lines.forEach((productId, item) -> lines.put(productId, item.getQuantity()));
+        return lines;
+    }
+
+    /**
+     * One customer's cart: the cart order, its lines by product ID and its price quote.
+     * Only used inside {@link CartStore#update}, while the cart is locked.
+     */
+    public static final class Cart {
+        private final int customerId;
+        private final Order order = new Order();
+        private final Map<Integer, CartItem> lines = new LinkedHashMap<>();
+        private CartQuote quote;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private boolean evicted;
+
+        private Cart(int customerId) {
+            this.customerId = customerId;
+            order.setCustomerId(customerId);
+            order.setItems(new ArrayList<>());
+        }
+
+        /**
+         * Gets the line of a product.
+         *
+         * @param productId The product ID.
+         * @return The cart item, or null if the product is not in the cart.
+         */
+        public CartItem get(int productId) {
+            return lines.get(productId);
+        }
+
+        /**
+         * Adds a new line to the cart.
+         *
+         * @param item The cart item (its product must not be in the cart yet).
+         */
+        public void add(CartItem item) {
+            lines.put(item.getProduct().getId(), item);
+            order.getItems().add(item);
+            if (quote != null) {
+                quote.putLine(item);
+            }
+        }
+
+        /**
+         * Tells the cart that the quantity of a line changed.
+         *
+         * @param item The changed cart item.
+         */
+        public void changed(CartItem item) {
+            if (quote != null) {
+                quote.putLine(item);
+            }
+        }
+
+        /**
+         * Removes the line of a product.
+         *
+         * @param productId The product ID.
+         */
+        public void remove(int productId) {
+            CartItem item = lines.remove(productId);
+            if (item != null) {
+                order.getItems().remove(item);
+            }
+            if (quote != null) {
+                quote.removeLine(productId);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.ConnectionPool;
+import com.group18.greengrocer.dao.DatabaseAdapter;
+import com.group18.greengrocer.dao.QueryMetrics;
+import com.group18.greengrocer.dao.StatementStats;
+import com.group18.greengrocer.util.BackgroundLoader;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DiagnosticsService
+ * Read-only access to the runtime metrics for the owner's Diagnostics tab:
+ * per-statement query metrics, the slow query history, connection pool usage,
+ * the product image cache and the latency of the screens' background loads.
+ *
+ * Rules:
+ * - Controllers MUST NOT touch the DAO layer directly, so they go through here.
+ */
+public class DiagnosticsService {
+
+    private final QueryMetrics queryMetrics;
+
+    public DiagnosticsService() {
+        this.queryMetrics = QueryMetrics.getInstance();
+    }
+
+    /**
+     * Retrieves the metrics of every SQL statement executed so far.
+     *
+     * @return Statement metrics, most total time first.
+     */
+    public List<StatementStats> getStatementStats() {
+        return queryMetrics.getStatements();
+    }
+
+    /**
+     * Retrieves the most recent executions slower than the threshold.
+     *
+     * @return Slow queries, newest first.
+     */
+    public List<QueryMetrics.SlowQuery> getSlowQueries() {
+        return queryMetrics.getSlowQueries();
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return queryMetrics.getSlowQueryThresholdMillis();
+    }
+
+    /**
+     * Changes the slow query threshold until the application exits.
+     *
+     * @param millis New threshold in milliseconds.
+     * @throws IllegalArgumentException if the value is negative.
+     */
+    public void setSlowQueryThresholdMillis(long millis) {
+        queryMetrics.setSlowQueryThresholdMillis(millis);
+    }
+
+    /**
+     * Retrieves the current connection pool usage.
+     *
+     * @return Pool statistics, or null if the database has not been used yet.
+     */
+    public ConnectionPool.Stats getPoolStats() {
+        return DatabaseAdapter.getInstance().getPoolStats();
+    }
+
+    /**
+     * Retrieves the hit rate and decoded pixel memory of the product image cache.
+     *
+     * @return Image cache statistics.
+     */
+    public ProductImageCache.Stats getImageCacheStats() {
+        return ProductImageCache.getInstance().getStats();
+    }
+
+    /**
+     * Retrieves the latency of the background loads of the screens.
+     *
+     * @return Load statistics per loader name.
+     */
+    public Map<String, BackgroundLoader.LoadStats> getLoadStats() {
+        return BackgroundLoader.getStats();
+    }
+
+    /**
+     * Clears the statement metrics and the slow query history.
+     */
+    public void resetQueryMetrics() {
+        queryMetrics.reset();
+    }
+}
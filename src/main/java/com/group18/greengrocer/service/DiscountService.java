@@ -1,12 +1,14 @@
 package com.group18.greengrocer.service;
 
 import com.group18.greengrocer.dao.CouponDAO;
-import com.group18.greengrocer.dao.OrderDAO;
+import com.group18.greengrocer.dao.DAOFactory;
 import com.group18.greengrocer.model.CartItem;
 import com.group18.greengrocer.model.Coupon;
+import com.group18.greengrocer.model.LoyaltyTier;
 import com.group18.greengrocer.model.Order;
 import com.group18.greengrocer.model.Product;
 import com.group18.greengrocer.util.Constants;
+import com.group18.greengrocer.util.PriceMath;
 import com.group18.greengrocer.util.ValidatorUtil;
 
 import java.time.LocalDate;
@@ -25,21 +27,18 @@ import java.util.List;
 public class DiscountService {
 
     private final CouponDAO couponDAO;
-    private final OrderDAO orderDAO;
 
     // Owner-configurable loyalty rule (shared across instances)
     private static int loyaltyMinOrderCount = Constants.DEFAULT_LOYALTY_MIN_ORDER_COUNT;
     private static double loyaltyDiscountRate = Constants.DEFAULT_LOYALTY_DISCOUNT_RATE; // percent (e.g., 10.0)
 
     public DiscountService() {
-        this.couponDAO = new CouponDAO();
-        this.orderDAO = new OrderDAO();
+        this.couponDAO = DAOFactory.getInstance().getCouponDAO();
     }
 
-    // Optional constructor for tests
-    public DiscountService(CouponDAO couponDAO, OrderDAO orderDAO) {
+    // Optional constructor for tests (loyalty counts come from LoyaltyCache)
+    public DiscountService(CouponDAO couponDAO) {
         this.couponDAO = couponDAO;
-        this.orderDAO = orderDAO;
     }
 
     /**
@@ -66,49 +65,32 @@ public class DiscountService {
         // so that OrderItems table and Invoice show the actual price paid (doubled).
         double subtotal = 0.0;
         for (CartItem item : items) {
-            // This existing helper calculates total but we need to verify if it updates the
-            // item
-            // The helper 'lineTotalWithThreshold' was originally strictly read-only. We
-            // should refactor it or do logic here.
-
-            // Let's do the logic explicitly here to be safe and clear:
             Product p = item.getProduct();
-            if (p != null && p.getThreshold() > 0 && p.getStock() <= p.getThreshold()) {
-                // Double the price!
-                // BUT we must be careful not to double it multiple times if called repeatedly.
-                // However, OrderService constructs a fresh cart from DB products right before
-                // calling checkout/calculate.
-                // So item.priceAtPurchase starts as base price.
-                item.setPriceAtPurchase(p.getPrice() * 2.0);
-            } else if (p != null) {
-                // Ensure it is base price (reset if needed, though usually fresh)
-                item.setPriceAtPurchase(p.getPrice());
+            if (p != null) {
+                // Doubled if the threshold is met; always derived from the base price,
+                // so calling this repeatedly never doubles twice.
+                item.setPriceAtPurchase(unitPrice(p));
             }
 
-            subtotal += item.getTotalPrice(); // quantity * priceAtPurchase
+            subtotal += item.getTotalPrice(); // quantity * priceAtPurchase, not rounded
         }
 
         // 2) Coupon (fixed amount) if order.usedCouponId exists
-        double afterCoupon = subtotal;
+        double coupon = 0.0;
         Integer usedCouponId = order.getUsedCouponId();
         if (usedCouponId != null) {
             Coupon c = couponDAO.findCouponById(usedCouponId); // <-- needs the PATCH in CouponDAO
             if (c != null && isCouponValid(c)) {
-                afterCoupon = Math.max(0.0, afterCoupon - c.getDiscountAmount());
+                coupon = c.getDiscountAmount();
             } else {
                 // invalid coupon in order -> ignore it (or you can throw)
                 // order.setUsedCouponId(null);
             }
         }
 
-        // 3) Loyalty discount (percent)
+        // 3) Loyalty discount (percent) and 4) VAT (Constants); rounded once, at the end
         double loyaltyPercent = getLoyaltyDiscount(order.getCustomerId()); // returns percent
-        double afterLoyalty = applyPercentDiscount(afterCoupon, loyaltyPercent);
-
-        // 4) VAT (Constants)
-        double withVat = afterLoyalty * (1.0 + Constants.VAT_RATE);
-
-        double finalTotal = round2(withVat);
+        double finalTotal = PriceMath.total(subtotal, coupon, loyaltyPercent);
 
         // Optional: set order totalCost so OrderDAO can insert it
         order.setTotalCost(finalTotal);
@@ -116,6 +98,30 @@ public class DiscountService {
         return finalTotal;
     }
 
+    /**
+     * Creates a running price quote for a cart (see {@link CartQuote}).
+     * Reads the loyalty count once; the quote itself never touches the database.
+     *
+     * @param cart The cart order.
+     * @return The quote.
+     */
+    public CartQuote createQuote(Order cart) {
+        if (cart == null)
+            throw new IllegalArgumentException("Order cannot be null.");
+        List<CartItem> items = cart.getItems() != null ? cart.getItems() : List.of();
+        return new CartQuote(items, getCompletedOrderCount(cart.getCustomerId()));
+    }
+
+    /**
+     * Unit price of a product: doubled when its stock is at or below the threshold.
+     *
+     * @param p The product.
+     * @return The price per unit.
+     */
+    public static double unitPrice(Product p) {
+        return PriceMath.unitPrice(p.getPrice(), p.getStock(), p.getThreshold());
+    }
+
     /**
      * Validates coupon code.
      * 
@@ -166,26 +172,25 @@ public class DiscountService {
      * @return percent (e.g., 5.0 or 15.0)
      */
     public double getLoyaltyDiscount(int userId) {
-        int completed = getCompletedOrderCount(userId);
+        return getLoyaltyTier(userId).getDiscountPercent();
+    }
 
-        if (completed >= 10)
-            return 15.0;
-        if (completed >= 5)
-            return 5.0;
-        return 0.0;
+    /**
+     * Loyalty tier of a user, served from {@link LoyaltyCache}.
+     *
+     * @return The tier ({@link LoyaltyTier#NONE} for invalid ids).
+     */
+    public LoyaltyTier getLoyaltyTier(int userId) {
+        return LoyaltyTier.forOrderCount(getCompletedOrderCount(userId));
     }
 
+    /**
+     * Number of DELIVERED/COMPLETED orders of a user (one COUNT query, then cached).
+     */
     public int getCompletedOrderCount(int userId) {
         if (userId <= 0)
             return 0;
-        List<Order> orders = orderDAO.findOrdersByCustomerId(userId);
-        int completed = 0;
-        for (Order o : orders) {
-            if (o != null && (o.getStatus() == Order.Status.DELIVERED || o.getStatus() == Order.Status.COMPLETED)) {
-                completed++;
-            }
-        }
-        return completed;
+        return LoyaltyCache.getInstance().getDeliveredOrderCount(userId);
     }
 
     /**
@@ -232,16 +237,4 @@ public class DiscountService {
         }
         return true;
     }
-
-    private double applyPercentDiscount(double total, double percent) {
-        if (percent <= 0)
-            return total;
-        if (percent > 100)
-            throw new IllegalArgumentException("Discount percent cannot exceed 100.");
-        return total * (1.0 - (percent / 100.0));
-    }
-
-    private double round2(double x) {
-        return Math.round(x * 100.0) / 100.0;
-    }
 }
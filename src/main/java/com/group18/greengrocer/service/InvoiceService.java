@@ -0,0 +1,168 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.OrderDAO;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.util.PDFGenerator;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * InvoiceService
+ * Renders PDF invoices in the background and serves the stored copies.
+ *
+ * Checkout only commits the order and then hands the order id to a small,
+ * bounded worker pool which builds the PDF and stores it as binary in
+ * {@code OrderInfo.invoice_pdf}. Downloads read that stored copy; when no copy
+ * exists yet (e.g. the worker queue was full, the application stopped before the
+ * job ran, or a status change cleared the old copy and its re-render has not
+ * finished) the download queues a render on the same pool and waits for it, so
+ * rendering never runs on the caller's (possibly the FX) thread and never exceeds
+ * the pool size.
+ *
+ * Implements the Singleton pattern so all services share one worker pool.
+ */
+public class InvoiceService {
+
+    /** Number of invoice worker threads. */
+    private static final int WORKER_THREADS = 2;
+
+    /** Maximum number of invoices waiting to be rendered. */
+    private static final int QUEUE_CAPACITY = 100;
+
+    private static InvoiceService instance;
+
+    // Backend the DAO below was taken from
+    private final DAOFactory factory;
+    private final OrderDAO orderDAO;
+    private final ThreadPoolExecutor executor;
+
+    private InvoiceService(DAOFactory factory) {
+        this.factory = factory;
+        this.orderDAO = factory.getOrderDAO();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                WORKER_THREADS, WORKER_THREADS,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread t = new Thread(r, "invoice-worker-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Retrieves the single instance of InvoiceService.
+     * If the DAO backend was switched since it was created, the old worker pool is
+     * stopped and a new service on the current backend is returned.
+     *
+     * @return The singleton instance.
+     */
+    public static synchronized InvoiceService getInstance() {
+        DAOFactory factory = DAOFactory.getInstance();
+        if (instance == null || instance.factory != factory) {
+            if (instance != null) {
+                instance.shutdown();
+            }
+            instance = new InvoiceService(factory);
+        }
+        return instance;
+    }
+
+    /**
+     * Queues (re)rendering of the invoice of an order.
+     * <p>
+     * Never blocks the caller. If the queue is full the job is dropped; the invoice
+     * is then rendered on demand by {@link #getInvoice(int)}.
+     *
+     * @param orderId The ID of the order.
+     */
+    public void submit(int orderId) {
+        try {
+            executor.execute(() -> {
+                try {
+                    render(orderId);
+                } catch (RuntimeException e) {
+                    System.err.println("InvoiceService: Could not render invoice of order " + orderId);
+                    e.printStackTrace();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("InvoiceService: Queue full, invoice of order " + orderId
+                    + " will be generated on download.");
+        }
+    }
+
+    /**
+     * Returns the stored PDF invoice of an order, rendering and storing it first
+     * on the worker pool if no copy exists yet. Blocks until the invoice is
+     * available, so callers on the FX thread should use a
+     * {@link com.group18.greengrocer.util.BackgroundLoader}.
+     *
+     * @param orderId The ID of the order.
+     * @return The PDF document bytes.
+     * @throws IllegalArgumentException if the order does not exist.
+     * @throws IllegalStateException    if the worker queue is full, the wait was
+     *                                  interrupted or the invoice could not be
+     *                                  rendered (the cause is attached).
+     */
+    public byte[] getInvoice(int orderId) {
+        byte[] pdf = orderDAO.findInvoicePdf(orderId);
+        if (pdf != null) {
+            return pdf;
+        }
+
+        try {
+            Future<byte[]> job = executor.submit(() -> render(orderId));
+            pdf = job.get();
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Invoices are being generated, please try again in a moment.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Invoice generation was interrupted.");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Invoice could not be generated (" + e.getCause().getMessage() + ").",
+                    e.getCause());
+        }
+        if (pdf == null) {
+            throw new IllegalArgumentException("Order not found.");
+        }
+        return pdf;
+    }
+
+    /**
+     * Stops the worker pool. Queued invoices that were not rendered yet are
+     * generated on their first download instead (which needs a running pool,
+     * i.e. only after the application restarted).
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Renders and stores the invoice of an order.
+     *
+     * @return The PDF bytes, or null if the order does not exist.
+     * @throws RuntimeException if the PDF cannot be generated; {@link #getInvoice(int)}
+     *                          receives it through the Future.
+     */
+    private byte[] render(int orderId) {
+        Order order = orderDAO.findOrderById(orderId);
+        if (order == null) {
+            return null;
+        }
+
+        byte[] pdf = PDFGenerator.generateInvoice(order);
+        orderDAO.updateInvoicePdf(orderId, pdf, order.getStatus());
+        return pdf;
+    }
+}
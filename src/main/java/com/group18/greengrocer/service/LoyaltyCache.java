@@ -0,0 +1,128 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.OrderDAO;
+import com.group18.greengrocer.model.LoyaltyTier;
+import com.group18.greengrocer.util.Constants;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LoyaltyCache
+ * Caches the number of delivered orders (and thereby the loyalty tier) per customer.
+ *
+ * The count is read once with a {@code COUNT(*)} query and then kept in memory, so
+ * pricing a cart or a checkout does not touch the order history. When an order of
+ * this application is delivered the cached count is incremented in place; entries
+ * expire after {@link Constants#LOYALTY_CACHE_TTL_MS} to pick up deliveries recorded
+ * by other terminals.
+ *
+ * Implements the Singleton pattern so all services share one cache.
+ */
+public class LoyaltyCache {
+
+    private static LoyaltyCache instance;
+
+    // Backend the DAO below was taken from
+    private final DAOFactory factory;
+    private final OrderDAO orderDAO;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    private LoyaltyCache(DAOFactory factory) {
+        this.factory = factory;
+        this.orderDAO = factory.getOrderDAO();
+    }
+
+    /**
+     * Retrieves the single instance of LoyaltyCache.
+     * A cache created on another DAO backend is dropped and rebuilt on the current one.
+     *
+     * @return The singleton instance.
+     */
+    public static synchronized LoyaltyCache getInstance() {
+        DAOFactory factory = DAOFactory.getInstance();
+        if (instance == null || instance.factory != factory) {
+            instance = new LoyaltyCache(factory);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the number of delivered (DELIVERED or COMPLETED) orders of a customer.
+     *
+     * @param customerId The customer ID.
+     * @return The order count.
+     */
+    public int getDeliveredOrderCount(int customerId) {
+        Entry entry = entries.get(customerId);
+        if (entry == null || entry.isExpired()) {
+            int count = orderDAO.countDeliveredOrders(customerId);
+            if (count < 0) {
+                return 0; // database error: no discount, and nothing cached
+            }
+            entry = new Entry(count);
+            entries.put(customerId, entry);
+        }
+        return entry.count;
+    }
+
+    /**
+     * Returns the loyalty tier of a customer.
+     *
+     * @param customerId The customer ID.
+     * @return The tier.
+     */
+    public LoyaltyTier getTier(int customerId) {
+        return LoyaltyTier.forOrderCount(getDeliveredOrderCount(customerId));
+    }
+
+    /**
+     * Counts a newly delivered order (call after an order moved to DELIVERED).
+     * If the customer is not cached, nothing happens; the next lookup counts in SQL.
+     *
+     * @param customerId The customer ID.
+     */
+    public void orderDelivered(int customerId) {
+        entries.computeIfPresent(customerId, (id, entry) ->
+                entry.isExpired() ? null : new Entry(entry.count + 1, entry.loadedAt));
+    }
+
+    /**
+     * Drops the cached count of a customer; the next lookup counts again in SQL.
+     *
+     * @param customerId The customer ID.
+     */
+    public void invalidate(int customerId) {
+        entries.remove(customerId);
+    }
+
+    /**
+     * Clears the whole cache.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * A cached count with the time it was read from the database.
+     */
+    private static final class Entry {
+        private final int count;
+        private final long loadedAt;
+
+        private Entry(int count) {
+            this(count, System.currentTimeMillis());
+        }
+
+        private Entry(int count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() - loadedAt >= Constants.LOYALTY_CACHE_TTL_MS;
+        }
+    }
+}
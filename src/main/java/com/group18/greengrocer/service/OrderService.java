@@ -1,13 +1,18 @@
 package com.group18.greengrocer.service;
 
 import com.group18.greengrocer.dao.CarrierRatingDAO;
+import com.group18.greengrocer.dao.CouponDAO;
+import com.group18.greengrocer.dao.DAOFactory;
 import com.group18.greengrocer.dao.OrderDAO;
 import com.group18.greengrocer.dao.ProductDAO;
+import com.group18.greengrocer.dao.ReportDAO;
 import com.group18.greengrocer.model.CarrierRating;
 import com.group18.greengrocer.model.CartItem;
 import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Page;
 import com.group18.greengrocer.model.Product;
-import com.group18.greengrocer.util.PDFGenerator;
+import com.group18.greengrocer.model.ReportData;
+import com.group18.greengrocer.util.Constants;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -18,34 +23,65 @@ public class OrderService {
     private final OrderDAO orderDAO;
     private final ProductDAO productDAO;
     private final DiscountService discountService;
+    private final ReportDAO reportDAO;
+    private final InvoiceService invoiceService;
 
     private final List<CartItem> cart;
 
     // === CUSTOMER CART STORAGE (USER-BASED) ===
-    private static final java.util.Map<Integer, Order> userCarts = new java.util.HashMap<>();
+    // Shared, thread-safe store; carts (with their running price quotes) expire when idle
+    private final CartStore cartStore;
 
     public OrderService() {
-        this.orderDAO = new OrderDAO();
-        this.productDAO = new ProductDAO();
-        this.discountService = new DiscountService();
+        this(DAOFactory.getInstance().getOrderDAO(), DAOFactory.getInstance().getProductDAO(),
+                DAOFactory.getInstance().getCouponDAO());
+    }
+
+    /**
+     * Creates an order service on the given DAOs (e.g. in-memory ones for load tests).
+     * The shared caches, the cart store and the invoice service are taken from the
+     * current {@link DAOFactory} backend, so the DAOs should come from that backend too.
+     *
+     * @param orderDAO   Order storage.
+     * @param productDAO Product storage.
+     * @param couponDAO  Coupon storage.
+     */
+    public OrderService(OrderDAO orderDAO, ProductDAO productDAO, CouponDAO couponDAO) {
+        this.orderDAO = orderDAO;
+        this.productDAO = productDAO;
+        this.discountService = new DiscountService(couponDAO);
+        this.reportDAO = ReportDAO.getInstance();
+        this.invoiceService = InvoiceService.getInstance();
+        this.cartStore = CartStore.getInstance();
         this.cart = new ArrayList<>();
     }
 
     /**
      * Retrieves the current active shopping cart for a user.
      * If no active cart exists, creates a new pending order.
+     * <p>
+     * The returned order is a copy taken under the cart's lock: change the cart through
+     * {@link #addToCart}, {@link #removeFromCart} and {@link #updateCartItemQuantity};
+     * the copy may be priced and passed to {@link #checkout(Order)}.
      * 
      * @param userId The ID of the customer.
-     * @return The Order object representing the cart.
+     * @return A copy of the cart as an Order object.
      */
     // ASSIGNED TO: Customer
     public Order getCart(int userId) {
-        return userCarts.computeIfAbsent(userId, id -> {
-            Order cartOrder = new Order();
-            cartOrder.setCustomerId(id);
-            cartOrder.setItems(new ArrayList<>());
-            return cartOrder;
-        });
+        return cartStore.snapshot(userId);
+    }
+
+    /**
+     * Retrieves the running price quote of a user's cart.
+     * Created on first use; afterwards it is updated by every cart change.
+     *
+     * @param userId The ID of the customer.
+     * @return The quote of the current cart.
+     */
+    // ASSIGNED TO: Customer
+    public CartQuote getQuote(int userId) {
+        return cartStore.getQuote(userId, discountService::createQuote);
     }
 
     /**
@@ -72,36 +108,26 @@ public class OrderService {
             }
         }
 
-        Order cartOrder = getCart(userId);
-        List<CartItem> cart = cartOrder.getItems();
+        cartStore.update(userId, cart -> {
+            CartItem existing = cart.get(productId);
+            double alreadyInCart = existing != null ? existing.getQuantity() : 0;
 
-        double alreadyInCart = 0;
-        for (CartItem item : cart) {
-            if (item.getProduct().getId() == productId) {
-                alreadyInCart = item.getQuantity();
-                break;
-            }
-        }
+            if (product.getStock() < alreadyInCart + amount)
+                throw new IllegalStateException("Insufficient stock.");
 
-        if (product.getStock() < alreadyInCart + amount)
-            throw new IllegalStateException("Insufficient stock.");
-
-        for (CartItem item : cart) {
-            if (item.getProduct().getId() == productId) {
-                item.setQuantity(item.getQuantity() + amount);
+            if (existing != null) {
+                existing.setQuantity(alreadyInCart + amount);
+                cart.changed(existing);
                 return;
             }
-        }
 
-        double price = product.getPrice();
-        // Apple threshold logic immediately for better UX
-        if (product.getStock() <= product.getThreshold()) {
-            price *= 2.0;
-        }
+            // Apply threshold logic immediately for better UX (same kernel as checkout)
+            double price = DiscountService.unitPrice(product);
 
-        CartItem newItem = new CartItem(product, amount);
-        newItem.setPriceAtPurchase(price);
-        cart.add(newItem);
+            CartItem newItem = new CartItem(product, amount);
+            newItem.setPriceAtPurchase(price);
+            cart.add(newItem);
+        });
     }
 
     /**
@@ -112,10 +138,7 @@ public class OrderService {
      */
     // ASSIGNED TO: Customer
     public void removeFromCart(int userId, int productId) {
-        Order cartOrder = getCart(userId);
-        cartOrder.getItems().removeIf(
-                item -> item.getProduct() != null &&
-                        item.getProduct().getId() == productId);
+        cartStore.update(userId, cart -> cart.remove(productId));
     }
 
     /**
@@ -144,14 +167,13 @@ public class OrderService {
             }
         }
 
-        Order cartOrder = getCart(userId);
-
-        for (CartItem item : cartOrder.getItems()) {
-            if (item.getProduct().getId() == productId) {
+        cartStore.update(userId, cart -> {
+            CartItem item = cart.get(productId);
+            if (item != null) {
                 item.setQuantity(amount);
-                return;
+                cart.changed(item);
             }
-        }
+        });
     }
 
     /**
@@ -159,7 +181,8 @@ public class OrderService {
      * Validates stock, calculates final price including VAT and discounts, and
      * updates order status.
      * 
-     * @param order The order to be checked out.
+     * @param order The order to be checked out: a cart copy from {@link #getCart(int)}
+     *              (it receives the prices, total and ID of the placed order).
      */
     // ASSIGNED TO: Customer
     public void checkout(Order order) {
@@ -171,9 +194,15 @@ public class OrderService {
 
         // 1. Validation & Price Calculation
         // Note: DiscountService handles price logic, but we must ensure we are using
-        // fresh data.
+        // fresh data. All products of the cart are read with one query.
+        List<Integer> productIds = new ArrayList<>();
+        for (CartItem item : cart) {
+            productIds.add(item.getProduct().getId());
+        }
+        java.util.Map<Integer, Product> freshProducts = productDAO.findByIds(productIds);
+
         for (CartItem item : cart) {
-            Product product = productDAO.findById(item.getProduct().getId());
+            Product product = freshProducts.get(item.getProduct().getId());
             if (product == null) {
                 throw new IllegalStateException("Product no longer exists: " + item.getProduct().getName());
             }
@@ -182,15 +211,7 @@ public class OrderService {
             }
             // Update item with fresh product data for accurate pricing
             item.setProduct(product);
-            double currentPrice = product.getPrice();
-
-            // Logic moved to DiscountService
-            // if (product.getStock() <= product.getThreshold()) {
-            // currentPrice *= 2.0;
-            // }
-
-            item.setPriceAtPurchase(currentPrice);
-
+            item.setPriceAtPurchase(product.getPrice());
         }
 
         // 2. Final Price Calculation (includes Coupon & Loyalty & Thresholds)
@@ -198,57 +219,24 @@ public class OrderService {
         order.setTotalCost(finalTotal);
         order.setOrderTime(new java.sql.Timestamp(System.currentTimeMillis()));
         order.setStatus(Order.Status.WAITING);
-        order.setItems(new ArrayList<>(cart));
-
-        // 3. Coupon Consumption (Critical Step)
-        Integer couponId = order.getUsedCouponId();
-        if (couponId != null) {
-            com.group18.greengrocer.dao.CouponDAO couponDAO = new com.group18.greengrocer.dao.CouponDAO();
-            // Optional check: ensure it's still valid right now?
-            // Deactivate it to prevent reuse (assuming single-use coupons)
-            boolean processed = couponDAO.deactivateCoupon(couponId);
-            if (!processed) {
-                // Determine if this should block checkout?
-                // If logic implies coupons are strictly one-time, we should block.
-                // For now, let's log/throw to be safe.
-                throw new IllegalStateException("Coupon could not be processed (maybe already used?).");
-            }
-        }
-
-        // 4. Generate Invoice
-        String invoiceBase64 = PDFGenerator.generateInvoice(order);
-        order.setInvoice(invoiceBase64);
 
-        // 5. Create Order in DB (Transaction safety would be ideal in DAO, but here we
-        // coordinate)
+        // 3. Create Order in DB
+        // Stock is reserved and the (single-use) coupon consumed inside the same
+        // transaction, so a concurrent checkout cannot oversell a product or reuse the
+        // coupon, and a rejected checkout keeps the customer's coupon.
         boolean created = orderDAO.createOrder(order);
         if (!created) {
-            // Rollback coupon usage if order fails?
-            if (couponId != null) {
-                // Technically we should reactive it, but strict systems might require manual
-                // intervention.
-                // For this assignment, we throw exception.
-            }
             throw new IllegalStateException("Order could not be created.");
         }
 
-        // 6. Deduct Stock
-        for (CartItem item : cart) {
-            Product p = productDAO.findById(item.getProduct().getId());
-            if (p != null) {
-                // Logic check: stock might have changed since step 1?
-                // In a high-concurrency real app, we'd need database-level locking.
-                // Here, we do a best-effort update.
-                double newStock = p.getStock() - item.getQuantity();
-                if (newStock < 0)
-                    newStock = 0; // Usage safety
-                p.setStock(newStock);
-                productDAO.update(p);
-            }
-        }
+        // 4. Render the invoice in the background (the order is already committed)
+        invoiceService.submit(order.getId());
+
+        // 5. Publish the reserved stock to the in-memory catalog
+        ProductCatalogCache.getInstance().refresh(productIds);
 
-        // 7. Clear Cart
-        userCarts.remove(order.getCustomerId());
+        // 6. Clear Cart
+        cartStore.remove(order.getCustomerId());
     }
 
     /**
@@ -269,6 +257,8 @@ public class OrderService {
         boolean success = orderDAO.approveOrder(orderId);
         if (!success)
             throw new IllegalStateException("Could not approve order.");
+
+        invoiceService.submit(orderId);
     }
 
     /**
@@ -298,6 +288,7 @@ public class OrderService {
                     "Order is no longer available (RECEIVED) or already selected by another carrier.");
         }
 
+        invoiceService.submit(orderId);
     }
 
     /**
@@ -327,6 +318,9 @@ public class OrderService {
         if (!success) {
             throw new IllegalStateException("Failed to complete the order.");
         }
+
+        LoyaltyCache.getInstance().orderDelivered(order.getCustomerId());
+        invoiceService.submit(orderId);
     }
 
     /**
@@ -342,6 +336,9 @@ public class OrderService {
             // It might have failed if status wasn't DELIVERED, which is fine, we just
             // ignore.
             System.out.println("Could not dismiss order #" + orderId + " (maybe already dismissed?)");
+        } else {
+            // DELIVERED -> COMPLETED: both count as delivered, so the loyalty tier is unchanged
+            invoiceService.submit(orderId);
         }
     }
 
@@ -365,24 +362,27 @@ public class OrderService {
         }
 
         if (order.getStatus() != Order.Status.WAITING) {
-            throw new IllegalStateException("You cannot cancel an order that has been approved or is being prepared.");
+            throw new IllegalStateException(
+                    "You cannot cancel an order that has been approved, is being prepared or was delivered.");
         }
 
-        // CANCEL ORDER
-        orderDAO.cancelOrder(orderId);
+        // CANCEL ORDER (conditional; the stock is restored in the same transaction,
+        // so only the call that really cancels returns it)
+        boolean cancelled = orderDAO.cancelOrder(orderId);
+        if (!cancelled) {
+            throw new IllegalStateException("Order could not be cancelled (it may have changed meanwhile).");
+        }
         order.setStatus(Order.Status.CANCELLED);
 
-        // RESTORE STOCK
+        List<Integer> restored = new ArrayList<>();
         for (CartItem item : order.getItems()) {
-
-            Product product = productDAO.findById(item.getProduct().getId());
-            if (product == null) {
-                continue;
+            if (item.getProduct() != null) {
+                restored.add(item.getProduct().getId());
             }
-
-            product.setStock(product.getStock() + item.getQuantity());
-            productDAO.update(product);
         }
+        ProductCatalogCache.getInstance().refresh(restored);
+
+        invoiceService.submit(orderId);
     }
 
     // ASSIGNED TO: Owner
@@ -393,6 +393,18 @@ public class OrderService {
         return orderDAO.findAllOrders();
     }
 
+    // ASSIGNED TO: Owner
+    /**
+     * Retrieves one page of orders (newest first) for the owner's order table.
+     *
+     * @param statuses          Only orders in these statuses (null/empty = all).
+     * @param continuationToken Token of the previous page, or null for the first page.
+     * @return The page of orders.
+     */
+    public Page<Order> getOrdersPageForOwner(java.util.Collection<Order.Status> statuses, String continuationToken) {
+        return orderDAO.findOrdersPage(null, statuses, continuationToken, Constants.ORDER_PAGE_SIZE);
+    }
+
     /**
      * Allows a customer to rate a completed order/carrier.
      * 
@@ -465,7 +477,9 @@ public class OrderService {
         com.group18.greengrocer.dao.ProductRatingDAO dao = new com.group18.greengrocer.dao.ProductRatingDAO();
         com.group18.greengrocer.model.ProductRating pr = new com.group18.greengrocer.model.ProductRating(orderId, customerId,
                 productId, rating);
-        dao.addRating(pr);
+        if (dao.addRating(pr)) {
+            ProductRatingCache.getInstance().invalidate();
+        }
     }
     
     /**
@@ -512,43 +526,30 @@ public class OrderService {
     }
 
     /**
-     * Generates or retrieves the textual invoice for an order.
-     * Invoice is stored as CLOB in DB.
+     * Retrieves one page of a carrier's orders (newest first), including carrier ratings.
+     *
+     * @param carrierId         The ID of the carrier.
+     * @param statuses          Only orders in these statuses (null/empty = all).
+     * @param continuationToken Token of the previous page, or null for the first page.
+     * @return The page of orders.
+     */
+    // ASSIGNED TO: Carrier
+    public Page<Order> getOrdersPageByCarrier(int carrierId, java.util.Collection<Order.Status> statuses,
+            String continuationToken) {
+        return orderDAO.findOrdersPage(carrierId, statuses, continuationToken, Constants.ORDER_PAGE_SIZE);
+    }
+
+    /**
+     * Retrieves the PDF invoice of an order.
+     * The invoice is rendered in the background after checkout and re-rendered on
+     * every status change, so the stored copy reflects the current status.
      * 
      * @param orderId The ID of the order.
-     * @return The invoice text content.
+     * @return The PDF document bytes.
      */
     // ASSIGNED TO: Carrier (Documentation Specialist)
-    public String getInvoice(int orderId) {
-        Order order = orderDAO.findOrderById(orderId);
-
-        if (order == null) {
-            throw new IllegalArgumentException("Order not found.");
-        }
-
-        // Regenerate invoice dynamically to reflect current status (e.g. Cancelled)
-        return PDFGenerator.generateInvoice(order);
-    }
-
-    private String generateInvoiceText(Order order) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("INVOICE\n");
-        sb.append("Order ID: ").append(order.getId()).append("\n");
-        sb.append("Customer ID: ").append(order.getCustomerId()).append("\n\n");
-
-        for (CartItem item : order.getItems()) {
-            sb.append(item.getProduct().getName())
-                    .append(" x ")
-                    .append(item.getQuantity())
-                    .append(" = ")
-                    .append(item.getTotalPrice())
-                    .append("\n");
-        }
-
-        sb.append("\nTOTAL (VAT included): ")
-                .append(order.getTotalCost());
-
-        return sb.toString();
+    public byte[] getInvoice(int orderId) {
+        return invoiceService.getInvoice(orderId);
     }
 
     // ============================================
@@ -561,20 +562,9 @@ public class OrderService {
      * @return Map<ProductName, TotalRevenue>
      */
     public java.util.Map<String, Double> getRevenueByProduct() {
-        List<Order> allOrders = orderDAO.findAllOrders();
         java.util.Map<String, Double> map = new java.util.HashMap<>();
-
-        for (Order o : allOrders) {
-            if (o.getStatus() == Order.Status.CANCELLED)
-                continue; // Skip cancelled
-
-            for (CartItem item : o.getItems()) {
-                if (item.getProduct() != null) {
-                    String name = item.getProduct().getName();
-                    double revenue = item.getQuantity() * item.getPriceAtPurchase();
-                    map.put(name, map.getOrDefault(name, 0.0) + revenue);
-                }
-            }
+        for (ReportData row : reportDAO.getRevenueByProductName()) {
+            map.put(row.getLabel(), row.getValue());
         }
         return map;
     }
@@ -585,19 +575,9 @@ public class OrderService {
      * @return Map<DateString, TotalRevenue> sorted by date
      */
     public java.util.Map<String, Double> getRevenueOverTime() {
-        List<Order> allOrders = orderDAO.findAllOrders();
         java.util.TreeMap<String, Double> map = new java.util.TreeMap<>(); // Sorted by date string
-
-        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd");
-
-        for (Order o : allOrders) {
-            if (o.getStatus() == Order.Status.CANCELLED)
-                continue; // Skip cancelled
-
-            if (o.getOrderTime() != null) {
-                String dateKey = sdf.format(o.getOrderTime());
-                map.put(dateKey, map.getOrDefault(dateKey, 0.0) + o.getTotalCost());
-            }
+        for (ReportData row : reportDAO.getRevenueByDay()) {
+            map.put(row.getLabel(), row.getValue());
         }
         return map;
     }
@@ -608,20 +588,9 @@ public class OrderService {
      * @return Map<CategoryName, TotalRevenue>
      */
     public java.util.Map<String, Double> getSalesByCategory() {
-        List<Order> allOrders = orderDAO.findAllOrders();
         java.util.Map<String, Double> map = new java.util.HashMap<>();
-
-        for (Order o : allOrders) {
-            if (o.getStatus() == Order.Status.CANCELLED)
-                continue; // Skip cancelled
-
-            for (CartItem item : o.getItems()) {
-                if (item.getProduct() != null && item.getProduct().getCategory() != null) {
-                    String cleanName = item.getProduct().getCategory().name();
-                    double revenue = item.getQuantity() * item.getPriceAtPurchase();
-                    map.put(cleanName, map.getOrDefault(cleanName, 0.0) + revenue);
-                }
-            }
+        for (ReportData row : reportDAO.getRevenueByCategory()) {
+            map.put(row.getLabel(), row.getValue());
         }
         return map;
     }
@@ -630,42 +599,42 @@ public class OrderService {
      * Calculates total revenue from all non-cancelled orders.
      */
     public double getTotalRevenue() {
-        return orderDAO.findAllOrders().stream()
-                .filter(o -> o.getStatus() != Order.Status.CANCELLED)
-                .mapToDouble(Order::getTotalCost)
-                .sum();
+        return reportDAO.getTotalRevenue();
     }
 
     /**
      * Counts total non-cancelled orders.
      */
     public int getTotalOrdersCount() {
-        return (int) orderDAO.findAllOrders().stream()
-                .filter(o -> o.getStatus() != Order.Status.CANCELLED)
-                .count();
+        return reportDAO.getTotalOrderCount();
     }
 
     /**
      * Counts unique customers who have placed at least one non-cancelled order.
      */
     public int getActiveCustomersCount() {
-        return (int) orderDAO.findAllOrders().stream()
-                .filter(o -> o.getStatus() != Order.Status.CANCELLED)
-                .map(Order::getCustomerId)
-                .distinct()
-                .count();
+        return reportDAO.getActiveCustomerCount();
     }
 
     /**
      * Calculates order status distribution.
+     * Raw DB statuses are mapped to their display names (e.g. RECEIVED and AVAILABLE
+     * both count as "Received"); unknown or missing statuses count as "Waiting".
      */
     public java.util.Map<String, Integer> getOrderStatusDistribution() {
-        List<Order> allOrders = orderDAO.findAllOrders();
         java.util.Map<String, Integer> map = new java.util.HashMap<>();
-        
-        for (Order o : allOrders) {
-            String status = o.getStatus().toString();
-            map.put(status, map.getOrDefault(status, 0) + 1);
+
+        for (ReportData row : reportDAO.getOrderCountByStatus()) {
+            Order.Status status = Order.Status.WAITING;
+            if (row.getLabel() != null) {
+                try {
+                    status = Order.Status.valueOf(row.getLabel().trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    // Same fallback as OrderDAO.mapOrder
+                }
+            }
+            String key = status.toString();
+            map.put(key, map.getOrDefault(key, 0) + (int) row.getValue());
         }
         return map;
     }
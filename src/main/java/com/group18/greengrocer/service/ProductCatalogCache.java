@@ -0,0 +1,532 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.ProductDAO;
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Product;
+import com.group18.greengrocer.util.Constants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ProductCatalogCache
+ * Keeps the active product catalog (all products that are not soft-deleted) in memory.
+ *
+ * Customer browsing, category filters and name search are answered from a
+ * {@link Catalog} that is indexed by id, by category and by lowercase name
+ * n-grams (every substring of length 1..3 of every name). Writes made through
+ * {@link ProductService} and {@link OrderService} patch the cache, so the
+ * database is only read on the first access, after {@link #invalidate()} and once
+ * per {@link Constants#PRODUCT_CACHE_TTL_MS} (to pick up changes made outside this
+ * application).
+ *
+ * A patch only touches the index buckets of the changed product: a stock change
+ * (checkout, cancellation, restock) replaces the product entry and leaves every
+ * bucket alone, a rename or category change copies just the buckets the old and
+ * new name/category belong to. Buckets are immutable arrays that are replaced as a
+ * whole (copy-on-write), so readers never lock.
+ *
+ * Returned products are copies without image bytes; callers may modify them freely.
+ *
+ * Implements the Singleton pattern so all screens share one catalog.
+ */
+public class ProductCatalogCache {
+
+    /** Longest n-gram stored in the name index. Longer keywords use their rarest trigram. */
+    private static final int MAX_GRAM = 3;
+
+    private static final int[] NO_MATCH = new int[0];
+
+    /** Display order: name (case-insensitive), then id. */
+    private static final Comparator<Entry> DISPLAY_ORDER = Comparator
+            .comparing((Entry e) -> e.product.getName(), String.CASE_INSENSITIVE_ORDER)
+            .thenComparingInt(e -> e.product.getId());
+
+    private static ProductCatalogCache instance;
+
+    // Backend the DAO below was taken from
+    private final DAOFactory factory;
+    private final ProductDAO productDAO;
+
+    private volatile Catalog catalog;
+
+    /**
+     * Numbers every database read (full loads and refreshes) in the order it was
+     * started, so an older read can never overwrite the result of a newer one.
+     */
+    private final AtomicLong readSequence = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong patches = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private ProductCatalogCache(DAOFactory factory) {
+        this.factory = factory;
+        this.productDAO = factory.getProductDAO();
+    }
+
+    /**
+     * Retrieves the single instance of ProductCatalogCache.
+     * After a switch of the DAO backend a new, empty cache on the new backend is returned.
+     *
+     * @return The singleton instance.
+     */
+    public static synchronized ProductCatalogCache getInstance() {
+        DAOFactory factory = DAOFactory.getInstance();
+        if (instance == null || instance.factory != factory) {
+            instance = new ProductCatalogCache(factory);
+        }
+        return instance;
+    }
+
+    /* -------------------------
+       Reads
+       ------------------------- */
+
+    /**
+     * Returns all products with stock > 0, sorted by name (case-insensitive).
+     *
+     * @return A new list of product copies.
+     */
+    public List<Product> getAvailableProducts() {
+        Catalog c = current();
+        return collectAvailable(c, c.all, null, null);
+    }
+
+    /**
+     * Returns the products of a category with stock > 0, sorted by name.
+     *
+     * @param category The category.
+     * @return A new list of product copies.
+     */
+    public List<Product> getAvailableByCategory(Category category) {
+        Catalog c = current();
+        return collectAvailable(c, c.byCategory.getOrDefault(category, NO_MATCH), category, null);
+    }
+
+    /**
+     * Returns the products with stock > 0 whose name contains the keyword
+     * (case-insensitive), sorted by name.
+     *
+     * @param keyword The search keyword (already trimmed, not empty).
+     * @return A new list of product copies.
+     */
+    public List<Product> searchAvailable(String keyword) {
+        String key = keyword.toLowerCase(Locale.ROOT);
+        Catalog c = current();
+
+        int[] candidates;
+        if (key.length() <= MAX_GRAM) {
+            candidates = c.grams.getOrDefault(key, NO_MATCH);
+        } else {
+            // Every match contains all trigrams of the keyword -> scan the shortest postings
+            candidates = null;
+            for (int i = 0; i + MAX_GRAM <= key.length(); i++) {
+                int[] postings = c.grams.getOrDefault(key.substring(i, i + MAX_GRAM), NO_MATCH);
+                if (candidates == null || postings.length < candidates.length) {
+                    candidates = postings;
+                }
+            }
+        }
+
+        // Candidates are always verified, so a reader racing with a rename never sees a stale match
+        return collectAvailable(c, candidates, null, key);
+    }
+
+    /**
+     * Returns a product of the active catalog by id, regardless of its stock.
+     *
+     * @param productId The product id.
+     * @return A copy of the product, or null if it is not in the catalog.
+     */
+    public Product getById(int productId) {
+        Entry e = current().byId.get(productId);
+        return e == null ? null : copyOf(e.product);
+    }
+
+    /* -------------------------
+       Write-through patches
+       ------------------------- */
+
+    /**
+     * Inserts or replaces a product after it was written to the database.
+     *
+     * @param product The product as stored.
+     */
+    public synchronized void put(Product product) {
+        Catalog c = catalog;
+        if (c == null) {
+            return; // nothing loaded yet, the next read loads the current state
+        }
+        c.apply(product.getId(), product, readSequence.incrementAndGet());
+        patches.incrementAndGet();
+    }
+
+    /**
+     * Removes a product (deleted or archived) from the catalog.
+     *
+     * @param productId The product id.
+     */
+    public synchronized void remove(int productId) {
+        Catalog c = catalog;
+        if (c == null) {
+            return;
+        }
+        c.apply(productId, null, readSequence.incrementAndGet());
+        patches.incrementAndGet();
+    }
+
+    /**
+     * Re-reads the given products from the database and replaces them in the catalog.
+     * Used after stock changes (checkout, cancellation, restock): reading the
+     * committed row instead of applying the delta in memory keeps the cache correct
+     * even if a reload raced with the write.
+     * <p>
+     * The database is read before the cache is locked, so readers and other writers
+     * never wait for this round trip. A result that is older than what the cache
+     * already holds for a product (a concurrent reload or refresh started later) is
+     * dropped for that product.
+     *
+     * @param productIds The ids of the changed products.
+     */
+    public void refresh(Collection<Integer> productIds) {
+        if (catalog == null || productIds.isEmpty()) {
+            return;
+        }
+        long sequence = readSequence.incrementAndGet();
+        Map<Integer, Product> fresh = productDAO.findByIds(productIds);
+
+        synchronized (this) {
+            Catalog c = catalog;
+            if (c == null) {
+                return;
+            }
+            for (Integer id : productIds) {
+                c.apply(id, fresh.get(id), sequence);
+            }
+            patches.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops the whole catalog; the next read reloads it from the database.
+     */
+    public synchronized void invalidate() {
+        catalog = null;
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Returns a snapshot of the cache metrics.
+     *
+     * @return The current statistics.
+     */
+    public Stats getStats() {
+        Catalog c = catalog;
+        return new Stats(hits.get(), misses.get(), patches.get(), invalidations.get(),
+                c == null ? 0 : c.byId.size());
+    }
+
+    /* -------------------------
+       Internals
+       ------------------------- */
+
+    private Catalog current() {
+        Catalog c = catalog;
+        if (c != null && System.currentTimeMillis() - c.loadedAt < Constants.PRODUCT_CACHE_TTL_MS) {
+            hits.incrementAndGet();
+            return c;
+        }
+        synchronized (this) {
+            c = catalog;
+            if (c != null && System.currentTimeMillis() - c.loadedAt < Constants.PRODUCT_CACHE_TTL_MS) {
+                hits.incrementAndGet();
+                return c;
+            }
+            misses.incrementAndGet();
+            long sequence = readSequence.incrementAndGet();
+            c = new Catalog(productDAO.findAll(), System.currentTimeMillis(), sequence);
+            catalog = c;
+            return c;
+        }
+    }
+
+    private static List<Product> collectAvailable(Catalog c, int[] ids, Category category, String verifyKey) {
+        List<Product> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Entry e = c.byId.get(id);
+            if (e == null || e.product.getStock() <= 0) {
+                continue;
+            }
+            if (category != null && e.product.getCategory() != category) {
+                continue;
+            }
+            if (verifyKey != null && !e.lowerName.contains(verifyKey)) {
+                continue;
+            }
+            result.add(copyOf(e.product));
+        }
+        return result;
+    }
+
+    /** Products with a missing name or soft-deleted ones are not part of the catalog. */
+    private static boolean isListed(Product p) {
+        return p != null && p.getName() != null && !p.getName().startsWith("DELETED-");
+    }
+
+    /** Distinct lowercase n-grams of length 1..MAX_GRAM of a name. */
+    private static Set<String> gramsOf(String lowerName) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int len = 1; len <= MAX_GRAM; len++) {
+            for (int i = 0; i + len <= lowerName.length(); i++) {
+                grams.add(lowerName.substring(i, i + len));
+            }
+        }
+        return grams;
+    }
+
+    private static Product copyOf(Product p) {
+        Product copy = new Product(p.getId(), p.getName(), p.getCategory(), p.getType(), p.getPrice(),
+                p.getStock(), p.getThreshold(), null, p.getUnit());
+        copy.setImageHash(p.getImageHash());
+        return copy;
+    }
+
+    /** A catalog product (without image bytes) and its lowercase name. */
+    private static final class Entry {
+        private final Product product;
+        private final String lowerName;
+
+        private Entry(Product product) {
+            this.product = product.getImage() == null ? product : copyOf(product);
+            this.lowerName = product.getName().toLowerCase(Locale.ROOT);
+        }
+
+        private boolean sameIndexKeys(Entry other) {
+            return product.getName().equals(other.product.getName())
+                    && product.getCategory() == other.product.getCategory();
+        }
+    }
+
+    /**
+     * Indexed view of the catalog. Every index bucket is an immutable array of product
+     * ids in display order; writers (holding the cache monitor) replace single
+     * buckets, readers never lock. An id found in a bucket is always looked up in
+     * {@link #byId} again, so a reader that races with a patch skips removed
+     * products and verifies the category/name it searched for.
+     */
+    private static final class Catalog {
+        private final long loadedAt;
+        private final long loadSequence;
+        private final Map<Integer, Entry> byId = new ConcurrentHashMap<>();
+        private final Map<Category, int[]> byCategory = new ConcurrentHashMap<>();
+        private final Map<String, int[]> grams = new ConcurrentHashMap<>();
+        private volatile int[] all;
+
+        /** Read sequence of the last change applied per product (guarded by the cache monitor). */
+        private final Map<Integer, Long> versions = new HashMap<>();
+
+        /** Bulk build from a full load. */
+        private Catalog(List<Product> source, long loadedAt, long loadSequence) {
+            this.loadedAt = loadedAt;
+            this.loadSequence = loadSequence;
+
+            List<Entry> sorted = new ArrayList<>(source.size());
+            for (Product p : source) {
+                if (isListed(p)) {
+                    sorted.add(new Entry(p));
+                }
+            }
+            sorted.sort(DISPLAY_ORDER);
+
+            int[] ids = new int[sorted.size()];
+            Map<Category, List<Integer>> categories = new EnumMap<>(Category.class);
+            Map<String, List<Integer>> gramLists = new HashMap<>();
+            for (int pos = 0; pos < sorted.size(); pos++) {
+                Entry e = sorted.get(pos);
+                int id = e.product.getId();
+                ids[pos] = id;
+                byId.put(id, e);
+                if (e.product.getCategory() != null) {
+                    categories.computeIfAbsent(e.product.getCategory(), k -> new ArrayList<>()).add(id);
+                }
+                for (String gram : gramsOf(e.lowerName)) {
+                    gramLists.computeIfAbsent(gram, g -> new ArrayList<>()).add(id);
+                }
+            }
+
+            this.all = ids;
+            categories.forEach((category, list) -> byCategory.put(category, toArray(list)));
+            gramLists.forEach((gram, list) -> grams.put(gram, toArray(list)));
+        }
+
+        /**
+         * Applies the database state of one product read with the given sequence.
+         * Must be called while holding the cache monitor.
+         *
+         * @param id       The product id.
+         * @param product  The product as stored, or null if it no longer exists.
+         * @param sequence The read sequence of {@code product}.
+         */
+        private void apply(int id, Product product, long sequence) {
+            if (sequence <= versions.getOrDefault(id, loadSequence)) {
+                return; // the cache already holds a newer read of this product
+            }
+            versions.put(id, sequence);
+
+            Entry old = byId.get(id);
+            Entry updated = isListed(product) ? new Entry(product) : null;
+
+            if (updated == null) {
+                if (old != null) {
+                    unindex(old);
+                    byId.remove(id);
+                }
+            } else if (old != null && old.sameIndexKeys(updated)) {
+                byId.put(id, updated); // e.g. a stock change: same buckets, same order
+            } else {
+                if (old != null) {
+                    unindex(old);
+                }
+                byId.put(id, updated);
+                index(updated);
+            }
+        }
+
+        private void index(Entry e) {
+            all = insert(all, e);
+            if (e.product.getCategory() != null) {
+                byCategory.put(e.product.getCategory(),
+                        insert(byCategory.getOrDefault(e.product.getCategory(), NO_MATCH), e));
+            }
+            for (String gram : gramsOf(e.lowerName)) {
+                grams.put(gram, insert(grams.getOrDefault(gram, NO_MATCH), e));
+            }
+        }
+
+        private void unindex(Entry e) {
+            int id = e.product.getId();
+            all = without(all, id);
+            if (e.product.getCategory() != null) {
+                replace(byCategory, e.product.getCategory(), without(byCategory.get(e.product.getCategory()), id));
+            }
+            for (String gram : gramsOf(e.lowerName)) {
+                replace(grams, gram, without(grams.get(gram), id));
+            }
+        }
+
+        /** Copy of a bucket with the entry inserted at its display position. */
+        private int[] insert(int[] bucket, Entry e) {
+            int lo = 0, hi = bucket.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (DISPLAY_ORDER.compare(byId.get(bucket[mid]), e) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            int[] out = new int[bucket.length + 1];
+            System.arraycopy(bucket, 0, out, 0, lo);
+            out[lo] = e.product.getId();
+            System.arraycopy(bucket, lo, out, lo + 1, bucket.length - lo);
+            return out;
+        }
+
+        /** Copy of a bucket without the id. */
+        private static int[] without(int[] bucket, int id) {
+            if (bucket == null) {
+                return NO_MATCH;
+            }
+            for (int i = 0; i < bucket.length; i++) {
+                if (bucket[i] == id) {
+                    int[] out = new int[bucket.length - 1];
+                    System.arraycopy(bucket, 0, out, 0, i);
+                    System.arraycopy(bucket, i + 1, out, i, bucket.length - i - 1);
+                    return out;
+                }
+            }
+            return bucket;
+        }
+
+        private static <K> void replace(Map<K, int[]> index, K key, int[] bucket) {
+            if (bucket.length == 0) {
+                index.remove(key);
+            } else {
+                index.put(key, bucket);
+            }
+        }
+
+        private static int[] toArray(List<Integer> list) {
+            int[] out = new int[list.size()];
+            for (int i = 0; i < out.length; i++) {
+                out[i] = list.get(i);
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Point-in-time cache metrics.
+     * A hit is a read served from memory; a miss is a read that (re)loaded the
+     * catalog from the database.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long patches;
+        private final long invalidations;
+        private final int size;
+
+        private Stats(long hits, long misses, long patches, long invalidations, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.patches = patches;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getPatches() {
+            return patches;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ProductCatalogCache[size=%d, hits=%d, misses=%d, hitRate=%.1f%%, patches=%d, invalidations=%d]",
+                    size, hits, misses, getHitRate() * 100, patches, invalidations);
+        }
+    }
+}
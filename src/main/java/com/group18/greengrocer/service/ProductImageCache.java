@@ -0,0 +1,366 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Product;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * ProductImageCache
+ * Shares decoded product images between all screens.
+ *
+ * Images are decoded directly at the size they are displayed (e.g. the 120x100
+ * product card), so a cached entry only holds the pixels that are actually shown.
+ * Entries are keyed by product id, image hash and size: a changed image has a new
+ * hash and therefore never hits an outdated entry. The cache keeps the most recently
+ * used images up to {@link #MAX_PIXEL_BYTES} of decoded pixel memory.
+ *
+ * Misses are decoded on a small worker pool, never on the JavaFX thread. The raw
+ * bytes come from {@link ProductImageStore}; products without a stored image fall back
+ * to the bundled resource of the same name and then to the category picture.
+ *
+ * Implements the Singleton pattern so all screens share one cache.
+ */
+public class ProductImageCache {
+
+    /** Upper bound for the decoded pixel memory of all cached images (32 MB, 4 bytes per pixel). */
+    private static final long MAX_PIXEL_BYTES = 32L * 1024 * 1024;
+
+    /** Number of image decoding threads. */
+    private static final int DECODER_THREADS = 2;
+
+    private static final String RESOURCE_BASE_PATH = "/com/group18/greengrocer/images/products/";
+
+    private static ProductImageCache instance;
+
+    // Access-ordered map -> iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long pixelBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // Decodes that are running, so the same image is never decoded twice at once
+    private final Map<String, CompletableFuture<Image>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService decoder;
+
+    private ProductImageCache() {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.decoder = Executors.newFixedThreadPool(DECODER_THREADS, r -> {
+            Thread t = new Thread(r, "image-decoder-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Retrieves the single instance of ProductImageCache.
+     *
+     * @return The singleton instance.
+     */
+    public static synchronized ProductImageCache getInstance() {
+        if (instance == null) {
+            instance = new ProductImageCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the decoded image of a product, decoding it on a worker thread on a miss.
+     * <p>
+     * On a hit the callback runs immediately on the calling thread; otherwise it runs
+     * on the JavaFX thread once the image is decoded. It is not called if no image
+     * could be decoded.
+     *
+     * @param product  The product.
+     * @param width    Requested width in pixels.
+     * @param height   Requested height in pixels.
+     * @param onLoaded Receives the image.
+     */
+    public void load(Product product, double width, double height, Consumer<Image> onLoaded) {
+        String key = productKey(product, width, height);
+        Image cached = lookup(key);
+        if (cached != null) {
+            onLoaded.accept(cached);
+            return;
+        }
+        decode(key, product.getId(), () -> decodeProduct(product, width, height), true)
+                .thenAccept(image -> {
+                    if (image != null) {
+                        Platform.runLater(() -> onLoaded.accept(image));
+                    }
+                });
+    }
+
+    /**
+     * Returns the default picture of a category at the given size.
+     * The two category pictures are small and decoded on the calling thread on first use.
+     *
+     * @param category The category (null = none).
+     * @param width    Requested width in pixels.
+     * @param height   Requested height in pixels.
+     * @return The image, or null if the category is null or the resource is missing.
+     */
+    public Image getCategoryImage(Category category, double width, double height) {
+        if (category == null) {
+            return null;
+        }
+        String key = "category:" + category.name() + "@" + width + "x" + height;
+        Image cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        return decode(key, -1, () -> decodeResource(categoryResource(category), width, height), false).join();
+    }
+
+    /**
+     * Drops all cached sizes of a product's image (call after the image was changed or
+     * the product removed).
+     *
+     * @param productId The product id.
+     */
+    public synchronized void invalidate(int productId) {
+        Iterator<Entry> it = cache.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.productId == productId) {
+                pixelBytes -= entry.bytes;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Clears the whole cache.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        pixelBytes = 0;
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics (shown in the owner's Diagnostics tab).
+     *
+     * @return The current statistics.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, cache.size(), pixelBytes, MAX_PIXEL_BYTES);
+    }
+
+    /**
+     * Stops the decoder threads (call on application exit).
+     */
+    public void shutdown() {
+        decoder.shutdownNow();
+    }
+
+    private synchronized Image lookup(String key) {
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            hits++;
+            return entry.image;
+        }
+        misses++;
+        return null;
+    }
+
+    private CompletableFuture<Image> decode(String key, int productId, DecodeJob job, boolean async) {
+        CompletableFuture<Image> created = new CompletableFuture<>();
+        CompletableFuture<Image> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+
+        Runnable task = () -> {
+            try {
+                Image image = job.decode();
+                if (image != null) {
+                    put(key, productId, image);
+                }
+                created.complete(image);
+            } catch (Exception e) {
+                e.printStackTrace();
+                created.complete(null);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        };
+
+        if (!async) {
+            task.run();
+            return created;
+        }
+        try {
+            decoder.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: nothing to show
+            inFlight.remove(key, created);
+            created.complete(null);
+        }
+        return created;
+    }
+
+    private synchronized void put(String key, int productId, Image image) {
+        long bytes = (long) image.getWidth() * (long) image.getHeight() * 4;
+        Entry previous = cache.put(key, new Entry(productId, image, bytes));
+        if (previous != null) {
+            pixelBytes -= previous.bytes;
+        }
+        pixelBytes += bytes;
+
+        // Evict least recently used images until we are back under the limit
+        Iterator<Map.Entry<String, Entry>> it = cache.entrySet().iterator();
+        while (pixelBytes > MAX_PIXEL_BYTES && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue; // keep the image we just decoded
+            }
+            pixelBytes -= eldest.getValue().bytes;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private Image decodeProduct(Product product, double width, double height) {
+        // 1. Stored image (BLOB)
+        byte[] bytes = ProductImageStore.getInstance().getImage(product.getId());
+        if (bytes != null && bytes.length > 0) {
+            Image image = toImage(new ByteArrayInputStream(bytes), width, height);
+            if (image != null) {
+                return image;
+            }
+        }
+
+        // 2. Bundled resource with the product's name
+        if (product.getName() != null) {
+            Image image = decodeResource(RESOURCE_BASE_PATH + product.getName().toLowerCase() + ".png", width, height);
+            if (image != null) {
+                return image;
+            }
+        }
+
+        // 3. Category picture
+        return product.getCategory() == null ? null
+                : decodeResource(categoryResource(product.getCategory()), width, height);
+    }
+
+    private Image decodeResource(String path, double width, double height) {
+        try (InputStream stream = ProductImageCache.class.getResourceAsStream(path)) {
+            return stream == null ? null : toImage(stream, width, height);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Image toImage(InputStream stream, double width, double height) {
+        try {
+            // Decoded at display size, keeping the aspect ratio
+            Image image = new Image(stream, width, height, true, true);
+            return image.isError() ? null : image;
+        } catch (Exception e) {
+            return null; // Ignore corrupt image data, caller falls back
+        }
+    }
+
+    private static String categoryResource(Category category) {
+        return RESOURCE_BASE_PATH + (category == Category.FRUIT ? "furits.png" : "vegetables.png");
+    }
+
+    private static String productKey(Product product, double width, double height) {
+        String hash = product.getImageHash() != null ? product.getImageHash() : "-";
+        return "product:" + product.getId() + ":" + hash + "@" + width + "x" + height;
+    }
+
+    /**
+     * Produces a decoded image, or null.
+     */
+    @FunctionalInterface
+    private interface DecodeJob {
+        Image decode();
+    }
+
+    /**
+     * A cached image with its owner and decoded size.
+     */
+    private static final class Entry {
+        private final int productId;
+        private final Image image;
+        private final long bytes;
+
+        private Entry(int productId, Image image, long bytes) {
+            this.productId = productId;
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final long pixelBytes;
+        private final long maxPixelBytes;
+
+        private Stats(long hits, long misses, long evictions, int size, long pixelBytes, long maxPixelBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.pixelBytes = pixelBytes;
+            this.maxPixelBytes = maxPixelBytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getPixelBytes() {
+            return pixelBytes;
+        }
+
+        public long getMaxPixelBytes() {
+            return maxPixelBytes;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ProductImageCache[size=%d, memory=%.1f/%.1f MB, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d]",
+                    size, pixelBytes / (1024.0 * 1024.0), maxPixelBytes / (1024.0 * 1024.0),
+                    hits, misses, getHitRate() * 100, evictions);
+        }
+    }
+}
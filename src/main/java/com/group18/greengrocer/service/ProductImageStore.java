@@ -0,0 +1,114 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.ProductDAO;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ProductImageStore
+ * Lazily loads and caches product image bytes by product id.
+ *
+ * Product list and order queries no longer read the image BLOB; screens that
+ * actually render a picture ask this store, which fetches the bytes once and
+ * keeps the most recently used images up to {@link #MAX_CACHE_BYTES}.
+ *
+ * Implements the Singleton pattern so all screens share one cache.
+ */
+public class ProductImageStore {
+
+    /** Upper bound for the total size of cached image bytes (32 MB). */
+    private static final long MAX_CACHE_BYTES = 32L * 1024 * 1024;
+
+    /** Marker stored for products without an image, so they are not queried again. */
+    private static final byte[] NO_IMAGE = new byte[0];
+
+    private static ProductImageStore instance;
+
+    // Backend the DAO below was taken from
+    private final DAOFactory factory;
+    private final ProductDAO productDAO;
+
+    // Access-ordered map -> iteration starts at the least recently used entry
+    private final LinkedHashMap<Integer, byte[]> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    private ProductImageStore(DAOFactory factory) {
+        this.factory = factory;
+        this.productDAO = factory.getProductDAO();
+    }
+
+    /**
+     * Retrieves the single instance of ProductImageStore.
+     * Images cached from another DAO backend are dropped when the backend is switched.
+     *
+     * @return The singleton instance.
+     */
+    public static synchronized ProductImageStore getInstance() {
+        DAOFactory factory = DAOFactory.getInstance();
+        if (instance == null || instance.factory != factory) {
+            instance = new ProductImageStore(factory);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the image bytes of a product, loading them from the database on first use.
+     *
+     * @param productId The product id.
+     * @return The image bytes, or null if the product has no stored image.
+     */
+    public byte[] getImage(int productId) {
+        synchronized (this) {
+            byte[] cached = cache.get(productId);
+            if (cached != null) {
+                return cached == NO_IMAGE ? null : cached;
+            }
+        }
+
+        // Load outside the lock so a slow BLOB read does not block other lookups
+        byte[] loaded = productDAO.findImageById(productId);
+        put(productId, (loaded == null || loaded.length == 0) ? NO_IMAGE : loaded);
+        return (loaded == null || loaded.length == 0) ? null : loaded;
+    }
+
+    /**
+     * Drops the cached image of a product (call after the image was changed or the product removed).
+     *
+     * @param productId The product id.
+     */
+    public synchronized void invalidate(int productId) {
+        byte[] removed = cache.remove(productId);
+        if (removed != null) {
+            cachedBytes -= removed.length;
+        }
+    }
+
+    /**
+     * Clears the whole cache.
+     */
+    public synchronized void clear() {
+        cache.clear();
+        cachedBytes = 0;
+    }
+
+    private synchronized void put(int productId, byte[] bytes) {
+        byte[] previous = cache.put(productId, bytes);
+        if (previous != null) {
+            cachedBytes -= previous.length;
+        }
+        cachedBytes += bytes.length;
+
+        // Evict least recently used images until we are back under the limit
+        var it = cache.entrySet().iterator();
+        while (cachedBytes > MAX_CACHE_BYTES && it.hasNext()) {
+            Map.Entry<Integer, byte[]> eldest = it.next();
+            if (eldest.getKey() == productId) {
+                continue; // keep the image we just loaded
+            }
+            cachedBytes -= eldest.getValue().length;
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.ProductRatingDAO;
+import com.group18.greengrocer.model.RatingSummary;
+import com.group18.greengrocer.util.Constants;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ProductRatingCache
+ * Caches the rating summary (average + count) of every product.
+ *
+ * The summaries of the whole catalog are loaded with one aggregate query, so
+ * rendering a product grid or the owner's rating column costs at most one rating
+ * query in total. Lookups never query: once a rating was added or
+ * {@link Constants#PRODUCT_CACHE_TTL_MS} has passed, they keep answering from the
+ * previous summaries while a background thread reloads them (stale-while-revalidate).
+ * Screens load the summaries before their first lookup with {@link #reload()}, off the
+ * FX thread.
+ *
+ * Implements the Singleton pattern so all screens share one cache.
+ */
+public class ProductRatingCache {
+
+    private static ProductRatingCache instance;
+
+    private final ProductRatingDAO ratingDAO;
+    private final ExecutorService reloader;
+
+    // Set while a background reload is queued and not started yet
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
+    private volatile Map<Integer, RatingSummary> summaries = Map.of();
+    private volatile long loadedAt; // 0 = never loaded or invalidated
+
+    private ProductRatingCache() {
+        this.ratingDAO = new ProductRatingDAO();
+        this.reloader = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "product-rating-reload");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Retrieves the single instance of ProductRatingCache.
+     *
+     * @return The singleton instance.
+     */
+    public static synchronized ProductRatingCache getInstance() {
+        if (instance == null) {
+            instance = new ProductRatingCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the rating summary of a product. Never queries the database; an
+     * outdated cache is reloaded in the background.
+     *
+     * @param productId The product ID.
+     * @return The summary, or {@link RatingSummary#NONE} if the product has no ratings
+     *         (or the summaries were not loaded yet).
+     */
+    public RatingSummary getSummary(int productId) {
+        if (System.currentTimeMillis() - loadedAt >= Constants.PRODUCT_CACHE_TTL_MS) {
+            reloadInBackground();
+        }
+        return summaries.getOrDefault(productId, RatingSummary.NONE);
+    }
+
+    /**
+     * Loads all summaries now with one query. Blocks, so call it off the FX thread.
+     */
+    public void reload() {
+        Map<Integer, RatingSummary> map = Map.copyOf(ratingDAO.getRatingSummaries());
+        synchronized (this) {
+            summaries = map;
+            loadedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Marks the summaries as outdated (call after a rating was added) and reloads
+     * them in the background; lookups answer from the old ones meanwhile.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            loadedAt = 0;
+        }
+        reloadInBackground();
+    }
+
+    private void reloadInBackground() {
+        if (!reloadQueued.compareAndSet(false, true)) {
+            return; // one reload is enough for all changes made before it starts
+        }
+        reloader.execute(() -> {
+            reloadQueued.set(false);
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.group18.greengrocer.service;
 
+import com.group18.greengrocer.dao.DAOFactory;
 import com.group18.greengrocer.dao.ProductDAO;
 import com.group18.greengrocer.model.Category;
 import com.group18.greengrocer.model.Product;
@@ -7,7 +8,6 @@ import com.group18.greengrocer.util.ValidatorUtil;
 
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 /**
  * ProductService
@@ -21,13 +21,16 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductDAO productDAO;
+    private final ProductCatalogCache catalog;
 
     public ProductService() {
-        this.productDAO = new ProductDAO();
+        this.productDAO = DAOFactory.getInstance().getProductDAO();
+        this.catalog = ProductCatalogCache.getInstance();
     }
 
     public ProductService(ProductDAO productDAO) {
         this.productDAO = productDAO;
+        this.catalog = ProductCatalogCache.getInstance();
     }
 
     /* -------------------------
@@ -36,10 +39,11 @@ public class ProductService {
 
     /**
      * Retrieves all products available in the catalog.
-     * Rule: products with zero stock must not be displayed -> handled by DAO findAvailableProducts().
+     * Rule: products with zero stock must not be displayed.
+     * Served from the in-memory {@link ProductCatalogCache}.
      */
     public List<Product> getAllProducts() {
-        return productDAO.findAvailableProducts();
+        return catalog.getAvailableProducts();
     }
 
     /**
@@ -49,10 +53,7 @@ public class ProductService {
     public List<Product> getProductsByCategory(Category category) {
         if (category == null) throw new IllegalArgumentException("Category cannot be null.");
 
-        return productDAO.findAvailableProducts()
-                .stream()
-                .filter(p -> p.getCategory() == category)
-                .collect(Collectors.toList());
+        return catalog.getAvailableByCategory(category);
     }
 
     /**
@@ -76,15 +77,19 @@ public class ProductService {
 
     /**
      * Retrieves a single product by its ID.
+     * Catalog products come from the cache; archived products are still read from the DB.
      */
     public Product getProductById(int productId) {
         if (productId <= 0) throw new IllegalArgumentException("Invalid product id.");
-        return productDAO.findById(productId);
+        Product product = catalog.getById(productId);
+        return product != null ? product : productDAO.findById(productId);
     }
 
     /**
      * Checks if there is enough stock for a requested quantity.
      * Required by rules: zero/negative quantity must be handled.
+     * Always reads the database: the catalog cache is only meant for browsing and
+     * may lag behind concurrent checkouts.
      */
     public boolean checkStockAvailability(int productId, double quantity) {
         if (productId <= 0) throw new IllegalArgumentException("Invalid product id.");
@@ -97,18 +102,14 @@ public class ProductService {
     /**
      * Searches for products matching a keyword (case-insensitive).
      * If keyword is empty -> return all available products (simple UX).
+     * Uses the name index of the {@link ProductCatalogCache}.
      */
     public List<Product> searchProducts(String keyword) {
         if (ValidatorUtil.isEmpty(keyword)) {
             return getAllProducts();
         }
 
-        String key = keyword.trim().toLowerCase(Locale.ROOT);
-
-        return productDAO.findAvailableProducts()
-                .stream()
-                .filter(p -> p.getName() != null && p.getName().toLowerCase(Locale.ROOT).contains(key))
-                .collect(Collectors.toList());
+        return catalog.searchAvailable(keyword.trim());
     }
 
     /* -------------------------
@@ -137,9 +138,7 @@ public class ProductService {
         if (product.getPrice() < 0) throw new IllegalArgumentException("Price cannot be negative.");
         if (product.getThreshold() <= 0) throw new IllegalArgumentException("Threshold must be > 0.");
 
-        return (product.getStock() <= product.getThreshold())
-                ? product.getPrice() * 2.0
-                : product.getPrice();
+        return DiscountService.unitPrice(product);
     }
 
     /**
@@ -151,6 +150,7 @@ public class ProductService {
 
         productDAO.insert(product);
         // Exception will be thrown if failed
+        catalog.put(product);
     }
 
     /**
@@ -161,6 +161,12 @@ public class ProductService {
 
         boolean ok = productDAO.update(product);
         if (!ok) throw new IllegalStateException("Failed to update product.");
+        catalog.put(product);
+
+        if (product.getImage() != null) {
+            ProductImageStore.getInstance().invalidate(product.getId());
+            ProductImageCache.getInstance().invalidate(product.getId());
+        }
     }
 
     /**
@@ -174,11 +180,17 @@ public class ProductService {
             // Soft delete (Archive) instead of throwing error
             boolean ok = productDAO.softDelete(productId);
             if (!ok) throw new IllegalStateException("Failed to archive product.");
+            catalog.remove(productId);
+            ProductImageStore.getInstance().invalidate(productId);
+            ProductImageCache.getInstance().invalidate(productId);
             return;
         }
 
         boolean ok = productDAO.delete(productId);
         if (!ok) throw new IllegalStateException("Failed to remove product.");
+        catalog.remove(productId);
+        ProductImageStore.getInstance().invalidate(productId);
+        ProductImageCache.getInstance().invalidate(productId);
     }
 
     /**
@@ -189,17 +201,15 @@ public class ProductService {
     public void updateStock(int productId, double quantity) {
         if (productId <= 0) throw new IllegalArgumentException("Invalid product id.");
 
-        Product product = productDAO.findById(productId);
-        if (product == null) throw new IllegalArgumentException("Product not found.");
-
-        double newStock = product.getStock() + quantity;
-        if (newStock < 0) {
-            throw new IllegalArgumentException("Stock cannot be negative.");
+        // Atomic increment/decrement in SQL; rejected if the stock would become negative
+        boolean ok = productDAO.adjustStock(productId, quantity);
+        if (!ok) {
+            Product product = productDAO.findById(productId);
+            if (product == null) throw new IllegalArgumentException("Product not found.");
+            if (product.getStock() + quantity < 0) throw new IllegalArgumentException("Stock cannot be negative.");
+            throw new IllegalStateException("Failed to update stock.");
         }
-
-        product.setStock(newStock);
-        boolean ok = productDAO.update(product);
-        if (!ok) throw new IllegalStateException("Failed to update stock.");
+        catalog.refresh(List.of(productId));
     }
 
     /**
@@ -216,6 +226,7 @@ public class ProductService {
         product.setThreshold(threshold);
         boolean ok = productDAO.update(product);
         if (!ok) throw new IllegalStateException("Failed to update threshold.");
+        catalog.put(product);
     }
 
     /* -------------------------
@@ -232,14 +243,21 @@ public class ProductService {
     }
 
     /**
-     * Calculates average rating for a specific product.
+     * Loads the rating summaries of all products with one query, so that the
+     * following {@link #getAverageProductRating(int)} calls answer from memory.
+     * Blocks: call it off the FX thread.
+     */
+    public void loadProductRatings() {
+        ProductRatingCache.getInstance().reload();
+    }
+
+    /**
+     * Returns the average rating for a specific product (0 if it has no ratings).
+     * Served from {@link ProductRatingCache}; never queries the database.
      */
     public double getAverageProductRating(int productId) {
-        List<com.group18.greengrocer.model.ProductRating> ratings = getProductRatings(productId);
-        if (ratings.isEmpty()) return 0.0;
-        
-        double sum = ratings.stream().mapToInt(com.group18.greengrocer.model.ProductRating::getRating).sum();
-        return sum / ratings.size();
+        if (productId <= 0) throw new IllegalArgumentException("Invalid product id.");
+        return ProductRatingCache.getInstance().getSummary(productId).getAverage();
     }
     
     private void validateProductForUpsert(Product product, boolean requireId) {
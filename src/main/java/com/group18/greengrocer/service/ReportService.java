@@ -1,6 +1,7 @@
 package com.group18.greengrocer.service;
 
 import com.group18.greengrocer.dao.CarrierRatingDAO;
+import com.group18.greengrocer.dao.DAOFactory;
 import com.group18.greengrocer.dao.OrderDAO;
 import com.group18.greengrocer.dao.ProductDAO;
 import com.group18.greengrocer.dao.ReportDAO;
@@ -10,6 +11,7 @@ import com.group18.greengrocer.model.ReportData;
 import com.group18.greengrocer.model.Role;
 import com.group18.greengrocer.model.User;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,14 +36,15 @@ public class ReportService {
 
     public ReportService() {
         this.reportDAO = ReportDAO.getInstance(); // Singleton instance
-        this.orderDAO = new OrderDAO();
-        this.productDAO = new ProductDAO();
+        this.orderDAO = DAOFactory.getInstance().getOrderDAO();
+        this.productDAO = DAOFactory.getInstance().getProductDAO();
         this.carrierRatingDAO = new CarrierRatingDAO();
         this.userDAO = new UserDAO();
     }
 
     /**
      * Generates a report on total sales revenue (Last 30 days).
+     * Read from the daily sales rollup, so the cost depends on the days, not the orders.
      *
      * @return list of daily sales data points
      */
@@ -50,6 +53,36 @@ public class ReportService {
         return reportDAO.getDailySales(SALES_REPORT_DAYS);
     }
 
+    /**
+     * Generates a report on monthly sales revenue (Last 12 months, newest first).
+     *
+     * @return list of monthly revenue data points
+     */
+    public List<ReportData> generateMonthlyRevenueReport() {
+        return reportDAO.getMonthlyRevenue();
+    }
+
+    /**
+     * Rebuilds the daily sales rollup from the orders (backfill), e.g. after orders
+     * were imported directly into the database.
+     *
+     * @param from first order day to rebuild, or null for all days up to {@code to}
+     * @param to   last order day to rebuild, or null for all days from {@code from}
+     * @return number of rollup rows written
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     * @throws IllegalStateException if the rebuild failed
+     */
+    public int rebuildSalesRollup(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start day must not be after end day.");
+        }
+        int rows = reportDAO.rebuildDailySales(from, to);
+        if (rows < 0) {
+            throw new IllegalStateException("Sales rollup could not be rebuilt.");
+        }
+        return rows;
+    }
+
     /**
      * Generates a report on current stock levels.
      *
@@ -83,7 +116,7 @@ public class ReportService {
 
     /**
      * Generates an income report.
-     * Currently same as sales report, can be extended later.
+     * Currently same as sales report (served from the daily sales rollup), can be extended later.
      *
      * @return list of income data points
      */
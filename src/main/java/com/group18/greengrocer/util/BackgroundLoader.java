@@ -0,0 +1,249 @@
+package com.group18.greengrocer.util;
+
+import javafx.concurrent.Task;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Runs controller data loads off the JavaFX Application Thread.
+ * <p>
+ * Each controller keeps one {@code BackgroundLoader} per screen area (e.g. the product
+ * grid or the report charts). {@link #load(Callable, Consumer)} runs the service call on a
+ * virtual thread and hands the result to the UI on the FX thread (the {@link Task}
+ * success/failure handlers are delivered through {@code Platform.runLater}). Starting a new load
+ * cancels the previous one of the same loader, so a slow, stale result can never
+ * overwrite a newer one.
+ * <p>
+ * Cancelling never interrupts the running call: interrupting a virtual thread that is
+ * blocked in socket I/O closes the socket, which would kill the pooled database
+ * connection of the query. The stale call finishes and its result is dropped. CPU-bound
+ * work that should stop early instead is passed as a {@link CancellableWork}, which
+ * polls the cancellation signal of its load.
+ * <p>
+ * The duration of every completed load is recorded per loader name and can be read
+ * with {@link #getStats()}; loads slower than {@link #SLOW_LOAD_MS} are logged.
+ *
+ * @author Group18
+ * @version 1.0
+ */
+public final class BackgroundLoader {
+
+    /** Loads taking longer than this (ms) are reported on stderr. */
+    public static final long SLOW_LOAD_MS = 1_000;
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("fx-loader-", 0).factory());
+
+    private static final Map<String, LoadStats> STATS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private Task<?> current;
+
+    /**
+     * A load that can stop early once it was cancelled.
+     *
+     * @param <T> The result type.
+     */
+    @FunctionalInterface
+    public interface CancellableWork<T> {
+        /**
+         * Runs the load.
+         *
+         * @param cancelled Returns true once the load was cancelled (by a newer load or
+         *                  {@link #cancel()}); the result would be dropped.
+         * @return The result.
+         * @throws Exception if the load fails.
+         */
+        T call(BooleanSupplier cancelled) throws Exception;
+    }
+
+    /**
+     * Creates a loader.
+     *
+     * @param name Name used for latency statistics (e.g. "customer.products").
+     */
+    public BackgroundLoader(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Starts a load; errors are shown with {@link AlertUtil#showError(String, String)}.
+     *
+     * @param work  The (blocking) service call. Runs on a background thread.
+     * @param apply Applies the result to the UI. Runs on the FX Application Thread.
+     * @param <T>   The result type.
+     */
+    public <T> void load(Callable<T> work, Consumer<T> apply) {
+        load(work, apply, BackgroundLoader::showError);
+    }
+
+    /**
+     * Starts a load that polls its cancellation signal; errors are shown with
+     * {@link AlertUtil#showError(String, String)}.
+     *
+     * @param work  The service call. Runs on a background thread.
+     * @param apply Applies the result to the UI. Runs on the FX Application Thread.
+     * @param <T>   The result type.
+     */
+    public <T> void load(CancellableWork<T> work, Consumer<T> apply) {
+        load(work, apply, BackgroundLoader::showError);
+    }
+
+    /**
+     * Starts a load, cancelling the previous load of this loader if it is still running.
+     * Must be called on the FX Application Thread.
+     *
+     * @param work    The (blocking) service call. Runs on a background thread.
+     * @param apply   Applies the result to the UI. Runs on the FX Application Thread.
+     * @param onError Handles a failure. Runs on the FX Application Thread.
+     * @param <T>     The result type.
+     */
+    public <T> void load(Callable<T> work, Consumer<T> apply, Consumer<Throwable> onError) {
+        load(cancelled -> work.call(), apply, onError);
+    }
+
+    /**
+     * Starts a load that polls its cancellation signal, cancelling the previous load
+     * of this loader if it is still running. Must be called on the FX Application Thread.
+     *
+     * @param work    The service call. Runs on a background thread.
+     * @param apply   Applies the result to the UI. Runs on the FX Application Thread.
+     * @param onError Handles a failure. Runs on the FX Application Thread.
+     * @param <T>     The result type.
+     */
+    public <T> void load(CancellableWork<T> work, Consumer<T> apply, Consumer<Throwable> onError) {
+        if (current != null) {
+            current.cancel(false);
+        }
+
+        long start = System.nanoTime();
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call(this::isCancelled);
+            }
+        };
+        current = task;
+
+        // Latency is recorded after the result was applied, i.e. up to the UI update
+        task.setOnSucceeded(e -> {
+            if (current == task) {
+                current = null;
+                apply.accept(task.getValue());
+            }
+            record(start);
+        });
+        task.setOnFailed(e -> {
+            record(start);
+            if (current == task) {
+                current = null;
+                Throwable error = task.getException();
+                if (error != null) {
+                    error.printStackTrace();
+                }
+                onError.accept(error);
+            }
+        });
+
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Cancels the running load of this loader, if any. Its result will not be applied
+     * (the call itself is not interrupted, see the class comment).
+     */
+    public void cancel() {
+        if (current != null) {
+            current.cancel(false);
+            current = null;
+        }
+    }
+
+    private static void showError(Throwable e) {
+        AlertUtil.showError("Loading Failed", "Could not load data: " + e.getMessage());
+    }
+
+    /**
+     * Returns the latency statistics of all loaders, sorted by loader name.
+     *
+     * @return A snapshot of the statistics.
+     */
+    public static Map<String, LoadStats> getStats() {
+        Map<String, LoadStats> copy = new TreeMap<>();
+        STATS.forEach((key, stats) -> copy.put(key, stats.copy()));
+        return copy;
+    }
+
+    /**
+     * Records a UI latency that is not a load of this class (e.g. keystroke-to-paint of a
+     * search), so it shows up in {@link #getStats()} next to the load latencies.
+     *
+     * @param name      The statistics name.
+     * @param elapsedMs The measured latency in milliseconds.
+     */
+    public static void recordLatency(String name, long elapsedMs) {
+        STATS.computeIfAbsent(name, k -> new LoadStats()).add(elapsedMs);
+    }
+
+    private void record(long startNanos) {
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        recordLatency(name, elapsedMs);
+        if (elapsedMs > SLOW_LOAD_MS) {
+            System.err.println("BackgroundLoader: Slow load '" + name + "' took " + elapsedMs + " ms");
+        }
+    }
+
+    /**
+     * Latency statistics of one loader.
+     */
+    public static final class LoadStats {
+        private long count;
+        private long totalMs;
+        private long maxMs;
+        private long lastMs;
+
+        private synchronized void add(long ms) {
+            count++;
+            totalMs += ms;
+            maxMs = Math.max(maxMs, ms);
+            lastMs = ms;
+        }
+
+        private synchronized LoadStats copy() {
+            LoadStats c = new LoadStats();
+            c.count = count;
+            c.totalMs = totalMs;
+            c.maxMs = maxMs;
+            c.lastMs = lastMs;
+            return c;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getAverageMs() {
+            return count == 0 ? 0.0 : (double) totalMs / count;
+        }
+
+        public long getMaxMs() {
+            return maxMs;
+        }
+
+        public long getLastMs() {
+            return lastMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, avg=%.1f ms, max=%d ms, last=%d ms", count, getAverageMs(), maxMs, lastMs);
+        }
+    }
+}
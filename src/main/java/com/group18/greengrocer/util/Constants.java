@@ -34,6 +34,48 @@ public class Constants {
      */
     public static final String DB_PASS = "1234";             // From project description
 
+    /** Maximum number of pooled database connections (active + idle). */
+    public static final int DB_POOL_MAX_SIZE = 10;
+    /** Number of idle connections the pool keeps open after idle eviction. */
+    public static final int DB_POOL_MIN_IDLE = 2;
+    /** Maximum time (ms) a caller waits for a free pooled connection before failing. */
+    public static final long DB_POOL_MAX_WAIT_MS = 5_000;
+    /** Idle time (ms) after which a pooled connection is closed. */
+    public static final long DB_POOL_IDLE_TIMEOUT_MS = 300_000;
+    /** Hold time (ms) after which a borrowed connection is reported as a possible leak. */
+    public static final long DB_POOL_LEAK_THRESHOLD_MS = 60_000;
+
+    /** Whether every SQL statement is timed (per-statement metrics, slow query log, JMX). */
+    public static final boolean QUERY_METRICS_ENABLED = true;
+    /** Executions taking at least this long (ms) are written to the slow query log (can be changed over JMX). */
+    public static final long SLOW_QUERY_THRESHOLD_MS = 200;
+    /** File the slow queries are appended to, relative to the working directory (null = in-memory history only). */
+    public static final String SLOW_QUERY_LOG_FILE = "slow-queries.log";
+    /** Number of recent slow queries kept in memory for the Diagnostics tab. */
+    public static final int SLOW_QUERY_HISTORY = 100;
+
+    /** Age (ms) after which the in-memory product catalog is reloaded from the database. */
+    public static final long PRODUCT_CACHE_TTL_MS = 300_000;
+
+    /** Age (ms) after which a cached loyalty order count is counted again in the database. */
+    public static final long LOYALTY_CACHE_TTL_MS = 300_000;
+
+    /** Idle time (ms) after which a shopping cart is evicted from memory. */
+    public static final long CART_TTL_MS = 1_800_000;
+    /** Maximum number of shopping carts kept in memory; the least recently used are evicted first. */
+    public static final int CART_MAX_ENTRIES = 10_000;
+    /** Interval (ms) at which idle carts are evicted and changed carts are written back. */
+    public static final long CART_MAINTENANCE_INTERVAL_MS = 5_000;
+    /**
+     * Whether shopping carts are saved to the Carts table (write-behind, in the background).
+     * When false, carts only live in memory and are lost on eviction or restart.
+     * Off by default: a saved cart is read from the database on the first access to it.
+     */
+    public static final boolean CART_PERSISTENCE_ENABLED = false;
+
+    /** Number of orders fetched per page by the owner and carrier order tables. */
+    public static final int ORDER_PAGE_SIZE = 50;
+
    /** The title displayed on the main application window header. */
     public static final String APP_TITLE = "Group18 GreenGrocer";
     /** Standard width for the application window in pixels. */
@@ -0,0 +1,43 @@
+package com.group18.greengrocer.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility class for content hashes.
+ * <p>
+ * Product images are identified by the SHA-256 of their bytes (stored in
+ * {@code ProductInfo.image_hash}), which lets the image seeder skip unchanged rows and
+ * lets caches tell two versions of a product image apart.
+ * <p>
+ * <b>Note:</b> This is a final class with a private constructor and cannot be instantiated.
+ *
+ * @author Group18
+ * @version 1.0
+ */
+public final class HashUtil {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private HashUtil() { }
+
+    /**
+     * Computes the SHA-256 of the given bytes.
+     *
+     * @param data The data to hash.
+     * @return The hash as 64 lowercase hex characters, or null if {@code data} is null.
+     */
+    public static String sha256Hex(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
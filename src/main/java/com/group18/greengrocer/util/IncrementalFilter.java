@@ -0,0 +1,141 @@
+package com.group18.greengrocer.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Case-insensitive substring filter over a fixed, already loaded list.
+ * <p>
+ * The search keys are lower-cased once when the filter is created. A query that
+ * contains the previous query (the usual case while typing) only re-checks the
+ * previous matches instead of the whole list. Filtering can be cancelled: a running
+ * filter polls its cancellation signal (e.g. the one a
+ * {@link BackgroundLoader.CancellableWork} receives) and stops early once it is set.
+ * <p>
+ * Instances are immutable and may be used from any thread.
+ *
+ * @param <T> The item type.
+ * @author Group18
+ * @version 1.0
+ */
+public final class IncrementalFilter<T> {
+
+    // How often (in items) a running filter checks whether it was cancelled
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final List<T> items;
+    private final String[] keys;
+
+    /**
+     * Creates a filter over a list.
+     *
+     * @param items The items, in display order.
+     * @param key   The searchable text of an item (e.g. the product name).
+     */
+    public IncrementalFilter(List<T> items, Function<T, String> key) {
+        this.items = List.copyOf(items);
+        this.keys = new String[this.items.size()];
+        for (int i = 0; i < keys.length; i++) {
+            String text = key.apply(this.items.get(i));
+            keys[i] = text == null ? "" : text.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Gets the number of items the filter searches.
+     *
+     * @return The item count.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns the result of the empty query (all items).
+     *
+     * @return The matches of "".
+     */
+    public Matches all() {
+        int[] positions = new int[keys.length];
+        Arrays.setAll(positions, i -> i);
+        return new Matches("", positions);
+    }
+
+    /**
+     * Filters the items.
+     *
+     * @param query    The search text (trimmed and lower-cased here).
+     * @param previous  The result of an earlier query on this filter, or null.
+     *                  Used as the starting point if the new query contains it.
+     * @param cancelled Returns true once the result is no longer needed.
+     * @return The matches, in display order.
+     * @throws CancellationException if {@code cancelled} was set while filtering.
+     */
+    public Matches filter(String query, Matches previous, BooleanSupplier cancelled) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            return all();
+        }
+
+        boolean narrowing = previous != null && previous.owner() == this && q.contains(previous.query);
+        int[] candidates = narrowing ? previous.positions : null;
+        int count = narrowing ? candidates.length : keys.length;
+
+        int[] found = new int[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && cancelled.getAsBoolean()) {
+                throw new CancellationException("Filter cancelled");
+            }
+            int pos = narrowing ? candidates[i] : i;
+            if (keys[pos].contains(q)) {
+                found[n++] = pos;
+            }
+        }
+        return new Matches(q, Arrays.copyOf(found, n));
+    }
+
+    /**
+     * Result of one query.
+     */
+    public final class Matches {
+        private final String query;
+        private final int[] positions;
+
+        private Matches(String query, int[] positions) {
+            this.query = query;
+            this.positions = positions;
+        }
+
+        private IncrementalFilter<T> owner() {
+            return IncrementalFilter.this;
+        }
+
+        /**
+         * Gets the normalized query of this result.
+         *
+         * @return The trimmed, lower-cased query.
+         */
+        public String getQuery() {
+            return query;
+        }
+
+        /**
+         * Gets the matching items.
+         *
+         * @return A new list of the matching items, in display order.
+         */
+        public List<T> getItems() {
+            List<T> result = new ArrayList<>(positions.length);
+            for (int pos : positions) {
+                result.add(items.get(pos));
+            }
+            return result;
+        }
+    }
+}
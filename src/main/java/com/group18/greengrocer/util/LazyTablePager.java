@@ -0,0 +1,111 @@
+package com.group18.greengrocer.util;
+
+import com.group18.greengrocer.model.Page;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fills a {@link TableView} page by page as the user scrolls.
+ * <p>
+ * The first page is loaded by {@link #reset()}. Whenever a row within
+ * {@link #PREFETCH_ROWS} of the end of the loaded items becomes visible, the next page
+ * is fetched in the background with the continuation token of the previous one and
+ * appended. Only the pages the user actually scrolled to are held in memory.
+ * <p>
+ * The pager installs its own row factory on the table.
+ *
+ * @param <T> The row type.
+ * @author Group18
+ * @version 1.0
+ */
+public class LazyTablePager<T> {
+
+    /** Distance (in rows) from the end of the loaded items at which the next page is requested. */
+    public static final int PREFETCH_ROWS = 10;
+
+    private final TableView<T> table;
+    private final Function<String, Page<T>> fetch;
+    private final BackgroundLoader loader;
+
+    private Consumer<TableView<T>> afterLoad = t -> { };
+    private String nextToken;
+    private boolean hasMore;
+    private boolean loading;
+
+    /**
+     * Creates a pager and attaches it to a table.
+     *
+     * @param name  Name used for the load latency statistics.
+     * @param table The table to fill.
+     * @param fetch Fetches the page for a continuation token (null = first page).
+     *              Runs on a background thread.
+     */
+    public LazyTablePager(String name, TableView<T> table, Function<String, Page<T>> fetch) {
+        this.table = table;
+        this.fetch = fetch;
+        this.loader = new BackgroundLoader(name);
+
+        table.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            protected void updateItem(T item, boolean empty) {
+                super.updateItem(item, empty);
+                if (!empty && getIndex() >= table.getItems().size() - PREFETCH_ROWS) {
+                    loadMore();
+                }
+            }
+        });
+    }
+
+    /**
+     * Sets an action that runs on the FX thread after each page was added
+     * (e.g. to update buttons that depend on the table content).
+     *
+     * @param afterLoad The action.
+     */
+    public void setAfterLoad(Consumer<TableView<T>> afterLoad) {
+        this.afterLoad = afterLoad;
+    }
+
+    /**
+     * Discards the loaded rows and loads the first page again.
+     * A page load that is still running is cancelled.
+     */
+    public void reset() {
+        loading = true;
+        loader.load(() -> fetch.apply(null), page -> {
+            table.getItems().setAll(page.getItems());
+            pageLoaded(page);
+        }, this::loadFailed);
+    }
+
+    /**
+     * Loads the next page, unless all pages are loaded or a load is already running.
+     */
+    public void loadMore() {
+        if (loading || !hasMore) {
+            return;
+        }
+        loading = true;
+        String token = nextToken;
+        loader.load(() -> fetch.apply(token), page -> {
+            table.getItems().addAll(page.getItems());
+            pageLoaded(page);
+        }, this::loadFailed);
+    }
+
+    private void pageLoaded(Page<T> page) {
+        nextToken = page.getNextToken();
+        hasMore = page.hasMore();
+        loading = false;
+        afterLoad.accept(table);
+    }
+
+    private void loadFailed(Throwable error) {
+        loading = false;
+        AlertUtil.showError("Loading Failed", "Could not load data: "
+                + (error != null ? error.getMessage() : "unknown error"));
+    }
+}
@@ -14,18 +14,26 @@ import java.io.InputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
-import java.util.Base64;
 
 public class PDFGenerator {
 
+    private static final String LOGO_PATH = "/com/group18/greengrocer/images/logo.png";
+
+    /**
+     * Logo bytes, read from the classpath once. A PDImageXObject belongs to a single
+     * PDDocument, so only the source bytes can be shared between invoices.
+     * An empty array means the logo could not be loaded.
+     */
+    private static volatile byte[] logoBytes;
+
     /**
-     * Generates a PDF invoice for the given order and returns it as a Base64 encoded String.
-     * This String can be safely stored in the database as CLOB/LONGTEXT.
+     * Generates a PDF invoice for the given order.
+     * The returned bytes can be stored directly as a BLOB.
      *
      * @param order The order for which the invoice will be generated.
-     * @return Base64 encoded PDF invoice.
+     * @return The PDF document bytes.
      */
-    public static String generateInvoice(Order order) {
+    public static byte[] generateInvoice(Order order) {
 
         try (PDDocument document = new PDDocument()) {
 
@@ -35,29 +43,15 @@ public class PDFGenerator {
             PDPageContentStream content = new PDPageContentStream(document, page);
 
             // Add Logo
-            // Add Logo
-            String logoPath = "/com/group18/greengrocer/images/logo.png";
-            System.out.println("Attempting to load logo from: " + logoPath);
-            try (InputStream logoStream = PDFGenerator.class.getResourceAsStream(logoPath)) {
-                if (logoStream != null) {
-                    ByteArrayOutputStream imageBuffer = new ByteArrayOutputStream();
-                    byte[] buffer = new byte[1024];
-                    int len;
-                    while ((len = logoStream.read(buffer)) != -1) {
-                        imageBuffer.write(buffer, 0, len);
-                    }
-                    byte[] logoBytes = imageBuffer.toByteArray();
-                    
-                    PDImageXObject logoImage = PDImageXObject.createFromByteArray(document, logoBytes, "logo");
+            byte[] logo = getLogoBytes();
+            if (logo.length > 0) {
+                try {
+                    PDImageXObject logoImage = PDImageXObject.createFromByteArray(document, logo, "logo");
                     // Draw at top right corner (A4 width ~595, height ~842)
                     content.drawImage(logoImage, 450, 750, 100, 50);
-                    System.out.println("SUCCESS: Logo added to invoice PDF.");
-                } else {
-                    System.err.println("ERROR: Logo stream is null. File not found at resource path: " + logoPath);
+                } catch (Exception e) {
+                    System.err.println("EXCEPTION: Could not add logo to invoice. " + e.getMessage());
                 }
-            } catch (Exception e) {
-                System.err.println("EXCEPTION: Could not load logo for invoice. " + e.getMessage());
-                e.printStackTrace();
             }
 
             content.setFont(PDType1Font.HELVETICA_BOLD, 16);
@@ -112,14 +106,16 @@ public class PDFGenerator {
             content.showText("--------------------------------------------");
             content.newLine();
 
-            double vat = subtotal * 0.18;
+            // The stored total already includes coupon, loyalty discount and VAT (see PriceMath),
+            // so VAT and discount are derived from it instead of being recomputed.
             double finalTotal = order.getTotalCost();
-            double discount = subtotal + vat - finalTotal;
+            double vat = PriceMath.vatIncluded(finalTotal);
+            double discount = Math.max(0.0, subtotal - (finalTotal - vat));
 
             content.showText(String.format("Subtotal: %.2f", subtotal));
             content.newLine();
 
-            content.showText(String.format("VAT (18%%): %.2f", vat));
+            content.showText(String.format("VAT (%.0f%%): %.2f", Constants.VAT_RATE * 100, vat));
             content.newLine();
 
             content.showText(String.format("Discount: -%.2f", discount));
@@ -135,7 +131,7 @@ public class PDFGenerator {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             document.save(baos);
 
-            return Base64.getEncoder().encodeToString(baos.toByteArray());
+            return baos.toByteArray();
 
         } catch (IOException e) {
             throw new RuntimeException("Failed to generate invoice PDF", e);
@@ -143,6 +139,32 @@ public class PDFGenerator {
     }
 
 
+    /**
+     * Returns the logo bytes, loading them from the classpath on first use.
+     */
+    private static byte[] getLogoBytes() {
+        byte[] bytes = logoBytes;
+        if (bytes == null) {
+            synchronized (PDFGenerator.class) {
+                bytes = logoBytes;
+                if (bytes == null) {
+                    bytes = new byte[0];
+                    try (InputStream logoStream = PDFGenerator.class.getResourceAsStream(LOGO_PATH)) {
+                        if (logoStream != null) {
+                            bytes = logoStream.readAllBytes();
+                        } else {
+                            System.err.println("ERROR: Logo stream is null. File not found at resource path: " + LOGO_PATH);
+                        }
+                    } catch (IOException e) {
+                        System.err.println("EXCEPTION: Could not load logo for invoice. " + e.getMessage());
+                    }
+                    logoBytes = bytes;
+                }
+            }
+        }
+        return bytes;
+    }
+
     private static String sanitizeText(String input) {
         if (input == null) return "";
         return input.replace("ı", "i")
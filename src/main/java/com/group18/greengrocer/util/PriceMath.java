@@ -0,0 +1,159 @@
+package com.group18.greengrocer.util;
+
+/**
+ * Pricing kernel shared by every price path (product cards, cart, checkout, invoice).
+ * <p>
+ * The kernel performs the checkout arithmetic of the original
+ * {@code DiscountService.calculateFinalPrice} operation by operation: line totals,
+ * subtotal, coupon, loyalty discount and VAT are computed unrounded, and only the
+ * final total is rounded half-up to a cent, once. Every price is therefore identical
+ * to the one computed before the kernel existed. Amounts stay {@code double} on
+ * purpose: rounding each line to whole cents, or computing in exact integer cents,
+ * rounds half-cent totals differently from the original arithmetic and changes
+ * what customers pay.
+ * <p>
+ * The methods work on primitives only and never allocate, so a whole cart or
+ * catalog can be priced in a single pass over arrays.
+ * <p>
+ * Pricing order (same as the checkout rules):
+ * <ol>
+ * <li>Unit price, doubled when the stock is at or below the threshold.</li>
+ * <li>Subtotal = sum of the unrounded line totals (unit price x quantity), in line order.</li>
+ * <li>Fixed coupon amount, never below zero.</li>
+ * <li>Loyalty discount in percent.</li>
+ * <li>VAT ({@link Constants#VAT_RATE}), then one rounding to 2 decimals.</li>
+ * </ol>
+ * <b>Note:</b> This is a final class with a private constructor and cannot be instantiated.
+ *
+ * @author Group18
+ * @version 1.0
+ */
+public final class PriceMath {
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private PriceMath() { }
+
+    /**
+     * Converts an amount (e.g. a DECIMAL(10,2) price) to cents, rounding half-up.
+     *
+     * @param amount The amount.
+     * @return The amount in cents.
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    /**
+     * Converts cents back to an amount for display or storage.
+     *
+     * @param cents The amount in cents.
+     * @return The amount.
+     */
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Rounds an amount half-up to 2 decimals (the only rounding step of a price).
+     *
+     * @param amount The amount.
+     * @return The rounded amount.
+     */
+    public static double round2(double amount) {
+        return Math.round(amount * 100.0) / 100.0;
+    }
+
+    /**
+     * Unit price after the threshold rule: doubled when {@code stock <= threshold}
+     * (only for a positive threshold).
+     *
+     * @param price     The base price.
+     * @param stock     The current stock.
+     * @param threshold The product threshold.
+     * @return The effective unit price.
+     */
+    public static double unitPrice(double price, double stock, double threshold) {
+        return (threshold > 0 && stock <= threshold) ? price * 2.0 : price;
+    }
+
+    /**
+     * Total of one cart line (not rounded).
+     *
+     * @param unitPrice The unit price.
+     * @param quantity  The quantity (may be fractional, e.g. kg).
+     * @return The line total.
+     */
+    public static double lineTotal(double unitPrice, double quantity) {
+        return unitPrice * quantity;
+    }
+
+    /**
+     * Subtotal of {@code count} lines given as parallel arrays, summed in line order.
+     *
+     * @param unitPrices Unit prices.
+     * @param quantities Quantities.
+     * @param count      The number of lines to use.
+     * @return The sum of the line totals (not rounded).
+     */
+    public static double subtotal(double[] unitPrices, double[] quantities, int count) {
+        double sum = 0.0;
+        for (int i = 0; i < count; i++) {
+            sum += lineTotal(unitPrices[i], quantities[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * Applies the threshold rule to a whole catalog in one pass.
+     *
+     * @param prices    Base prices.
+     * @param stock     Stock per product.
+     * @param threshold Threshold per product.
+     * @param out       Receives the effective unit prices.
+     * @param count     The number of products to price.
+     */
+    public static void unitPrices(double[] prices, double[] stock, double[] threshold, double[] out, int count) {
+        for (int i = 0; i < count; i++) {
+            out[i] = unitPrice(prices[i], stock[i], threshold[i]);
+        }
+    }
+
+    /**
+     * Final total: coupon, then loyalty discount, then VAT, rounded to 2 decimals.
+     *
+     * @param subtotal       The subtotal (not rounded).
+     * @param coupon         The fixed coupon amount (0 or less = none).
+     * @param loyaltyPercent The loyalty discount in percent (0 or less = none).
+     * @return The total including VAT.
+     * @throws IllegalArgumentException if the loyalty discount exceeds 100%.
+     */
+    public static double total(double subtotal, double coupon, double loyaltyPercent) {
+        double afterCoupon = subtotal;
+        if (coupon > 0) {
+            afterCoupon = Math.max(0.0, afterCoupon - coupon);
+        }
+
+        double afterLoyalty = afterCoupon;
+        if (loyaltyPercent > 100) {
+            throw new IllegalArgumentException("Discount percent cannot exceed 100.");
+        }
+        if (loyaltyPercent > 0) {
+            afterLoyalty = afterCoupon * (1.0 - (loyaltyPercent / 100.0));
+        }
+
+        double withVat = afterLoyalty * (1.0 + Constants.VAT_RATE);
+        return round2(withVat);
+    }
+
+    /**
+     * VAT contained in a total that includes VAT.
+     *
+     * @param total The total including VAT.
+     * @return The VAT part (not rounded).
+     */
+    public static double vatIncluded(double total) {
+        return total - total / (1.0 + Constants.VAT_RATE);
+    }
+}
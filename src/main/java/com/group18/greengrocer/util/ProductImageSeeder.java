@@ -1,16 +1,34 @@
 package com.group18.greengrocer.util;
 
 import com.group18.greengrocer.dao.DatabaseAdapter;
+import com.group18.greengrocer.service.ProductImageCache;
+import com.group18.greengrocer.service.ProductImageStore;
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Utility to seed product images into the database as BLOBs.
  * Reads images from src/main/resources/com/group18/greengrocer/images/products/
+ * <p>
+ * Seeding is content-addressed: every product row stores the SHA-256 of its image
+ * ({@code image_hash}) and whether the image came from this seeder
+ * ({@code image_seeded}). A row is only written when
+ * <ul>
+ * <li>it has no image yet, or</li>
+ * <li>it still holds a seeded image and the bundled file has changed.</li>
+ * </ul>
+ * Images uploaded by the owner are never overwritten. All writes are sent as one
+ * batch in one transaction; a start with nothing to do runs one small SELECT (no
+ * BLOBs are transferred) and writes nothing.
  */
 public class ProductImageSeeder {
 
@@ -48,37 +66,165 @@ public class ProductImageSeeder {
     }};
 
     /**
-     * Seeds product images into the DB.
+     * Starts seeding on a background daemon thread (call once the UI is up).
+     * Changed product images are dropped from the {@link ProductImageStore} and
+     * {@link ProductImageCache} when done.
+     */
+    public static void seedInBackground() {
+        Thread t = new Thread(() -> {
+            try (Connection conn = DatabaseAdapter.getInstance().getConnection()) {
+                List<Integer> changed = seedProductImagesToDb(conn);
+                for (int productId : changed) {
+                    ProductImageStore.getInstance().invalidate(productId);
+                    ProductImageCache.getInstance().invalidate(productId);
+                }
+            } catch (Exception e) {
+                System.err.println("Product image seeding failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }, "image-seeder");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Seeds missing or outdated product images into the DB.
      * @param conn The database connection.
+     * @return The IDs of the products whose image was written.
      * @throws Exception If an error occurs during seeding.
      */
-    public static void seedProductImagesToDb(Connection conn) throws Exception {
-        String sql = "UPDATE ProductInfo SET imagelocation=? WHERE name=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            for (Map.Entry<String, String> e : IMAGE_MAP.entrySet()) {
-                String productName = e.getKey();
-                String fileName = e.getValue();
-                String resourcePath = RESOURCE_BASE_PATH + fileName;
-
-                try (InputStream is = ProductImageSeeder.class.getResourceAsStream(resourcePath)) {
-                    if (is == null) {
-                        System.err.println("IMAGE NOT FOUND in resources: " + resourcePath + " for product: " + productName);
-                        continue;
-                    }
-                    byte[] bytes = is.readAllBytes();
-
-                    ps.setBytes(1, bytes);
-                    ps.setString(2, productName);
-                    int updated = ps.executeUpdate();
-
-                    if (updated == 0) {
-                        System.out.println("SKIPPED: Product not found in DB: " + productName);
-                    } else {
-                        System.out.println("SUCCESS: Seeded " + productName + " (" + bytes.length + " bytes)");
-                    }
+    public static List<Integer> seedProductImagesToDb(Connection conn) throws Exception {
+        // 1. Current state of all seedable products (no BLOB transfer; SHA2 only for legacy rows)
+        String placeholders = String.join(", ", Collections.nCopies(IMAGE_MAP.size(), "?"));
+        String selectSql = "SELECT id, name, image_hash, image_seeded, imagelocation IS NULL AS missing, "
+                + "CASE WHEN image_hash IS NULL AND imagelocation IS NOT NULL THEN SHA2(imagelocation, 256) END AS legacy_hash "
+                + "FROM ProductInfo WHERE name IN (" + placeholders + ")";
+
+        List<ProductRow> rows = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(selectSql)) {
+            int idx = 1;
+            for (String name : IMAGE_MAP.keySet()) {
+                ps.setString(idx++, name);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new ProductRow(rs.getInt("id"), rs.getString("name"), rs.getString("image_hash"),
+                            rs.getBoolean("image_seeded"), rs.getBoolean("missing"), rs.getString("legacy_hash")));
                 }
             }
         }
+
+        // 2. Decide per row; resource files are read (and hashed) at most once each
+        Map<String, byte[]> resources = new HashMap<>();
+        List<Object[]> imageWrites = new ArrayList<>();   // {bytes, hash, id}
+        List<Object[]> hashWrites = new ArrayList<>();    // {hash, seeded, id}
+
+        for (ProductRow row : rows) {
+            String key = IMAGE_MAP.keySet().stream()
+                    .filter(k -> k.equalsIgnoreCase(row.name))
+                    .findFirst().orElse(null);
+            if (key == null) {
+                continue;
+            }
+            byte[] bytes = resources.computeIfAbsent(key, ProductImageSeeder::readResource);
+            if (bytes == null) {
+                continue;
+            }
+            String resourceHash = HashUtil.sha256Hex(bytes);
+
+            if (row.missing) {
+                imageWrites.add(new Object[] { bytes, resourceHash, row.id });
+            } else if (row.imageHash == null) {
+                // Image stored before hashes existed: adopt it as seeded only if it matches the file
+                boolean seeded = resourceHash.equals(row.legacyHash);
+                hashWrites.add(new Object[] { row.legacyHash, seeded, row.id });
+            } else if (row.seeded && !resourceHash.equals(row.imageHash)) {
+                imageWrites.add(new Object[] { bytes, resourceHash, row.id });
+            }
+            // Otherwise: unchanged seeded image, or an image uploaded by the owner -> skip
+        }
+
+        if (imageWrites.isEmpty() && hashWrites.isEmpty()) {
+            System.out.println("Product images are up to date.");
+            return Collections.emptyList();
+        }
+
+        // 3. Apply all writes as one batch in one transaction
+        List<Integer> changed = new ArrayList<>();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement imagePs = conn.prepareStatement(
+                // Re-checked on write: an owner upload since the SELECT is not overwritten
+                "UPDATE ProductInfo SET imagelocation = ?, image_hash = ?, image_seeded = TRUE "
+                        + "WHERE id = ? AND (imagelocation IS NULL OR image_seeded = TRUE)");
+                PreparedStatement hashPs = conn.prepareStatement(
+                        "UPDATE ProductInfo SET image_hash = ?, image_seeded = ? WHERE id = ?")) {
+
+            for (Object[] w : imageWrites) {
+                imagePs.setBytes(1, (byte[]) w[0]);
+                imagePs.setString(2, (String) w[1]);
+                imagePs.setInt(3, (Integer) w[2]);
+                imagePs.addBatch();
+                changed.add((Integer) w[2]);
+            }
+            for (Object[] w : hashWrites) {
+                hashPs.setString(1, (String) w[0]);
+                hashPs.setBoolean(2, (Boolean) w[1]);
+                hashPs.setInt(3, (Integer) w[2]);
+                hashPs.addBatch();
+            }
+            if (!imageWrites.isEmpty()) {
+                imagePs.executeBatch();
+            }
+            if (!hashWrites.isEmpty()) {
+                hashPs.executeBatch();
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        System.out.println("SUCCESS: Seeded " + imageWrites.size() + " product image(s), recorded "
+                + hashWrites.size() + " existing image hash(es).");
+        return changed;
+    }
+
+    private static byte[] readResource(String productName) {
+        String resourcePath = RESOURCE_BASE_PATH + IMAGE_MAP.get(productName);
+        try (InputStream is = ProductImageSeeder.class.getResourceAsStream(resourcePath)) {
+            if (is == null) {
+                System.err.println("IMAGE NOT FOUND in resources: " + resourcePath + " for product: " + productName);
+                return null;
+            }
+            return is.readAllBytes();
+        } catch (Exception e) {
+            System.err.println("Could not read " + resourcePath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Seeding-relevant state of one product row.
+     */
+    private static final class ProductRow {
+        private final int id;
+        private final String name;
+        private final String imageHash;
+        private final boolean seeded;
+        private final boolean missing;
+        private final String legacyHash;
+
+        private ProductRow(int id, String name, String imageHash, boolean seeded, boolean missing, String legacyHash) {
+            this.id = id;
+            this.name = name;
+            this.imageHash = imageHash;
+            this.seeded = seeded;
+            this.missing = missing;
+            this.legacyHash = legacyHash;
+        }
     }
 
     /**
@@ -0,0 +1,296 @@
+package com.group18.greengrocer.util;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MultipleSelectionModel;
+import javafx.scene.layout.HBox;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * A scrolling grid of equally wide tiles, grouped into collapsible sections, that only
+ * creates nodes for the rows on screen.
+ * <p>
+ * The grid is a {@link ListView} whose items are rows: a section header or up to
+ * {@code columns} items. The list view's virtual flow creates just enough row cells to
+ * fill the viewport and reuses them while scrolling; every row cell keeps its tiles and
+ * rebinds them to the items of the row it currently shows. The number of tile nodes
+ * therefore depends on the window size, not on the number of items.
+ * <p>
+ * The column count follows the width of the grid.
+ *
+ * @param <T> The item type.
+ * @author Group18
+ * @version 1.0
+ */
+public class VirtualTileGrid<T> {
+
+    /**
+     * A reusable tile. {@link #bind(Object)} is called whenever the tile is shown for an item,
+     * which may be a different item than before.
+     *
+     * @param <T> The item type.
+     */
+    public interface Tile<T> {
+
+        /**
+         * Gets the node of this tile (always the same node).
+         *
+         * @return The node.
+         */
+        Node getNode();
+
+        /**
+         * Shows an item in this tile.
+         *
+         * @param item The item.
+         */
+        void bind(T item);
+    }
+
+    /** Width kept free for the vertical scroll bar when computing the column count. */
+    private static final double SCROLL_BAR_ALLOWANCE = 20;
+
+    private final ListView<Row<T>> listView = new ListView<>();
+    private final double tileWidth;
+    private final double gap;
+    private final Supplier<? extends Tile<T>> tileFactory;
+
+    private final Map<String, List<T>> sections = new LinkedHashMap<>();
+    private final Set<String> collapsed = new HashSet<>();
+    private int columns = 1;
+    private int createdTiles;
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param tileWidth   The width of every tile.
+     * @param gap         Horizontal and vertical space between tiles.
+     * @param tileFactory Creates a new, unbound tile.
+     */
+    public VirtualTileGrid(double tileWidth, double gap, Supplier<? extends Tile<T>> tileFactory) {
+        this.tileWidth = tileWidth;
+        this.gap = gap;
+        this.tileFactory = tileFactory;
+
+        listView.setSelectionModel(new NoSelectionModel<>());
+        listView.setFocusTraversable(false);
+        listView.setStyle("-fx-background-color: transparent; -fx-background-insets: 0; -fx-padding: 0;");
+        listView.setCellFactory(lv -> new RowCell());
+
+        listView.widthProperty().addListener((obs, oldWidth, newWidth) -> {
+            int fitting = columnsFor(newWidth.doubleValue());
+            if (fitting != columns) {
+                columns = fitting;
+                rebuildRows();
+            }
+        });
+    }
+
+    /**
+     * Gets the node to place into the scene.
+     *
+     * @return The grid's list view.
+     */
+    public ListView<Row<T>> getView() {
+        return listView;
+    }
+
+    /**
+     * Replaces the content of the grid. Sections are shown in the iteration order of
+     * the map; empty sections are hidden. Collapsed sections stay collapsed.
+     *
+     * @param content Items per section title.
+     */
+    public void setSections(Map<String, List<T>> content) {
+        sections.clear();
+        content.forEach((title, items) -> sections.put(title, new ArrayList<>(items)));
+        rebuildRows();
+    }
+
+    /**
+     * Gets the number of tiles created so far (for diagnostics; stays constant while scrolling).
+     *
+     * @return The number of tile instances.
+     */
+    public int getCreatedTiles() {
+        return createdTiles;
+    }
+
+    private int columnsFor(double width) {
+        double usable = width - 2 * gap - SCROLL_BAR_ALLOWANCE; // row cell padding and scroll bar
+        return Math.max(1, (int) ((usable + gap) / (tileWidth + gap)));
+    }
+
+    private void rebuildRows() {
+        List<Row<T>> rows = new ArrayList<>();
+        sections.forEach((title, items) -> {
+            if (items.isEmpty()) {
+                return;
+            }
+            rows.add(new Row<>(title, items.size(), null));
+            if (collapsed.contains(title)) {
+                return;
+            }
+            for (int from = 0; from < items.size(); from += columns) {
+                rows.add(new Row<>(null, 0, items.subList(from, Math.min(from + columns, items.size()))));
+            }
+        });
+        listView.getItems().setAll(rows);
+    }
+
+    private void toggle(String title) {
+        if (!collapsed.remove(title)) {
+            collapsed.add(title);
+        }
+        rebuildRows();
+    }
+
+    /**
+     * One row of the grid: either a section header or the items of one line.
+     *
+     * @param <T> The item type.
+     */
+    public static final class Row<T> {
+        private final String title;
+        private final int count;
+        private final List<T> items;
+
+        private Row(String title, int count, List<T> items) {
+            this.title = title;
+            this.count = count;
+            this.items = items;
+        }
+
+        private boolean isHeader() {
+            return title != null;
+        }
+    }
+
+    /**
+     * Row cell that keeps its tiles and rebinds them to the row it shows.
+     */
+    private final class RowCell extends ListCell<Row<T>> {
+        private final HBox tileBox = new HBox(gap);
+        private final List<Tile<T>> tiles = new ArrayList<>();
+        private final Label header = new Label();
+
+        private RowCell() {
+            setStyle("-fx-background-color: transparent; -fx-padding: " + gap / 2 + " " + gap + ";");
+            header.setStyle("-fx-font-weight: bold; -fx-font-size: 15px; -fx-text-fill: #2E7D32;");
+            header.setPadding(new Insets(6, 0, 0, 0));
+            header.setCursor(Cursor.HAND);
+            header.setOnMouseClicked(e -> {
+                Row<T> row = getItem();
+                if (row != null && row.isHeader()) {
+                    toggle(row.title);
+                }
+            });
+        }
+
+        @Override
+        protected void updateItem(Row<T> row, boolean empty) {
+            super.updateItem(row, empty);
+            setText(null);
+            if (empty || row == null) {
+                setGraphic(null);
+                return;
+            }
+
+            if (row.isHeader()) {
+                String arrow = collapsed.contains(row.title) ? "▶ " : "▼ ";
+                header.setText(arrow + row.title + " (" + row.count + ")");
+                setGraphic(header);
+                return;
+            }
+
+            while (tiles.size() < row.items.size()) {
+                tiles.add(tileFactory.get());
+                createdTiles++;
+            }
+            for (int i = 0; i < row.items.size(); i++) {
+                tiles.get(i).bind(row.items.get(i));
+            }
+            // Only touch the children when the number of tiles in the row changes
+            if (tileBox.getChildren().size() != row.items.size()) {
+                List<Node> nodes = new ArrayList<>(row.items.size());
+                for (int i = 0; i < row.items.size(); i++) {
+                    nodes.add(tiles.get(i).getNode());
+                }
+                tileBox.getChildren().setAll(nodes);
+            }
+            setGraphic(tileBox);
+        }
+    }
+
+    /**
+     * Selection model that never selects anything; rows of the grid are not selectable.
+     */
+    private static final class NoSelectionModel<R> extends MultipleSelectionModel<R> {
+
+        @Override
+        public ObservableList<Integer> getSelectedIndices() {
+            return FXCollections.emptyObservableList();
+        }
+
+        @Override
+        public ObservableList<R> getSelectedItems() {
+            return FXCollections.emptyObservableList();
+        }
+
+        @Override
+        public void selectIndices(int index, int... indices) { }
+
+        @Override
+        public void selectAll() { }
+
+        @Override
+        public void selectFirst() { }
+
+        @Override
+        public void selectLast() { }
+
+        @Override
+        public void clearAndSelect(int index) { }
+
+        @Override
+        public void select(int index) { }
+
+        @Override
+        public void select(R obj) { }
+
+        @Override
+        public void clearSelection(int index) { }
+
+        @Override
+        public void clearSelection() { }
+
+        @Override
+        public boolean isSelected(int index) {
+            return false;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public void selectPrevious() { }
+
+        @Override
+        public void selectNext() { }
+    }
+}
@@ -0,0 +1,88 @@
+package com.group18.greengrocer.dao;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Embedded MariaDB server for the tests that need real SQL.
+ * <p>
+ * {@link #reset()} starts the server on a free port (once per JVM), recreates
+ * {@code greengrocer_db} from {@code database_schema.sql} (with its demo data), applies
+ * the {@link SchemaPatcher} migrations and points {@link DatabaseAdapter} at it.
+ */
+public final class EmbeddedDatabase {
+
+    private static final String SCHEMA_FILE = "database_schema.sql";
+
+    private static DB db;
+    private static int port;
+
+    private EmbeddedDatabase() { }
+
+    /**
+     * Recreates the application database with the schema and demo data.
+     *
+     * @throws Exception if the server cannot be started or the schema not loaded.
+     */
+    public static synchronized void reset() throws Exception {
+        if (db == null) {
+            DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+            config.setPort(0); // any free port
+            if ("root".equals(System.getProperty("user.name"))) {
+                config.addArg("--user=root");
+            }
+            db = DB.newEmbeddedDB(config.build());
+            db.start();
+            port = db.getConfiguration().getPort();
+        }
+
+        try (Connection conn = DriverManager.getConnection(url("") + "&allowMultiQueries=true", "root", "");
+                Statement stmt = conn.createStatement()) {
+            stmt.execute(schemaScript());
+        }
+
+        DatabaseAdapter.getInstance().useDatabase(url("greengrocer_db"), "root", "");
+        SchemaPatcher.updateSchema();
+    }
+
+    /**
+     * Opens a direct connection (outside the pool) to the application database.
+     *
+     * @return The connection.
+     * @throws SQLException if the server is not running.
+     */
+    public static Connection connect() throws SQLException {
+        return DriverManager.getConnection(url("greengrocer_db"), "root", "");
+    }
+
+    private static String url(String database) {
+        return "jdbc:mysql://localhost:" + port + "/" + database
+                + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    }
+
+    /**
+     * The schema script without the account statements (the embedded server runs
+     * without grant tables).
+     */
+    private static String schemaScript() throws IOException {
+        StringBuilder script = new StringBuilder();
+        for (String line : Files.readAllLines(Paths.get(SCHEMA_FILE), StandardCharsets.UTF_8)) {
+            String trimmed = line.trim().toUpperCase();
+            if (trimmed.startsWith("CREATE USER") || trimmed.startsWith("GRANT ")
+                    || trimmed.startsWith("FLUSH PRIVILEGES")) {
+                continue;
+            }
+            script.append(line).append('\n');
+        }
+        return script.toString();
+    }
+}
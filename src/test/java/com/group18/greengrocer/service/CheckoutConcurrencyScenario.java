@@ -0,0 +1,245 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.CouponDAO;
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.OrderDAO;
+import com.group18.greengrocer.dao.ProductDAO;
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Coupon;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Product;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Oversell and double-restore scenarios of the order transactions, shared by the
+ * in-memory and the MySQL variant.
+ * <p>
+ * Every scenario lets several customers race for the last units of one product and
+ * checks the stock accounting afterwards: the stock never goes below zero and the
+ * number of accepted orders matches the units that were available.
+ * <p>
+ * The database is opened once per test class, like the application opens it once:
+ * CartStore, ProductCatalogCache and InvoiceService are singletons that keep the DAOs
+ * they were created with. They are shut down after the last test of the class
+ * (Surefire runs every test class in its own JVM).
+ */
+public abstract class CheckoutConcurrencyScenario extends TestCase {
+
+    private static final int THREADS = 20;
+    private static final double STOCK = 5.0;
+
+    private static boolean opened;
+    private static int remainingTests;
+
+    protected OrderService orderService;
+    protected ProductDAO productDAO;
+    protected OrderDAO orderDAO;
+    protected CouponDAO couponDAO;
+
+    /**
+     * Prepares an empty database for the scenario and points DAOFactory at it.
+     * Called once, before the first test of the class.
+     */
+    protected abstract void openDatabase() throws Exception;
+
+    /**
+     * Returns the ids of {@code count} distinct customers that may place orders.
+     */
+    protected abstract int[] createCustomers(int count) throws Exception;
+
+    @Override
+    protected void setUp() throws Exception {
+        if (!opened) {
+            openDatabase();
+            opened = true;
+            remainingTests = new TestSuite(getClass()).countTestCases();
+        }
+        DAOFactory factory = DAOFactory.getInstance();
+        productDAO = factory.getProductDAO();
+        orderDAO = factory.getOrderDAO();
+        couponDAO = factory.getCouponDAO();
+        orderService = new OrderService();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (--remainingTests == 0) {
+            CartStore.getInstance().shutdown();
+            InvoiceService.getInstance().shutdown();
+        }
+    }
+
+    public void testConcurrentCheckoutsNeverOversell() throws Exception {
+        Product product = newProduct("Last Apples", STOCK);
+        int[] customers = customers(THREADS);
+        for (int customerId : customers) {
+            orderService.addToCart(customerId, product.getId(), 1.0);
+        }
+
+        // Watch the stock while the checkouts run
+        AtomicBoolean running = new AtomicBoolean(true);
+        double[] lowest = { STOCK };
+        Thread watcher = new Thread(() -> {
+            while (running.get()) {
+                lowest[0] = Math.min(lowest[0], productDAO.findById(product.getId()).getStock());
+            }
+        });
+        watcher.start();
+
+        List<Callable<Boolean>> checkouts = new ArrayList<>();
+        for (int customerId : customers) {
+            checkouts.add(() -> {
+                try {
+                    orderService.checkout(orderService.getCart(customerId));
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false; // rejected: not enough stock left
+                }
+            });
+        }
+        int accepted = count(runTogether(checkouts));
+
+        running.set(false);
+        watcher.join();
+
+        assertEquals((int) STOCK, accepted);
+        assertEquals(0.0, productDAO.findById(product.getId()).getStock(), 0.0);
+        assertTrue("Stock went below zero: " + lowest[0], lowest[0] >= 0.0);
+        assertEquals(accepted, ordersContaining(product.getId()));
+    }
+
+    public void testRejectedCheckoutKeepsCoupon() throws Exception {
+        Product product = newProduct("Last Pears", 1.0);
+        int customerId = customers(1)[0];
+        Coupon coupon = new Coupon("KEEP" + System.nanoTime() % 100000, 5.0,
+                new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30)));
+        assertTrue(couponDAO.addCoupon(coupon));
+        int couponId = couponDAO.findCouponByCode(coupon.getCode()).getId();
+
+        // Two units of a product with one left: the stock reservation must fail
+        Order order = new Order(customerId, 10.0, couponId);
+        CartItem item = new CartItem(product, 2.0);
+        item.setPriceAtPurchase(product.getPrice());
+        List<CartItem> items = new ArrayList<>();
+        items.add(item);
+        order.setItems(items);
+        order.setStatus(Order.Status.WAITING);
+        order.setOrderTime(new java.sql.Timestamp(System.currentTimeMillis()));
+
+        try {
+            orderDAO.createOrder(order);
+            fail("Checkout over the remaining stock was accepted.");
+        } catch (IllegalStateException expected) {
+            // rejected as expected
+        }
+
+        assertTrue("A rejected checkout consumed the coupon.", couponDAO.findCouponById(couponId).isActive());
+        assertEquals(1.0, productDAO.findById(product.getId()).getStock(), 0.0);
+        assertEquals(0, ordersContaining(product.getId()));
+    }
+
+    public void testConcurrentCancelsRestoreStockOnce() throws Exception {
+        Product product = newProduct("Last Plums", STOCK);
+        int customerId = customers(1)[0];
+        orderService.addToCart(customerId, product.getId(), 2.0);
+        Order order = orderService.getCart(customerId);
+        orderService.checkout(order);
+        assertEquals(STOCK - 2.0, productDAO.findById(product.getId()).getStock(), 0.0);
+
+        List<Callable<Boolean>> cancels = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            cancels.add(() -> {
+                try {
+                    orderService.cancelOrder(order.getId(), customerId);
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false; // already cancelled by another call
+                }
+            });
+        }
+
+        assertEquals(1, count(runTogether(cancels)));
+        assertEquals(STOCK, productDAO.findById(product.getId()).getStock(), 0.0);
+        assertEquals(Order.Status.CANCELLED, orderDAO.findOrderById(order.getId()).getStatus());
+    }
+
+    /**
+     * Creates the customers and empties their carts, so no test sees a cart left over
+     * by another one.
+     */
+    private int[] customers(int count) throws Exception {
+        int[] ids = createCustomers(count);
+        for (int id : ids) {
+            CartStore.getInstance().remove(id);
+        }
+        return ids;
+    }
+
+    private Product newProduct(String name, double stock) {
+        Product product = new Product(name, Category.FRUIT, "Generic", 10.0, stock, 1.0, null, "kg");
+        assertTrue(productDAO.insert(product));
+        return product;
+    }
+
+    private int ordersContaining(int productId) {
+        int count = 0;
+        for (Order o : orderDAO.findAllOrders()) {
+            if (o.getStatus() == Order.Status.CANCELLED)
+                continue;
+            for (CartItem item : o.getItems()) {
+                if (item.getProduct() != null && item.getProduct().getId() == productId) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Runs all tasks at the same moment and returns their results.
+     */
+    private static List<Boolean> runTogether(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static int count(List<Boolean> results) {
+        int n = 0;
+        for (Boolean r : results) {
+            if (r)
+                n++;
+        }
+        return n;
+    }
+}
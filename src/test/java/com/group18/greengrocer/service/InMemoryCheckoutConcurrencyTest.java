@@ -0,0 +1,25 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.DAOFactory;
+
+/**
+ * Checkout and cancel races on the in-memory DAOs.
+ */
+public class InMemoryCheckoutConcurrencyTest extends CheckoutConcurrencyScenario {
+
+    private static int nextCustomerId = 1000;
+
+    @Override
+    protected void openDatabase() {
+        DAOFactory.useInMemory();
+    }
+
+    @Override
+    protected int[] createCustomers(int count) {
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = nextCustomerId++;
+        }
+        return ids;
+    }
+}
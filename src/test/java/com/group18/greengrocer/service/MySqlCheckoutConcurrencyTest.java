@@ -0,0 +1,41 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.EmbeddedDatabase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Checkout and cancel races on the MySQL DAOs (conditional stock UPDATEs and row
+ * locks), run against the embedded database.
+ */
+public class MySqlCheckoutConcurrencyTest extends CheckoutConcurrencyScenario {
+
+    private static int nextCustomer;
+
+    @Override
+    protected void openDatabase() throws Exception {
+        EmbeddedDatabase.reset();
+    }
+
+    @Override
+    protected int[] createCustomers(int count) throws Exception {
+        int[] ids = new int[count];
+        try (Connection conn = EmbeddedDatabase.connect();
+                PreparedStatement insert = conn.prepareStatement(
+                        "INSERT INTO UserInfo (username, password, role) VALUES (?, 'x', 'CUSTOMER')",
+                        Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < count; i++) {
+                insert.setString(1, "race_customer_" + nextCustomer++);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    ids[i] = keys.getInt(1);
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,73 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.EmbeddedDatabase;
+import com.group18.greengrocer.dao.OrderDAO;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Page;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * The keyset pages of the owner and carrier order tables, walked from the first to
+ * the last token, must list exactly the matching orders, newest first, with or
+ * without a status filter (one status, or several merged).
+ */
+public class OrderPagingTest extends TestCase {
+
+    private static final int PAGE_SIZE = 7;
+
+    private OrderDAO orderDAO;
+    private List<Order> allOrders;
+
+    @Override
+    protected void setUp() throws Exception {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        EmbeddedDatabase.reset();
+        ReportAggregatesTest.seedOrders(120, new Random(10));
+        orderDAO = DAOFactory.getInstance().getOrderDAO();
+        allOrders = orderDAO.findAllOrders();
+    }
+
+    public void testPagesMatchFullList() {
+        assertPages(null);
+        assertPages(EnumSet.of(Order.Status.DELIVERED));
+        assertPages(EnumSet.of(Order.Status.WAITING, Order.Status.RECEIVED, Order.Status.AVAILABLE));
+        assertPages(EnumSet.allOf(Order.Status.class));
+    }
+
+    private void assertPages(Set<Order.Status> statuses) {
+        List<Integer> expected = new ArrayList<>();
+        List<Order> matching = new ArrayList<>();
+        for (Order o : allOrders) {
+            if (o.getOrderTime() != null && (statuses == null || statuses.contains(o.getStatus()))) {
+                matching.add(o);
+            }
+        }
+        matching.sort(Comparator.comparing(Order::getOrderTime).thenComparingInt(Order::getId).reversed());
+        for (Order o : matching) {
+            expected.add(o.getId());
+        }
+
+        List<Integer> paged = new ArrayList<>();
+        String token = null;
+        do {
+            Page<Order> page = orderDAO.findOrdersPage(null, statuses, token, PAGE_SIZE);
+            assertTrue(page.getItems().size() <= PAGE_SIZE);
+            for (Order o : page.getItems()) {
+                paged.add(o.getId());
+            }
+            token = page.hasMore() ? page.getNextToken() : null;
+        } while (token != null);
+
+        assertEquals(String.valueOf(statuses), expected, paged);
+    }
+}
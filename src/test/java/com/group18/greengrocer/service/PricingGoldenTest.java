@@ -0,0 +1,296 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.CouponDAO;
+import com.group18.greengrocer.dao.InMemoryCouponDAO;
+import com.group18.greengrocer.dao.InMemoryDatabase;
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Coupon;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.Product;
+import com.group18.greengrocer.util.Constants;
+import com.group18.greengrocer.util.PriceMath;
+
+import junit.framework.TestCase;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Golden tests of the pricing kernel: checkout totals, cart quotes and line totals
+ * must be exactly equal (bit for bit) to the results of the pricing code that was
+ * in place before {@link PriceMath} existed. The {@code Baseline*} methods below are
+ * verbatim copies of that code.
+ */
+public class PricingGoldenTest extends TestCase {
+
+    private static final int CARTS = 20_000;
+    private static final double[] LOYALTY_PERCENTS = { 0.0, 5.0, 15.0, 7.5, 12.25 };
+
+    private Random random;
+    private CouponDAO coupons;
+    private DiscountService discountService;
+
+    @Override
+    protected void setUp() {
+        random = new Random(18);
+        coupons = new InMemoryCouponDAO(new InMemoryDatabase());
+        discountService = new DiscountService(coupons);
+    }
+
+    public void testCheckoutTotalEqualsBaseline() {
+        for (int n = 0; n < CARTS; n++) {
+            List<CartItem> items = randomCart();
+            Coupon coupon = random.nextInt(3) == 0 ? newCoupon() : null;
+
+            Order order = new Order();
+            order.setCustomerId(0); // guest: no loyalty discount, no database
+            order.setUsedCouponId(coupon != null ? coupon.getId() : null);
+            order.setItems(items);
+
+            List<CartItem> copies = copyOf(items);
+            double expected = baselineFinalPrice(copies, coupon, 0.0);
+            double actual = discountService.calculateFinalPrice(order);
+
+            assertEquals("cart " + n, expected, actual, 0.0);
+            assertEquals(expected, order.getTotalCost(), 0.0);
+            for (int i = 0; i < items.size(); i++) {
+                assertEquals(copies.get(i).getPriceAtPurchase(), items.get(i).getPriceAtPurchase(), 0.0);
+                assertEquals(baselineLineTotal(copies.get(i)), items.get(i).getTotalPrice(), 0.0);
+            }
+        }
+    }
+
+    public void testTotalWithLoyaltyEqualsBaseline() {
+        for (int n = 0; n < CARTS; n++) {
+            List<CartItem> items = randomCart();
+            Coupon coupon = random.nextBoolean() ? newCoupon() : null;
+            double loyalty = LOYALTY_PERCENTS[random.nextInt(LOYALTY_PERCENTS.length)];
+
+            double subtotal = 0.0;
+            for (CartItem item : items) {
+                item.setPriceAtPurchase(DiscountService.unitPrice(item.getProduct()));
+                subtotal += item.getTotalPrice();
+            }
+            double actual = PriceMath.total(subtotal, coupon != null ? coupon.getDiscountAmount() : 0.0, loyalty);
+
+            assertEquals("cart " + n, baselineFinalPrice(copyOf(items), coupon, loyalty), actual, 0.0);
+        }
+    }
+
+    public void testCartQuoteEqualsBaseline() {
+        for (int session = 0; session < CARTS / 20; session++) {
+            int deliveredOrders = new int[] { 0, 5, 10 }[random.nextInt(3)];
+            List<CartItem> items = randomCart();
+            CartQuote quote = new CartQuote(items, deliveredOrders);
+            BaselineQuote expected = new BaselineQuote(items, deliveredOrders);
+            assertSameQuote(expected, quote);
+
+            for (int edit = 0; edit < 20; edit++) {
+                switch (random.nextInt(4)) {
+                    case 0: { // change the quantity of a line
+                        CartItem item = items.get(random.nextInt(items.size()));
+                        item.setQuantity(randomQuantity());
+                        quote.putLine(item);
+                        expected.putLine(item);
+                        break;
+                    }
+                    case 1: { // add a line
+                        CartItem item = new CartItem(randomProduct(1000 + session * 100 + edit), randomQuantity());
+                        items.add(item);
+                        quote.putLine(item);
+                        expected.putLine(item);
+                        break;
+                    }
+                    case 2: { // remove a line
+                        CartItem item = items.remove(random.nextInt(items.size()));
+                        quote.removeLine(item.getProduct().getId());
+                        expected.removeLine(item.getProduct().getId());
+                        if (items.isEmpty()) {
+                            CartItem again = new CartItem(randomProduct(1), randomQuantity());
+                            items.add(again);
+                            quote.putLine(again);
+                            expected.putLine(again);
+                        }
+                        break;
+                    }
+                    default: { // apply or remove the coupon
+                        Coupon coupon = random.nextBoolean() ? newCoupon() : null;
+                        quote.setCoupon(coupon);
+                        expected.coupon = coupon;
+                        break;
+                    }
+                }
+                assertSameQuote(expected, quote);
+            }
+        }
+    }
+
+    private static void assertSameQuote(BaselineQuote expected, CartQuote actual) {
+        assertEquals(expected.subtotal, actual.getSubtotal(), 0.0);
+        assertEquals(expected.getTotal(), actual.getTotal(), 0.0);
+        assertEquals(expected.getVatAmount(), actual.getVatAmount(), 0.0);
+    }
+
+    /* -------------------------
+       Random carts
+       ------------------------- */
+
+    private List<CartItem> randomCart() {
+        int lines = 1 + random.nextInt(12);
+        List<CartItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new CartItem(randomProduct(i + 1), randomQuantity()));
+        }
+        return items;
+    }
+
+    private Product randomProduct(int id) {
+        double price;
+        switch (random.nextInt(3)) {
+            case 0:
+                price = (50 + random.nextInt(10_000)) / 100.0; // DECIMAL(10,2) as read from MySQL
+                break;
+            case 1:
+                price = 9.90 + random.nextInt(40); // carries binary noise, e.g. 12.899999999999999
+                break;
+            default:
+                price = 0.01 * (1 + random.nextInt(9_999)); // noise from the multiplication
+                break;
+        }
+        double threshold = random.nextInt(5) == 0 ? 0.0 : 1 + random.nextInt(10);
+        double stock = random.nextBoolean() ? threshold : threshold + 1 + random.nextInt(100);
+        Product product = new Product(id, "Product " + id, random.nextBoolean() ? Category.FRUIT : Category.VEGETABLE,
+                price, stock);
+        product.setThreshold(threshold);
+        return product;
+    }
+
+    private double randomQuantity() {
+        switch (random.nextInt(3)) {
+            case 0:
+                return 1 + random.nextInt(6); // pieces
+            case 1:
+                return 0.5 * (1 + random.nextInt(10)); // half kilograms
+            default:
+                return (1 + random.nextInt(500)) / 100.0; // grams typed as kg, e.g. 0.37
+        }
+    }
+
+    private Coupon newCoupon() {
+        Coupon coupon = new Coupon("C" + random.nextInt(1_000_000_000), (1 + random.nextInt(5_000)) / 100.0,
+                Date.valueOf(LocalDate.now().plusYears(1)));
+        assertTrue(coupons.addCoupon(coupon));
+        return coupon;
+    }
+
+    private static List<CartItem> copyOf(List<CartItem> items) {
+        List<CartItem> copies = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            CartItem copy = new CartItem(item.getProduct(), item.getQuantity());
+            copy.setPriceAtPurchase(item.getPriceAtPurchase());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /* -------------------------
+       Baseline (pricing code before PriceMath)
+       ------------------------- */
+
+    private static double baselineUnitPrice(Product p) {
+        if (p.getThreshold() > 0 && p.getStock() <= p.getThreshold()) {
+            return p.getPrice() * 2.0;
+        }
+        return p.getPrice();
+    }
+
+    private static double baselineLineTotal(CartItem item) {
+        return item.getPriceAtPurchase() * item.getQuantity();
+    }
+
+    /** DiscountService.calculateFinalPrice, with the coupon and loyalty lookups already done. */
+    private static double baselineFinalPrice(List<CartItem> items, Coupon c, double loyaltyPercent) {
+        double subtotal = 0.0;
+        for (CartItem item : items) {
+            Product p = item.getProduct();
+            if (p != null) {
+                item.setPriceAtPurchase(baselineUnitPrice(p));
+            }
+            subtotal += baselineLineTotal(item);
+        }
+
+        double afterCoupon = subtotal;
+        if (c != null) {
+            afterCoupon = Math.max(0.0, afterCoupon - c.getDiscountAmount());
+        }
+
+        double afterLoyalty = baselineApplyPercentDiscount(afterCoupon, loyaltyPercent);
+        double withVat = afterLoyalty * (1.0 + Constants.VAT_RATE);
+        return baselineRound2(withVat);
+    }
+
+    private static double baselineApplyPercentDiscount(double total, double percent) {
+        if (percent <= 0)
+            return total;
+        if (percent > 100)
+            throw new IllegalArgumentException("Discount percent cannot exceed 100.");
+        return total * (1.0 - (percent / 100.0));
+    }
+
+    private static double baselineRound2(double x) {
+        return Math.round(x * 100.0) / 100.0;
+    }
+
+    /** CartQuote before PriceMath. */
+    private static final class BaselineQuote {
+        private final Map<Integer, Double> lineTotals = new HashMap<>();
+        private final double loyaltyPercent;
+        private double subtotal;
+        private Coupon coupon;
+
+        private BaselineQuote(List<CartItem> items, int deliveredOrders) {
+            this.loyaltyPercent = com.group18.greengrocer.model.LoyaltyTier.forOrderCount(deliveredOrders)
+                    .getDiscountPercent();
+            for (CartItem item : items) {
+                putLine(item);
+            }
+        }
+
+        private void putLine(CartItem item) {
+            double lineTotal = baselineUnitPrice(item.getProduct()) * item.getQuantity();
+            Double previous = lineTotals.put(item.getProduct().getId(), lineTotal);
+            subtotal += lineTotal - (previous != null ? previous : 0.0);
+        }
+
+        private void removeLine(int productId) {
+            Double previous = lineTotals.remove(productId);
+            if (previous != null) {
+                subtotal -= previous;
+            }
+            if (lineTotals.isEmpty()) {
+                subtotal = 0.0;
+            }
+        }
+
+        private double getTotal() {
+            double afterCoupon = subtotal;
+            if (coupon != null) {
+                afterCoupon = Math.max(0.0, afterCoupon - coupon.getDiscountAmount());
+            }
+            double afterLoyalty = afterCoupon * (1.0 - loyaltyPercent / 100.0);
+            double withVat = afterLoyalty * (1.0 + Constants.VAT_RATE);
+            return Math.round(withVat * 100.0) / 100.0;
+        }
+
+        private double getVatAmount() {
+            double total = getTotal();
+            return total - total / (1.0 + Constants.VAT_RATE);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.ProductDAO;
+import com.group18.greengrocer.model.Category;
+import com.group18.greengrocer.model.Product;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * The incrementally patched catalog indexes must answer exactly like a full scan of
+ * the product table, after any sequence of inserts, renames, stock changes and
+ * removals.
+ */
+public class ProductCatalogCacheTest extends TestCase {
+
+    private static final String[] WORDS = { "apple", "banana", "cherry", "date", "apricot", "grape",
+            "leek", "lettuce", "carrot", "pear", "peach", "plum" };
+    private static final String[] KEYWORDS = { "a", "p", "e", "ap", "an", "ea", "ppl", "rr", "let",
+            "apple", "pea", "each", "plum", "carro", "zz" };
+
+    // One database per class: the cache singleton keeps the DAO it was created with
+    private static ProductDAO productDAO;
+
+    private ProductCatalogCache cache;
+    private Random random;
+
+    @Override
+    protected void setUp() {
+        random = new Random(7);
+        if (productDAO == null) {
+            DAOFactory.useInMemory();
+            productDAO = DAOFactory.getInstance().getProductDAO();
+            for (int i = 0; i < 150; i++) {
+                insertRandomProduct();
+            }
+        }
+        cache = ProductCatalogCache.getInstance();
+        cache.invalidate();
+    }
+
+    public void testPatchesMatchFullScan() {
+        assertMatchesDatabase(); // loads the catalog
+
+        for (int step = 0; step < 400; step++) {
+            List<Product> products = productDAO.findAll();
+            Product target = products.get(random.nextInt(products.size()));
+            switch (random.nextInt(5)) {
+                case 0:
+                    cache.put(insertRandomProduct());
+                    break;
+                case 1: // rename (and maybe change category)
+                    target.setName(randomName());
+                    target.setCategory(random.nextBoolean() ? Category.FRUIT : Category.VEGETABLE);
+                    assertTrue(productDAO.update(target));
+                    cache.put(target);
+                    break;
+                case 2: // stock change, as after a checkout or cancellation
+                    productDAO.adjustStock(target.getId(), random.nextBoolean() ? -target.getStock() : 3.0);
+                    cache.refresh(List.of(target.getId()));
+                    break;
+                case 3:
+                    assertTrue(productDAO.delete(target.getId()));
+                    cache.remove(target.getId());
+                    break;
+                default: // soft delete through a rename, refreshed from the database
+                    target.setName("DELETED-" + target.getName());
+                    assertTrue(productDAO.update(target));
+                    cache.refresh(List.of(target.getId()));
+                    break;
+            }
+            assertMatchesDatabase();
+        }
+
+        // A reload from scratch must give the same answers as the patched catalog
+        ProductCatalogCache.Stats before = cache.getStats();
+        cache.invalidate();
+        assertMatchesDatabase();
+        assertEquals(before.getSize(), cache.getStats().getSize());
+    }
+
+    public void testRefreshWithoutChangesKeepsBuckets() {
+        assertTrue(productDAO.insert(new Product("Aaa apple", Category.FRUIT, "Generic", 2.0, 5.0, 2.0, null, "kg")));
+        List<Product> before = cache.searchAvailable("ap");
+        Product first = before.get(0);
+        productDAO.adjustStock(first.getId(), 1.0);
+        cache.refresh(List.of(first.getId()));
+
+        List<Product> after = cache.searchAvailable("ap");
+        assertEquals(ids(before), ids(after));
+        assertEquals(first.getStock() + 1.0, after.get(0).getStock(), 0.0);
+    }
+
+    private void assertMatchesDatabase() {
+        List<Product> listed = new ArrayList<>();
+        for (Product p : productDAO.findAll()) {
+            if (p.getName() != null && !p.getName().startsWith("DELETED-") && p.getStock() > 0) {
+                listed.add(p);
+            }
+        }
+        listed.sort((a, b) -> {
+            int byName = String.CASE_INSENSITIVE_ORDER.compare(a.getName(), b.getName());
+            return byName != 0 ? byName : Integer.compare(a.getId(), b.getId());
+        });
+
+        assertEquals(ids(listed), ids(cache.getAvailableProducts()));
+        for (Category category : Category.values()) {
+            List<Product> expected = new ArrayList<>();
+            for (Product p : listed) {
+                if (p.getCategory() == category) {
+                    expected.add(p);
+                }
+            }
+            assertEquals(ids(expected), ids(cache.getAvailableByCategory(category)));
+        }
+        for (String keyword : KEYWORDS) {
+            List<Product> expected = new ArrayList<>();
+            for (Product p : listed) {
+                if (p.getName().toLowerCase(Locale.ROOT).contains(keyword)) {
+                    expected.add(p);
+                }
+            }
+            assertEquals(keyword, ids(expected), ids(cache.searchAvailable(keyword)));
+        }
+    }
+
+    private Product insertRandomProduct() {
+        Product product = new Product(randomName(), random.nextBoolean() ? Category.FRUIT : Category.VEGETABLE,
+                "Generic", 1.0 + random.nextInt(20), random.nextInt(4) * 5.0, 2.0, null, "kg");
+        assertTrue(productDAO.insert(product));
+        return product;
+    }
+
+    private String randomName() {
+        String name = WORDS[random.nextInt(WORDS.length)];
+        if (random.nextBoolean()) {
+            name = name.toUpperCase(Locale.ROOT).charAt(0) + name.substring(1) + " "
+                    + WORDS[random.nextInt(WORDS.length)];
+        }
+        return name;
+    }
+
+    private static List<Integer> ids(List<Product> products) {
+        List<Integer> ids = new ArrayList<>(products.size());
+        for (Product p : products) {
+            ids.add(p.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,220 @@
+package com.group18.greengrocer.service;
+
+import com.group18.greengrocer.dao.DAOFactory;
+import com.group18.greengrocer.dao.EmbeddedDatabase;
+import com.group18.greengrocer.dao.OrderDAO;
+import com.group18.greengrocer.dao.ReportDAO;
+import com.group18.greengrocer.model.CartItem;
+import com.group18.greengrocer.model.Order;
+import com.group18.greengrocer.model.ReportData;
+
+import junit.framework.TestCase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+/**
+ * Regression test for the owner dashboard aggregates: the SQL aggregates of ReportDAO
+ * (as served by OrderService) must equal the former Java aggregation over
+ * {@code findAllOrders()}. The daily sales rollup must equal the delivered orders,
+ * whether it was updated delivery by delivery or rebuilt.
+ */
+public class ReportAggregatesTest extends TestCase {
+
+    private static final double EPSILON = 1e-6;
+    private static final String[] STATUSES = {
+            null, "WAITING", "RECEIVED", "AVAILABLE", "SELECTED", "PREPARING", "ON_THE_WAY",
+            "DELIVERED", "COMPLETED", "CANCELLED" };
+
+    private OrderService orderService;
+    private List<Order> allOrders;
+
+    @Override
+    protected void setUp() throws Exception {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+        EmbeddedDatabase.reset();
+        seedOrders(120, new Random(18));
+        orderService = new OrderService();
+        allOrders = DAOFactory.getInstance().getOrderDAO().findAllOrders();
+    }
+
+    public void testRevenueByProduct() {
+        Map<String, Double> expected = new HashMap<>();
+        for (Order o : allOrders) {
+            if (o.getStatus() == Order.Status.CANCELLED)
+                continue;
+            for (CartItem item : o.getItems()) {
+                String name = item.getProduct().getName();
+                expected.merge(name, item.getQuantity() * item.getPriceAtPurchase(), Double::sum);
+            }
+        }
+        assertSameValues(expected, orderService.getRevenueByProduct());
+    }
+
+    public void testSalesByCategory() {
+        Map<String, Double> expected = new HashMap<>();
+        for (Order o : allOrders) {
+            if (o.getStatus() == Order.Status.CANCELLED)
+                continue;
+            for (CartItem item : o.getItems()) {
+                String category = item.getProduct().getCategory().name();
+                expected.merge(category, item.getQuantity() * item.getPriceAtPurchase(), Double::sum);
+            }
+        }
+        assertSameValues(expected, orderService.getSalesByCategory());
+    }
+
+    public void testRevenueOverTime() {
+        Map<String, Double> expected = new TreeMap<>();
+        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd");
+        for (Order o : allOrders) {
+            if (o.getStatus() == Order.Status.CANCELLED || o.getOrderTime() == null)
+                continue;
+            expected.merge(sdf.format(o.getOrderTime()), o.getTotalCost(), Double::sum);
+        }
+        Map<String, Double> actual = orderService.getRevenueOverTime();
+        assertSameValues(expected, actual);
+        assertEquals("days are sorted", new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+    }
+
+    public void testOrderStatusDistribution() {
+        Map<String, Integer> expected = new HashMap<>();
+        for (Order o : allOrders) {
+            expected.merge(o.getStatus().toString(), 1, Integer::sum);
+        }
+        assertEquals(expected, orderService.getOrderStatusDistribution());
+    }
+
+    public void testTotals() {
+        double revenue = 0;
+        int orders = 0;
+        java.util.Set<Integer> customers = new java.util.HashSet<>();
+        for (Order o : allOrders) {
+            if (o.getStatus() == Order.Status.CANCELLED)
+                continue;
+            revenue += o.getTotalCost();
+            orders++;
+            customers.add(o.getCustomerId());
+        }
+        assertEquals(revenue, orderService.getTotalRevenue(), EPSILON);
+        assertEquals(orders, orderService.getTotalOrdersCount());
+        assertEquals(customers.size(), orderService.getActiveCustomersCount());
+    }
+
+    public void testDailySalesRollup() {
+        ReportDAO reportDAO = ReportDAO.getInstance();
+        OrderDAO orderDAO = DAOFactory.getInstance().getOrderDAO();
+        // The seeded orders bypass the DAOs, so the rollup starts from a rebuild
+        assertTrue(reportDAO.rebuildDailySales(null, null) >= 0);
+
+        // Deliveries add themselves to the rollup
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (Order o : allOrders) {
+            if (o.getStatus() == Order.Status.ON_THE_WAY) {
+                assertTrue(orderDAO.completeOrder(o.getId(), now));
+            }
+        }
+
+        Map<String, Double> expected = new TreeMap<>();
+        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd");
+        Order delivered = null;
+        for (Order o : orderDAO.findAllOrders()) {
+            if ((o.getStatus() == Order.Status.DELIVERED || o.getStatus() == Order.Status.COMPLETED)
+                    && o.getOrderTime() != null) {
+                expected.merge(sdf.format(o.getOrderTime()), o.getTotalCost(), Double::sum);
+                delivered = o;
+            }
+        }
+        assertSameValues(expected, byLabel(reportDAO.getDailySales(30)));
+
+        assertTrue(reportDAO.rebuildDailySales(null, null) >= 0);
+        assertSameValues(expected, byLabel(reportDAO.getDailySales(30)));
+
+        // A delivered order stays counted: it cannot be cancelled
+        assertNotNull(delivered);
+        try {
+            orderService.cancelOrder(delivered.getId(), delivered.getCustomerId());
+            fail("A delivered order was cancelled.");
+        } catch (IllegalStateException expectedRejection) {
+            // rejected as expected
+        }
+        assertFalse(orderDAO.cancelOrder(delivered.getId()));
+        assertSameValues(expected, byLabel(reportDAO.getDailySales(30)));
+    }
+
+    private static Map<String, Double> byLabel(List<ReportData> data) {
+        Map<String, Double> values = new HashMap<>();
+        for (ReportData d : data) {
+            values.put(d.getLabel(), d.getValue());
+        }
+        return values;
+    }
+
+    private static void assertSameValues(Map<String, Double> expected, Map<String, Double> actual) {
+        assertEquals("labels", new TreeMap<>(expected).keySet(), new TreeMap<>(actual).keySet());
+        for (Map.Entry<String, Double> e : expected.entrySet()) {
+            assertEquals(e.getKey(), e.getValue(), actual.get(e.getKey()), EPSILON);
+        }
+    }
+
+    /**
+     * Adds orders with items over the last two weeks, in every status (and NULL).
+     */
+    static void seedOrders(int count, Random random) throws Exception {
+        try (Connection conn = EmbeddedDatabase.connect()) {
+            List<Integer> customers = ids(conn, "SELECT id FROM UserInfo WHERE role = 'CUSTOMER'");
+            List<Integer> products = ids(conn, "SELECT id FROM ProductInfo");
+            long now = System.currentTimeMillis();
+
+            try (PreparedStatement order = conn.prepareStatement(
+                    "INSERT INTO OrderInfo (customer_id, ordertime, status, totalcost) VALUES (?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+                    PreparedStatement item = conn.prepareStatement(
+                            "INSERT INTO OrderItems (order_id, product_id, quantity, price_at_purchase) VALUES (?, ?, ?, ?)")) {
+                for (int i = 0; i < count; i++) {
+                    order.setInt(1, customers.get(random.nextInt(customers.size())));
+                    order.setTimestamp(2, new Timestamp(now - (long) (random.nextDouble() * 14 * 86_400_000L)));
+                    order.setString(3, STATUSES[random.nextInt(STATUSES.length)]);
+                    order.setBigDecimal(4, java.math.BigDecimal.valueOf(random.nextInt(50_000), 2));
+                    order.executeUpdate();
+                    int orderId;
+                    try (ResultSet keys = order.getGeneratedKeys()) {
+                        keys.next();
+                        orderId = keys.getInt(1);
+                    }
+                    // One line per product and order (unique_order_item)
+                    java.util.Collections.shuffle(products, random);
+                    int lines = 1 + random.nextInt(4);
+                    for (int line = 0; line < lines; line++) {
+                        item.setInt(1, orderId);
+                        item.setInt(2, products.get(line));
+                        item.setBigDecimal(3, java.math.BigDecimal.valueOf(1 + random.nextInt(500), 2));
+                        item.setBigDecimal(4, java.math.BigDecimal.valueOf(100 + random.nextInt(9_900), 2));
+                        item.addBatch();
+                    }
+                    item.executeBatch();
+                }
+            }
+        }
+    }
+
+    private static List<Integer> ids(Connection conn, String sql) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+}